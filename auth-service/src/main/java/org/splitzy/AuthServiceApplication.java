@@ -1,11 +1,16 @@
 package org.splitzy;
 
+import org.splitzy.common.security.JjwtRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 // Handles user authentication, JWT token generation, and Redis-based token blacklisting
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(JjwtRuntimeHints.class)
 @ComponentScan(basePackages = {
         "org.splitzy.auth",
         "org.splitzy.common"  // Include common package for shared components
@@ -0,0 +1,196 @@
+package org.splitzy.auth.availability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.splitzy.auth.revocation.TokenDigests;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+/**
+ * Bloom filters over the usernames and emails in auth_users, answering "definitely free" without a query.
+ * A possible hit still goes to the unique index, so a false positive only costs the query the filter was
+ * meant to save. Built by streaming auth_users at startup; each registration is broadcast as digests on a
+ * pub/sub channel so every instance adds it within milliseconds, and the periodic rebuild picks up anything
+ * missed while the subscription was down. Until the first build, every name counts as possibly taken.
+ * Values are lower-cased, as the unique indexes compare case-insensitively.
+ */
+@Slf4j
+@Component
+public class AvailabilityIndex implements MessageListener {
+
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final String channel;
+    private final long expectedEntries;
+    private final double falsePositiveProbability;
+
+    private volatile Filters filters;
+    // Filters being built; registrations meanwhile go into both
+    private volatile Filters rebuilding;
+
+    private final Counter definitelyFree;
+    private final Counter possiblyTaken;
+
+    public AvailabilityIndex(DataSource dataSource,
+                             RedisTemplate<String, String> redisTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${auth.availability.channel:auth:registrations}") String channel,
+                             @Value("${auth.availability.expected-users:1000000}") long expectedEntries,
+                             @Value("${auth.availability.false-positive-probability:0.01}") double falsePositiveProbability) {
+        // Integer.MIN_VALUE makes Connector/J stream rows one at a time instead of buffering the table
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveProbability = falsePositiveProbability;
+
+        this.definitelyFree = lookups(meterRegistry, "free");
+        this.possiblyTaken = lookups(meterRegistry, "possibly_taken");
+        Gauge.builder("splitzy.availability.filter.entries", this, index -> index.filters == null ? 0 : index.filters.usernames.size())
+                .description("Users in the availability filter")
+                .register(meterRegistry);
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    /** False only when the username is certainly not registered */
+    public boolean mightContainUsername(String username) {
+        Filters current = filters;
+        return mightContain(current == null ? null : current.usernames, username);
+    }
+
+    /** False only when the email is certainly not registered */
+    public boolean mightContainEmail(String email) {
+        Filters current = filters;
+        return mightContain(current == null ? null : current.emails, email);
+    }
+
+    /** Record a new registration locally and broadcast it to the other instances */
+    public void added(String username, String email) {
+        byte[] usernameDigest = digest(username);
+        byte[] emailDigest = digest(email);
+        apply(usernameDigest, emailDigest);
+        try {
+            redisTemplate.convertAndSend(channel, TokenDigests.encode(usernameDigest) + " "
+                    + TokenDigests.encode(emailDigest) + " " + System.currentTimeMillis());
+        } catch (Exception e) {
+            // Other instances pick it up on their next rebuild
+            log.warn("Failed to publish registration: {}", e.getMessage());
+        }
+    }
+
+    // Messages are "<usernameDigest> <emailDigest> <publishedAtMillis>", so no address goes over pub/sub
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(" ");
+        if (parts.length != 3) {
+            log.warn("Ignoring malformed registration message");
+            return;
+        }
+        try {
+            apply(TokenDigests.decode(parts[0]), TokenDigests.decode(parts[1]));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed registration message: {}", e.getMessage());
+        }
+    }
+
+    private void apply(byte[] usernameDigest, byte[] emailDigest) {
+        Filters current = filters;
+        if (current != null) {
+            current.add(usernameDigest, emailDigest);
+        }
+        Filters next = rebuilding;
+        if (next != null) {
+            next.add(usernameDigest, emailDigest);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.availability.rebuild-interval:PT10M}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Filters next = new Filters(BloomFilter.create(expectedEntries, falsePositiveProbability),
+                BloomFilter.create(expectedEntries, falsePositiveProbability));
+        rebuilding = next;
+        try {
+            streamingJdbcTemplate.query("SELECT username, email FROM auth_users",
+                    (RowCallbackHandler) rs -> next.add(digest(rs.getString(1)), digest(rs.getString(2))));
+            filters = next;
+            log.info("Availability index built with {} users in {} ms", next.usernames.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("Failed to build availability index, keeping the previous one: {}", e.getMessage());
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    private boolean mightContain(BloomFilter filter, String value) {
+        if (filter == null || value == null) {
+            possiblyTaken.increment();
+            return true;
+        }
+        byte[] digest = digest(value);
+        boolean mightContain = filter.mightContain(TokenDigests.hash1(digest), TokenDigests.hash2(digest));
+        (mightContain ? possiblyTaken : definitelyFree).increment();
+        return mightContain;
+    }
+
+    private static byte[] digest(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("splitzy.availability.lookups")
+                .description("Username and email availability checks answered by the filter, by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * One filter per column
+     */
+    private static final class Filters {
+
+        private final BloomFilter usernames;
+        private final BloomFilter emails;
+
+        private Filters(BloomFilter usernames, BloomFilter emails) {
+            this.usernames = usernames;
+            this.emails = emails;
+        }
+
+        private void add(byte[] usernameDigest, byte[] emailDigest) {
+            add(usernames, usernameDigest);
+            add(emails, emailDigest);
+        }
+
+        private static void add(BloomFilter filter, byte[] digest) {
+            if (digest != null) {
+                filter.add(TokenDigests.hash1(digest), TokenDigests.hash2(digest));
+            }
+        }
+    }
+}
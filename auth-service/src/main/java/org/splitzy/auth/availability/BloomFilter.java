@@ -0,0 +1,75 @@
+package org.splitzy.auth.availability;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Plain Bloom filter, one bit per position; entries are never removed, as registered names stay taken.
+ * Callers pass two independent 64-bit hashes (taken from a SHA-256 digest); the k probe positions
+ * are derived from them by double hashing. All operations are lock-free.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final AtomicLong entries = new AtomicLong();
+
+    private BloomFilter(long bits, int hashes) {
+        this.bits = bits;
+        this.hashes = hashes;
+        this.words = new AtomicLongArray(Math.toIntExact((bits + Long.SIZE - 1) / Long.SIZE));
+    }
+
+    /**
+     * Filter sized for the expected number of entries at the given false-positive probability
+     */
+    public static BloomFilter create(long expectedEntries, double falsePositiveProbability) {
+        if (expectedEntries <= 0 || falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("Expected entries must be positive and the false-positive probability in (0, 1)");
+        }
+        long bits = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        int hashes = Math.max(1, (int) Math.round((double) bits / expectedEntries * Math.log(2)));
+        return new BloomFilter(bits, hashes);
+    }
+
+    public void add(long hash1, long hash2) {
+        for (int i = 0; i < hashes; i++) {
+            set(index(hash1, hash2, i));
+        }
+        entries.incrementAndGet();
+    }
+
+    public boolean mightContain(long hash1, long hash2) {
+        for (int i = 0; i < hashes; i++) {
+            long index = index(hash1, hash2, i);
+            if ((words.get((int) (index / Long.SIZE)) & mask(index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long size() {
+        return entries.get();
+    }
+
+    private long index(long hash1, long hash2, int i) {
+        return Math.floorMod(hash1 + i * hash2, bits);
+    }
+
+    private void set(long index) {
+        int wordIndex = (int) (index / Long.SIZE);
+        long mask = mask(index);
+        while (true) {
+            long word = words.get(wordIndex);
+            if ((word & mask) != 0 || words.compareAndSet(wordIndex, word, word | mask)) {
+                return;
+            }
+        }
+    }
+
+    private static long mask(long index) {
+        return 1L << (index % Long.SIZE);
+    }
+}
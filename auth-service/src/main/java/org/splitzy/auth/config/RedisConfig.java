@@ -1,5 +1,7 @@
 package org.splitzy.auth.config;
 
+import org.splitzy.auth.availability.AvailabilityIndex;
+import org.splitzy.auth.revocation.TokenRevocationFilter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -7,6 +9,8 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.stereotype.Component;
 
@@ -53,4 +57,16 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
+
+    // Revocations and registrations published by any instance are applied to the local filters
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       TokenRevocationFilter revocationFilter,
+                                                                       AvailabilityIndex availabilityIndex) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(revocationFilter, new ChannelTopic(revocationFilter.getChannel()));
+        container.addMessageListener(availabilityIndex, new ChannelTopic(availabilityIndex.getChannel()));
+        return container;
+    }
 }
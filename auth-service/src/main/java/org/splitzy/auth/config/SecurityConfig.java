@@ -1,8 +1,11 @@
 package org.splitzy.auth.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -22,6 +25,11 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    // Scraped or probed without credentials; every other actuator endpoint needs an authenticated caller
+    private static final String[] PUBLIC_ACTUATOR_ENDPOINTS = {"/actuator/health/**", "/actuator/info", "/actuator/prometheus"};
+
+    private final Environment environment;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http.csrf(AbstractHttpConfigurer::disable)
@@ -29,17 +37,23 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**",
+                                "/.well-known/jwks.json",
                                 "/swagger-ui/**",
                                 "/v3/api-docs/**",
-                                "/swagger-ui.html",
-                                "/actuator/**").permitAll()
+                                "/swagger-ui.html").permitAll()
+                        .requestMatchers(PUBLIC_ACTUATOR_ENDPOINTS).permitAll()
+                        // Recent spans are only exported and exposed in the dev profile
+                        .requestMatchers("/actuator/spans").access((authentication, context) ->
+                                new AuthorizationDecision(environment.matchesProfiles("dev")))
                         .anyRequest().authenticated()
                 );
         return http.build();
     }
 
-    public PasswordEncoder passwordEncoder() {
-            return new BCryptPasswordEncoder(12);
+    // Raising the strength rehashes each password at its owner's next login; see PasswordHashingService
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${auth.password-hashing.strength:12}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
@@ -0,0 +1,58 @@
+package org.splitzy.auth.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.splitzy.auth.dto.request.ChangeRoleRequest;
+import org.splitzy.auth.service.AuthService;
+import org.splitzy.common.dto.ApiResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * User administration. Like the other /api/auth endpoints it is open to the filter chain;
+ * each call checks the caller's bearer token for the ADMIN role itself.
+ */
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/api/auth/admin/users")
+@Tag(name = "Administration", description = "User administration endpoints, for admins only")
+public class AdminController {
+
+    private final AuthService authService;
+
+    @PostMapping("/{userId}/deactivate")
+    @Operation(summary = "Deactivate user", description = "Deactivate a user account and end all of its sessions")
+    public ResponseEntity<ApiResponse<String>> deactivateUser(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @PathVariable Long userId) {
+        Long adminId = authService.requireAdmin(authorization);
+        log.info("Deactivate request for user {} by admin {}", userId, adminId);
+
+        authService.deactivateUser(userId);
+        return ResponseEntity.ok(ApiResponse.success("User deactivated.", "Deactivation successful"));
+    }
+
+    @PutMapping("/{userId}/role")
+    @Operation(summary = "Change role", description = "Change a user's role; tokens issued from now on carry it")
+    public ResponseEntity<ApiResponse<String>> changeRole(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @PathVariable Long userId,
+            @Valid @RequestBody ChangeRoleRequest request) {
+        Long adminId = authService.requireAdmin(authorization);
+        log.info("Role change request for user {} to {} by admin {}", userId, request.getRole(), adminId);
+
+        authService.changeRole(userId, request.getRole());
+        return ResponseEntity.ok(ApiResponse.success("Role changed.", "Role change successful"));
+    }
+}
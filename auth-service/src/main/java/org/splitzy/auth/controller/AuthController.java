@@ -2,6 +2,7 @@ package org.splitzy.auth.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,13 +11,16 @@ import org.splitzy.auth.dto.request.LoginRequest;
 import org.splitzy.auth.dto.request.RefreshTokenRequest;
 import org.splitzy.auth.dto.request.RegisterRequest;
 import org.splitzy.auth.dto.response.AuthResponse;
+import org.splitzy.auth.dto.response.AvailabilityResponse;
 import org.splitzy.auth.service.AuthService;
 import org.splitzy.common.dto.ApiResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -39,12 +43,21 @@ public class AuthController {
         return ResponseEntity.status(HttpStatus.CREATED).body(apiResponse);
     }
 
+    @GetMapping("/availability")
+    @Operation(summary = "Check availability", description = "Whether a username and/or email can still be registered")
+    public ResponseEntity<ApiResponse<AvailabilityResponse>> checkAvailability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email) {
+        AvailabilityResponse response = authService.checkAvailability(username, email);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     @PostMapping("/login")
     @Operation(summary = "User login", description = "Authenticate user and return JWT tokens")
-    public ResponseEntity<ApiResponse<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<ApiResponse<AuthResponse>> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
         log.info("Login request received for: {}", request.getEmailOrusername());
 
-        AuthResponse response = authService.login(request);
+        AuthResponse response = authService.login(request, httpRequest.getRemoteAddr());
         ApiResponse<AuthResponse> apiResponse = ApiResponse.success(response, "Login successful");
 
         return ResponseEntity.ok(apiResponse);
@@ -59,6 +72,15 @@ public class AuthController {
         return ResponseEntity.ok(apiResponse);
     }
 
+    @PostMapping("/logout-all")
+    @Operation(summary = "Logout everywhere.", description = "Invalidate every JWT Token issued to the User so far")
+    public ResponseEntity<ApiResponse<String>> logoutAll(@Valid @RequestBody LogOutRequest request) {
+        log.info("Logout-all request received");
+        authService.logoutAll(request);
+        ApiResponse<String> apiResponse = ApiResponse.success("Logged out from all sessions.", "Logout successful");
+        return ResponseEntity.ok(apiResponse);
+    }
+
     @PostMapping("/refresh")
     @Operation(summary = "Refresh token", description = "Get new access token using refresh token")
     public ResponseEntity<ApiResponse<AuthResponse>> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
@@ -0,0 +1,40 @@
+package org.splitzy.auth.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.splitzy.auth.keys.SigningKeyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Keys", description = "Public keys for verifying tokens")
+public class JwksController {
+
+    private final SigningKeyManager signingKeyManager;
+
+    @Value("${jwt.signing.jwks-max-age:PT5M}")
+    private Duration jwksMaxAge;
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "JSON Web Key Set", description = "Public keys the access tokens are signed with; supports If-None-Match")
+    public ResponseEntity<Map<String, Object>> jwks(WebRequest webRequest) {
+        // Cached for less than the activation delay, so a new key is picked up before it signs anything
+        CacheControl cacheControl = CacheControl.maxAge(jwksMaxAge).cachePublic();
+        String etag = signingKeyManager.jwksEtag();
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(signingKeyManager.jwks());
+    }
+}
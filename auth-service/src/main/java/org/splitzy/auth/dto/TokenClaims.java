@@ -0,0 +1,43 @@
+package org.splitzy.auth.dto;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Claims of a token whose signature has been verified; cached by JwtTokenService until the token expires
+ */
+public record TokenClaims(
+        String tokenId,     // jti; null for tokens issued before ids were added
+        Long userId,
+        String username,
+        String email,
+        String role,
+        String tokenType,
+        Instant issuedAt,
+        Instant expiresAt) {
+
+    public static final String ACCESS = "ACCESS";
+    public static final String REFRESH = "REFRESH";
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    public boolean isAccessToken() {
+        return ACCESS.equals(tokenType);
+    }
+
+    public boolean isRefreshToken() {
+        return REFRESH.equals(tokenType);
+    }
+
+    public long remainingSeconds(Instant now) {
+        long remainingMs = expiresAt.toEpochMilli() - now.toEpochMilli();
+        return remainingMs > 0 ? remainingMs / 1000 : 0;
+    }
+
+    public LocalDateTime expiresAtLocal() {
+        return LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,24 @@
+package org.splitzy.auth.dto;
+
+import org.splitzy.auth.entity.AuthUser;
+
+/**
+ * The parts of a user that issuing tokens and building the auth response need; cached briefly by UserPrincipalCache
+ */
+public record UserPrincipal(
+        Long id,
+        String username,
+        String email,
+        String firstName,
+        String lastName,
+        AuthUser.UserRole role,
+        boolean active,
+        boolean emailVerified,
+        boolean phoneVerified) {
+
+    public static UserPrincipal from(AuthUser user) {
+        return new UserPrincipal(user.getId(), user.getUsername(), user.getEmail(), user.getFirstName(), user.getLastName(),
+                user.getRole(), Boolean.TRUE.equals(user.getIsActive()),
+                Boolean.TRUE.equals(user.getIsEmailVerified()), Boolean.TRUE.equals(user.getIsPhoneVerified()));
+    }
+}
@@ -0,0 +1,15 @@
+package org.splitzy.auth.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.splitzy.auth.entity.AuthUser;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeRoleRequest {
+    @NotNull(message = "Role is required")
+    private AuthUser.UserRole role;
+}
@@ -76,10 +76,9 @@ public class AuthUser extends BaseEntity {
         this.accountLockedUntil = null;
     }
 
-    public void incrementFailedLoginAttempts(){
-        this.failedLoginAttempts++;
-        if(this.failedLoginAttempts >= 5){
-            this.accountLockedUntil = LocalDateTime.now().plusMinutes(30);
-        }
+    // Failures are counted in Redis (LoginAttemptService); the row only records a lock once it starts
+    public void lockUntil(LocalDateTime lockedUntil, int failedAttempts){
+        this.failedLoginAttempts = failedAttempts;
+        this.accountLockedUntil = lockedUntil;
     }
 }
@@ -0,0 +1,227 @@
+package org.splitzy.auth.keys;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * ES256 (P-256) signing keys and the JWKS that publishes their public halves.
+ * Keys come from a PKCS#12 key store, one entry per key with the alias as kid, e.g.
+ * {@code keytool -genkeypair -alias 2026-10 -keyalg EC -groupname secp256r1 -storetype PKCS12 -keystore jwt-keys.p12}.
+ * The store is re-read periodically, so rotating is: add a key, wait, remove the old one after the refresh-token lifetime.
+ * A key is published as soon as it is loaded but only signs once it is activation-delay old (from its certificate's
+ * notBefore), which gives verifiers time to pick it up. Startup fails without a key store: a key generated per instance
+ * would not verify tokens from other replicas or survive a restart. Only the dev profile allows one (allow-generated-key).
+ * With algorithm HS512 no keys are loaded and tokens keep being signed with jwt.secret.
+ */
+@Slf4j
+@Component
+public class SigningKeyManager {
+
+    public static final String ES256 = "ES256";
+    public static final String HS512 = "HS512";
+    private static final String CURVE = "secp256r1";
+    private static final int COORDINATE_BYTES = 32;
+
+    private final String algorithm;
+    private final String keyStorePath;
+    private final char[] keyStorePassword;
+    private final Duration activationDelay;
+
+    // Newest first; swapped as a whole on reload
+    private volatile List<SigningKey> keys;
+    private volatile Map<String, Object> jwks;
+    private volatile String jwksEtag;
+
+    public SigningKeyManager(@Value("${jwt.signing.algorithm:ES256}") String algorithm,
+                             @Value("${jwt.signing.key-store:}") String keyStorePath,
+                             @Value("${jwt.signing.key-store-password:}") String keyStorePassword,
+                             @Value("${jwt.signing.activation-delay:PT10M}") Duration activationDelay,
+                             @Value("${jwt.signing.allow-generated-key:false}") boolean allowGeneratedKey) {
+        if (!ES256.equals(algorithm) && !HS512.equals(algorithm)) {
+            throw new IllegalArgumentException("Unsupported jwt.signing.algorithm: " + algorithm);
+        }
+        this.algorithm = algorithm;
+        this.keyStorePath = keyStorePath;
+        this.keyStorePassword = keyStorePassword.toCharArray();
+        this.activationDelay = activationDelay;
+
+        if (!isAsymmetric()) {
+            use(List.of());
+        } else if (keyStorePath.isBlank()) {
+            if (!allowGeneratedKey) {
+                throw new IllegalStateException("jwt.signing.algorithm is ES256 but no jwt.signing.key-store is configured; "
+                        + "set JWT_KEY_STORE, or JWT_SIGNING_ALGORITHM=HS512 with a shared JWT_SECRET");
+            }
+            log.warn("No jwt.signing.key-store configured, signing with a generated key; tokens will not survive a restart");
+            use(List.of(generateKey()));
+        } else {
+            use(loadKeyStore());
+        }
+    }
+
+    public boolean isAsymmetric() {
+        return ES256.equals(algorithm);
+    }
+
+    /**
+     * Key to sign new tokens with: the newest key past its activation delay, or the oldest one if none is yet
+     */
+    public SigningKey activeKey() {
+        List<SigningKey> current = keys;
+        if (current.isEmpty()) {
+            throw new IllegalStateException("No asymmetric signing key, jwt.signing.algorithm is " + algorithm);
+        }
+        Instant activeBefore = Instant.now().minus(activationDelay);
+        return current.stream()
+                .filter(key -> !key.notBefore().isAfter(activeBefore))
+                .findFirst()
+                .orElse(current.get(current.size() - 1));
+    }
+
+    public Optional<PublicKey> verificationKey(String kid) {
+        if (kid == null) {
+            return Optional.empty();
+        }
+        return keys.stream()
+                .filter(key -> key.kid().equals(kid))
+                .<PublicKey>map(SigningKey::publicKey)
+                .findFirst();
+    }
+
+    /** JWK Set (RFC 7517) of every loaded key */
+    public Map<String, Object> jwks() {
+        return jwks;
+    }
+
+    public String jwksEtag() {
+        return jwksEtag;
+    }
+
+    /** Pick up keys added to or removed from the key store */
+    @Scheduled(fixedDelayString = "${jwt.signing.reload-interval:PT5M}")
+    public void reload() {
+        if (!isAsymmetric() || keyStorePath.isBlank()) {
+            return;
+        }
+        try {
+            List<SigningKey> loaded = loadKeyStore();
+            if (!kids(loaded).equals(kids(keys))) {
+                log.info("Signing keys changed from {} to {}", kids(keys), kids(loaded));
+            }
+            use(loaded);
+        } catch (Exception e) {
+            log.warn("Failed to reload signing keys, keeping {}: {}", kids(keys), e.getMessage());
+        }
+    }
+
+    private void use(List<SigningKey> loaded) {
+        List<Map<String, Object>> jwkList = loaded.stream().map(SigningKeyManager::toJwk).toList();
+        this.jwks = Map.of("keys", jwkList);
+        this.jwksEtag = "\"" + Integer.toHexString(kids(loaded).hashCode()) + "\"";
+        this.keys = loaded;
+    }
+
+    private List<SigningKey> loadKeyStore() {
+        try (InputStream in = Files.newInputStream(Path.of(keyStorePath))) {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(in, keyStorePassword);
+
+            List<SigningKey> loaded = new ArrayList<>();
+            for (String alias : Collections.list(keyStore.aliases())) {
+                if (!keyStore.isKeyEntry(alias)) {
+                    continue;
+                }
+                Key privateKey = keyStore.getKey(alias, keyStorePassword);
+                Certificate certificate = keyStore.getCertificate(alias);
+                if (!(privateKey instanceof ECPrivateKey ecPrivateKey)
+                        || !(certificate instanceof X509Certificate x509)
+                        || !(x509.getPublicKey() instanceof ECPublicKey ecPublicKey)
+                        || ecPublicKey.getParams().getCurve().getField().getFieldSize() != COORDINATE_BYTES * 8) {
+                    log.warn("Skipping key store entry {}: not a P-256 EC key pair", alias);
+                    continue;
+                }
+                loaded.add(new SigningKey(alias, ecPrivateKey, ecPublicKey, x509.getNotBefore().toInstant()));
+            }
+            if (loaded.isEmpty()) {
+                throw new IllegalStateException("No P-256 EC key pair in " + keyStorePath);
+            }
+            loaded.sort(Comparator.comparing(SigningKey::notBefore).reversed());
+            return List.copyOf(loaded);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to load signing keys from " + keyStorePath + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static SigningKey generateKey() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec(CURVE));
+            KeyPair keyPair = generator.generateKeyPair();
+            // kid from the public key so it is stable for the life of the key
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(keyPair.getPublic().getEncoded());
+            String kid = Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 8));
+            return new SigningKey(kid, keyPair.getPrivate(), (ECPublicKey) keyPair.getPublic(), Instant.EPOCH);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to generate a signing key", e);
+        }
+    }
+
+    private static Map<String, Object> toJwk(SigningKey key) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("kid", key.kid());
+        jwk.put("use", "sig");
+        jwk.put("alg", ES256);
+        jwk.put("x", coordinate(key.publicKey().getW().getAffineX()));
+        jwk.put("y", coordinate(key.publicKey().getW().getAffineY()));
+        return Collections.unmodifiableMap(jwk);
+    }
+
+    // Unsigned, left-padded to the field size as RFC 7518 requires
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[COORDINATE_BYTES];
+        int length = Math.min(bytes.length, COORDINATE_BYTES);
+        System.arraycopy(bytes, bytes.length - length, fixed, COORDINATE_BYTES - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+
+    private static List<String> kids(List<SigningKey> keys) {
+        return keys.stream().map(SigningKey::kid).toList();
+    }
+
+    public record SigningKey(String kid, PrivateKey privateKey, ECPublicKey publicKey, Instant notBefore) {
+    }
+}
@@ -0,0 +1,25 @@
+package org.splitzy.auth.migration;
+
+import org.splitzy.common.migration.IndexDefinition;
+import org.splitzy.common.migration.OnlineIndexMigration;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static org.splitzy.common.migration.IndexDefinition.index;
+import static org.splitzy.common.migration.IndexDefinition.uniqueIndex;
+
+/**
+ * Indexes declared on AuthUser, built online
+ */
+@Component
+public class V2__Add_secondary_indexes extends OnlineIndexMigration {
+
+    @Override
+    protected List<IndexDefinition> indexes() {
+        return List.of(
+                uniqueIndex("auth_users", "idx_email", "email"),
+                uniqueIndex("auth_users", "idx_username", "username"),
+                index("auth_users", "idx_last_login", "last_login"));
+    }
+}
@@ -0,0 +1,38 @@
+package org.splitzy.auth.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC batch updates on auth_users for writes buffered outside the request path.
+ * With rewriteBatchedStatements=true each batch goes to MySQL in one round trip.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuthUserBatchRepository {
+
+    // Never moves last_login backwards, e.g. when two instances flush the same user out of order
+    private static final String UPDATE_LAST_LOGIN = "UPDATE auth_users SET last_login = ? " +
+            "WHERE id = ? AND (last_login IS NULL OR last_login < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void updateLastLogins(Map<Long, LocalDateTime> lastLogins) {
+        if (lastLogins.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(lastLogins.size());
+        lastLogins.forEach((userId, lastLogin) -> {
+            Timestamp timestamp = Timestamp.valueOf(lastLogin);
+            args.add(new Object[] {timestamp, userId, timestamp});
+        });
+        jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN, args);
+    }
+}
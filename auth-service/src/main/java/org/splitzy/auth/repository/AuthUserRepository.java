@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,13 +26,31 @@ public interface AuthUserRepository extends JpaRepository<AuthUser, Long>, JpaSp
     void updateLastLogin(@Param("userId") Long userId, @Param("lastLogin") LocalDateTime lastLogin);
 
     @Modifying
+    @Transactional
     @Query("UPDATE AuthUser u SET u.failedLoginAttempts = :attempts, u.accountLockedUntil = :lockedUntil WHERE u.id = :userId")
     void updateFailedLoginAttempts(@Param("userId") Long userId, @Param("attempts") Integer attempts, @Param("lockedUntil") LocalDateTime lockedUntil);
 
     @Modifying
+    @Transactional
     @Query("UPDATE AuthUser u SET u.failedLoginAttempts = 0, u.accountLockedUntil = null WHERE u.id = :userId")
     void resetFailedLoginAttempts(@Param("userId") Long userId);
 
+    // Only replaces the hash it was computed from, so a concurrent password change wins
+    @Modifying
+    @Transactional
+    @Query("UPDATE AuthUser u SET u.passwordHash = :newHash WHERE u.id = :userId AND u.passwordHash = :oldHash")
+    int updatePasswordHash(@Param("userId") Long userId, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE AuthUser u SET u.isActive = :active WHERE u.id = :userId")
+    int updateActive(@Param("userId") Long userId, @Param("active") Boolean active);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE AuthUser u SET u.role = :role WHERE u.id = :userId")
+    int updateRole(@Param("userId") Long userId, @Param("role") AuthUser.UserRole role);
+
     @Modifying
     @Query("UPDATE AuthUser u SET u.isEmailVerified = :verified WHERE u.id = :userId")
     void updateEmailVerificationStatus(@Param("userId") Long userId, @Param("verified") Boolean verified);
@@ -0,0 +1,125 @@
+package org.splitzy.auth.revocation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter with 4-bit counters, so entries can be removed again when their token expires.
+ * Callers pass two independent 64-bit hashes (taken from a SHA-256 digest); the k probe positions
+ * are derived from them by double hashing. Counters saturate at 15 and are then never decremented,
+ * which can only cause false positives. All operations are lock-free.
+ */
+public class CountingBloomFilter {
+
+    private static final int COUNTER_BITS = 4;
+    private static final int COUNTERS_PER_WORD = Long.SIZE / COUNTER_BITS;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    private final AtomicLongArray words;
+    private final long counters;
+    private final int hashes;
+    private final AtomicLong entries = new AtomicLong();
+
+    private CountingBloomFilter(long counters, int hashes) {
+        this.counters = counters;
+        this.hashes = hashes;
+        this.words = new AtomicLongArray(Math.toIntExact((counters + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD));
+    }
+
+    /**
+     * Filter sized for the expected number of entries at the given false-positive probability
+     */
+    public static CountingBloomFilter create(long expectedEntries, double falsePositiveProbability) {
+        if (expectedEntries <= 0 || falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("Expected entries must be positive and the false-positive probability in (0, 1)");
+        }
+        long counters = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        int hashes = Math.max(1, (int) Math.round((double) counters / expectedEntries * Math.log(2)));
+        return new CountingBloomFilter(counters, hashes);
+    }
+
+    public void add(long hash1, long hash2) {
+        for (int i = 0; i < hashes; i++) {
+            increment(index(hash1, hash2, i));
+        }
+        entries.incrementAndGet();
+    }
+
+    public void remove(long hash1, long hash2) {
+        for (int i = 0; i < hashes; i++) {
+            decrement(index(hash1, hash2, i));
+        }
+        entries.decrementAndGet();
+    }
+
+    public boolean mightContain(long hash1, long hash2) {
+        for (int i = 0; i < hashes; i++) {
+            if (counter(index(hash1, hash2, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long size() {
+        return entries.get();
+    }
+
+    public long counters() {
+        return counters;
+    }
+
+    public int hashes() {
+        return hashes;
+    }
+
+    /**
+     * False-positive probability at the current number of entries: (1 - e^(-kn/m))^k
+     */
+    public double expectedFalsePositiveProbability() {
+        long n = Math.max(0, entries.get());
+        return Math.pow(1 - Math.exp(-(double) hashes * n / counters), hashes);
+    }
+
+    private long index(long hash1, long hash2, int i) {
+        return Math.floorMod(hash1 + i * hash2, counters);
+    }
+
+    private long counter(long index) {
+        long word = words.get((int) (index / COUNTERS_PER_WORD));
+        return (word >>> shift(index)) & COUNTER_MASK;
+    }
+
+    private void increment(long index) {
+        int wordIndex = (int) (index / COUNTERS_PER_WORD);
+        int shift = shift(index);
+        while (true) {
+            long word = words.get(wordIndex);
+            if (((word >>> shift) & COUNTER_MASK) == COUNTER_MASK) {
+                return; // saturated
+            }
+            if (words.compareAndSet(wordIndex, word, word + (1L << shift))) {
+                return;
+            }
+        }
+    }
+
+    private void decrement(long index) {
+        int wordIndex = (int) (index / COUNTERS_PER_WORD);
+        int shift = shift(index);
+        while (true) {
+            long word = words.get(wordIndex);
+            long count = (word >>> shift) & COUNTER_MASK;
+            if (count == 0 || count == COUNTER_MASK) {
+                return; // empty, or saturated and no longer exact
+            }
+            if (words.compareAndSet(wordIndex, word, word - (1L << shift))) {
+                return;
+            }
+        }
+    }
+
+    private static int shift(long index) {
+        return (int) (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+    }
+}
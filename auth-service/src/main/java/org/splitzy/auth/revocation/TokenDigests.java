@@ -0,0 +1,42 @@
+package org.splitzy.auth.revocation;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * SHA-256 digests of tokens, used as claims-cache keys and revocation filter entries
+ * so raw tokens are never kept in memory or sent over pub/sub
+ */
+public final class TokenDigests {
+
+    private TokenDigests() {
+    }
+
+    public static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static String encode(byte[] digest) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    public static byte[] decode(String digest) {
+        return Base64.getUrlDecoder().decode(digest);
+    }
+
+    // First and second 64 bits of the digest, the two hashes a Bloom filter derives its probes from
+    public static long hash1(byte[] digest) {
+        return ByteBuffer.wrap(digest, 0, Long.BYTES).getLong();
+    }
+
+    public static long hash2(byte[] digest) {
+        return ByteBuffer.wrap(digest, Long.BYTES, Long.BYTES).getLong() | 1; // odd, so the k probes never collapse onto one counter
+    }
+}
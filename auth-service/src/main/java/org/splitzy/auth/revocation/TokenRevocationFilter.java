@@ -0,0 +1,332 @@
+package org.splitzy.auth.revocation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.splitzy.auth.service.JwtTokenService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Local revocation state in front of Redis.
+ * A counting Bloom filter over revoked token ids (jti) answers "definitely not revoked" without a network call;
+ * only a filter hit is confirmed against Redis. Per-user revocation epochs ("log out everywhere") are few and
+ * are mirrored exactly. Both are broadcast on a pub/sub channel so every instance applies them within
+ * milliseconds, and both are rebuilt from a SCAN of Redis periodically to pick up anything missed while the
+ * subscription was down. Until the first rebuild succeeds, or when the last one is older than max-staleness,
+ * every check goes to Redis.
+ */
+@Slf4j
+@Component
+public class TokenRevocationFilter implements MessageListener {
+
+    private static final String MESSAGE_TOKEN = "jti";
+    private static final String MESSAGE_EPOCH = "epoch";
+    private static final int SCAN_BATCH = 1000;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final String channel;
+    private final long expectedEntries;
+    private final double falsePositiveProbability;
+    private final long maxStalenessMs;
+    private final long maxTokenLifetimeMs;
+
+    private volatile Generation current;
+    // Filter being rebuilt; revocations received meanwhile go into both
+    private volatile Generation rebuilding;
+    private volatile long lastRebuildAt;
+
+    private final Counter misses;
+    private final Counter confirmedHits;
+    private final Counter falsePositives;
+    private final Counter bypassed;
+    private final Timer syncLag;
+
+    public TokenRevocationFilter(RedisTemplate<String, String> redisTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${auth.revocation.channel:auth:revocations}") String channel,
+                                 @Value("${auth.revocation.expected-entries:100000}") long expectedEntries,
+                                 @Value("${auth.revocation.false-positive-probability:0.01}") double falsePositiveProbability,
+                                 @Value("${auth.revocation.max-staleness:PT15M}") Duration maxStaleness,
+                                 @Value("${jwt.refresh-token.validity-ms:604800000}") long maxTokenLifetimeMs) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.maxStalenessMs = maxStaleness.toMillis();
+        this.maxTokenLifetimeMs = maxTokenLifetimeMs;
+        this.current = new Generation(CountingBloomFilter.create(expectedEntries, falsePositiveProbability));
+
+        this.misses = lookups(meterRegistry, "miss");
+        this.confirmedHits = lookups(meterRegistry, "revoked");
+        this.falsePositives = lookups(meterRegistry, "false_positive");
+        this.bypassed = lookups(meterRegistry, "bypass");
+        this.syncLag = Timer.builder("splitzy.revocation.sync.lag")
+                .description("Time from a revocation being published to this instance applying it")
+                .register(meterRegistry);
+        Gauge.builder("splitzy.revocation.filter.entries", this, filter -> filter.current.filter.size())
+                .description("Revoked tokens in the local filter")
+                .register(meterRegistry);
+        Gauge.builder("splitzy.revocation.epochs", this, filter -> filter.current.epochs.size())
+                .description("Users with a \"log out everywhere\" epoch still in force")
+                .register(meterRegistry);
+        Gauge.builder("splitzy.revocation.filter.expected.fpp", this, filter -> filter.current.filter.expectedFalsePositiveProbability())
+                .description("False-positive probability of the local filter at its current size")
+                .register(meterRegistry);
+        Gauge.builder("splitzy.revocation.filter.staleness", this, filter -> filter.lastRebuildAt == 0 ? Double.NaN
+                        : (System.currentTimeMillis() - filter.lastRebuildAt) / 1000.0)
+                .description("Seconds since the filter was last rebuilt from Redis")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * Whether the token with this id is revoked; redisCheck is only called when the filter cannot rule it out
+     */
+    public boolean isRevoked(String tokenId, BooleanSupplier redisCheck) {
+        if (!isTrusted()) {
+            bypassed.increment();
+            return redisCheck.getAsBoolean();
+        }
+        byte[] digest = TokenDigests.sha256(tokenId);
+        if (!current.filter.mightContain(TokenDigests.hash1(digest), TokenDigests.hash2(digest))) {
+            misses.increment();
+            return false;
+        }
+        boolean revoked = redisCheck.getAsBoolean();
+        (revoked ? confirmedHits : falsePositives).increment();
+        return revoked;
+    }
+
+    /**
+     * Epoch seconds before which the user's tokens are revoked, 0 if none; redisLookup is only called when
+     * the local copy cannot be trusted
+     */
+    public long revocationEpoch(Long userId, LongSupplier redisLookup) {
+        if (!isTrusted()) {
+            return redisLookup.getAsLong();
+        }
+        return current.epochs.getOrDefault(userId, 0L);
+    }
+
+    /**
+     * Record a revocation locally (visible to this instance immediately) and broadcast it to the others
+     */
+    public void revoked(String tokenId, long expiresAtMillis) {
+        applyRevocation(tokenId, expiresAtMillis);
+        publish(revocationMessage(tokenId, expiresAtMillis));
+    }
+
+    /**
+     * Message announcing a revocation, for callers that publish it on the channel in their own Redis pipeline
+     */
+    public String revocationMessage(String tokenId, long expiresAtMillis) {
+        return message(MESSAGE_TOKEN, tokenId, expiresAtMillis);
+    }
+
+    /**
+     * Record a revocation locally whose message the caller has already published
+     */
+    public void revokedLocally(String tokenId, long expiresAtMillis) {
+        applyRevocation(tokenId, expiresAtMillis);
+    }
+
+    /**
+     * Record a new per-user epoch locally and broadcast it to the others
+     */
+    public void epochAdvanced(Long userId, long epochSeconds) {
+        applyEpoch(userId, epochSeconds);
+        publish(message(MESSAGE_EPOCH, String.valueOf(userId), epochSeconds));
+    }
+
+    // Messages are "<type> <id> <value> <publishedAtMillis>"
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(" ");
+        if (parts.length != 4) {
+            log.warn("Ignoring malformed revocation message");
+            return;
+        }
+        try {
+            switch (parts[0]) {
+                case MESSAGE_TOKEN -> applyRevocation(parts[1], Long.parseLong(parts[2]));
+                case MESSAGE_EPOCH -> applyEpoch(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+                default -> {
+                    log.warn("Ignoring revocation message of unknown type {}", parts[0]);
+                    return;
+                }
+            }
+            syncLag.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - Long.parseLong(parts[3]))));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed revocation message: {}", e.getMessage());
+        }
+    }
+
+    /** Drop revocations of tokens that have expired since they were added, and epochs no token can predate */
+    @Scheduled(fixedDelayString = "${auth.revocation.sweep-interval:PT10S}")
+    public void sweepExpired() {
+        long now = System.currentTimeMillis();
+        current.sweep(now);
+        long oldestLiveEpoch = TimeUnit.MILLISECONDS.toSeconds(now - maxTokenLifetimeMs);
+        current.epochs.values().removeIf(epoch -> epoch < oldestLiveEpoch);
+    }
+
+    /** Rebuild the filter and epochs from the revocation keys in Redis and swap them in */
+    @Scheduled(fixedDelayString = "${auth.revocation.rebuild-interval:PT5M}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Generation next = new Generation(CountingBloomFilter.create(expectedEntries, falsePositiveProbability));
+        rebuilding = next;
+        try {
+            // Keys expire with their tokens; the next rebuild drops them, so no expiry is tracked here
+            scan(JwtTokenService.REVOKED_JTI_PREFIX, ids -> ids.forEach(next::add));
+            scan(JwtTokenService.BLACKLIST_PREFIX, tokens -> tokens.forEach(token -> next.add(TokenDigests.encode(TokenDigests.sha256(token)))));
+            scan(JwtTokenService.REVOKE_EPOCH_PREFIX, userIds -> {
+                List<String> epochs = redisTemplate.opsForValue().multiGet(userIds.stream()
+                        .map(userId -> JwtTokenService.REVOKE_EPOCH_PREFIX + userId)
+                        .toList());
+                for (int i = 0; i < userIds.size(); i++) {
+                    String epoch = epochs != null ? epochs.get(i) : null;
+                    if (epoch != null) {
+                        next.epochs.merge(Long.parseLong(userIds.get(i)), Long.parseLong(epoch), Math::max);
+                    }
+                }
+            });
+            current = next;
+            lastRebuildAt = start;
+            log.debug("Revocation filter rebuilt with {} entries and {} epochs in {} ms",
+                    next.filter.size(), next.epochs.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("Failed to rebuild revocation filter, keeping the previous one: {}", e.getMessage());
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    // Hands the ids after the key prefix to the consumer in batches of SCAN_BATCH
+    private void scan(String prefix, Consumer<List<String>> batchConsumer) {
+        try (Cursor<String> keys = redisTemplate.scan(ScanOptions.scanOptions().match(prefix + "*").count(SCAN_BATCH).build())) {
+            List<String> batch = new ArrayList<>(SCAN_BATCH);
+            while (keys.hasNext()) {
+                batch.add(keys.next().substring(prefix.length()));
+                if (batch.size() == SCAN_BATCH) {
+                    batchConsumer.accept(batch);
+                    batch = new ArrayList<>(SCAN_BATCH);
+                }
+            }
+            if (!batch.isEmpty()) {
+                batchConsumer.accept(batch);
+            }
+        }
+    }
+
+    private boolean isTrusted() {
+        return lastRebuildAt != 0 && System.currentTimeMillis() - lastRebuildAt <= maxStalenessMs;
+    }
+
+    private static String message(String type, String id, long value) {
+        return type + " " + id + " " + value + " " + System.currentTimeMillis();
+    }
+
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(channel, message);
+        } catch (Exception e) {
+            // Other instances pick it up on their next rebuild
+            log.warn("Failed to publish token revocation: {}", e.getMessage());
+        }
+    }
+
+    private void applyRevocation(String tokenId, long expiresAtMillis) {
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        current.add(tokenId, expiresAtMillis);
+        Generation next = rebuilding;
+        if (next != null) {
+            next.add(tokenId, expiresAtMillis);
+        }
+    }
+
+    private void applyEpoch(Long userId, long epochSeconds) {
+        current.epochs.merge(userId, epochSeconds, Math::max);
+        Generation next = rebuilding;
+        if (next != null) {
+            next.epochs.merge(userId, epochSeconds, Math::max);
+        }
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("splitzy.revocation.filter.lookups")
+                .description("Revocation checks by outcome; false_positive / (false_positive + miss) is the observed rate")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A filter with the expiry times of the entries added to it since it was built, and the per-user epochs
+     */
+    private static final class Generation {
+
+        private final CountingBloomFilter filter;
+        private final PriorityQueue<Expiring> expirations = new PriorityQueue<>();
+        private final Map<Long, Long> epochs = new ConcurrentHashMap<>();
+
+        private Generation(CountingBloomFilter filter) {
+            this.filter = filter;
+        }
+
+        // Entry without expiry tracking, used while rebuilding
+        private void add(String tokenId) {
+            byte[] digest = TokenDigests.sha256(tokenId);
+            filter.add(TokenDigests.hash1(digest), TokenDigests.hash2(digest));
+        }
+
+        private synchronized void add(String tokenId, long expiresAtMillis) {
+            byte[] digest = TokenDigests.sha256(tokenId);
+            long hash1 = TokenDigests.hash1(digest);
+            long hash2 = TokenDigests.hash2(digest);
+            filter.add(hash1, hash2);
+            expirations.add(new Expiring(hash1, hash2, expiresAtMillis));
+        }
+
+        private synchronized void sweep(long now) {
+            while (!expirations.isEmpty() && expirations.peek().expiresAtMillis() <= now) {
+                Expiring expired = expirations.poll();
+                filter.remove(expired.hash1(), expired.hash2());
+            }
+        }
+    }
+
+    private record Expiring(long hash1, long hash2, long expiresAtMillis) implements Comparable<Expiring> {
+
+        @Override
+        public int compareTo(Expiring other) {
+            return Long.compare(expiresAtMillis, other.expiresAtMillis);
+        }
+    }
+}
@@ -6,25 +6,36 @@ import org.splitzy.auth.dto.request.LogOutRequest;
 import org.splitzy.auth.dto.request.LoginRequest;
 import org.splitzy.auth.dto.request.RefreshTokenRequest;
 import org.splitzy.auth.dto.request.RegisterRequest;
+import org.splitzy.auth.dto.TokenClaims;
+import org.splitzy.auth.dto.UserPrincipal;
+import org.splitzy.auth.availability.AvailabilityIndex;
 import org.splitzy.auth.dto.response.AuthResponse;
+import org.splitzy.auth.dto.response.AvailabilityResponse;
 import org.splitzy.auth.entity.AuthUser;
 import org.splitzy.auth.repository.AuthUserRepository;
 import org.splitzy.common.exception.BusinessException;
 import org.splitzy.common.exception.ResourceNotFoundException;
 import org.splitzy.common.exception.ValidationException;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class AuthService {
     private final JwtTokenService jwtTokenService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final AuthUserRepository authUserRepository;
+    private final LoginAttemptService loginAttemptService;
+    private final AvailabilityIndex availabilityIndex;
+    private final LastLoginRecorder lastLoginRecorder;
+    private final UserPrincipalCache userPrincipalCache;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -33,45 +44,73 @@ public class AuthService {
         if (!request.isPasswordMatching()) {
             throw new ValidationException("Password and confirm password should be same.");
         }
-        if (!authUserRepository.existsByEmail(request.getEmail())) {
+        if (isEmailTaken(request.getEmail())) {
             throw new ValidationException("Email already registered.");
         }
-        if (authUserRepository.existsByUsername(request.getUsername())) {
+        if (isUsernameTaken(request.getUsername())) {
             throw new ValidationException("Username is already taken.");
         }
 
         AuthUser authUser = AuthUser.builder()
                 .username(request.getUsername())
                 .email(request.getEmail())
-                .passwordHash(passwordEncoder.encode(request.getPassword()))
+                .passwordHash(passwordHashingService.encode(request.getPassword()))
                 .firstName(request.getFirstName())
                 .lastName(request.getLastName())
                 .phoneNumber(request.getPhoneNumber())
                 .passwordChangedAt(LocalDateTime.now())
                 .build();
 
-        AuthUser authUserSaved = authUserRepository.save(authUser);
+        AuthUser authUserSaved;
+        try {
+            authUserSaved = authUserRepository.save(authUser);
+        } catch (DataIntegrityViolationException e) {
+            // Taken since the pre-check, or missed by a stale availability index; the unique index decides
+            throw new ValidationException(isDuplicateEmail(e, request.getEmail()) ? "Email already registered." : "Username is already taken.");
+        }
+        availabilityIndex.added(authUserSaved.getUsername(), authUserSaved.getEmail());
         log.info("Successfully registered a new user with ID: {}", authUserSaved.getId());
 
-        String accessToken = jwtTokenService.generateAccessToken(authUserSaved);
-        String refreshToken = jwtTokenService.generateRefreshToken(authUserSaved);
+        UserPrincipal principal = UserPrincipal.from(authUserSaved);
+        String accessToken = jwtTokenService.generateAccessToken(principal);
+        String refreshToken = jwtTokenService.generateRefreshToken(principal);
 
-        return buildAuthResponse(authUserSaved, accessToken, refreshToken);
+        return buildAuthResponse(principal, accessToken, refreshToken);
+    }
+
+    /** Whether a username and/or email is free; the index answers most of these without a query or a connection */
+    public AvailabilityResponse checkAvailability(String username, String email) {
+        if ((username == null || username.isBlank()) && (email == null || email.isBlank())) {
+            throw new ValidationException("Username or email is required.");
+        }
+        return AvailabilityResponse.builder()
+                .usernameAvailable(username == null || username.isBlank() ? null : !isUsernameTaken(username))
+                .emailAvailable(email == null || email.isBlank() ? null : !isEmailTaken(email))
+                .build();
     }
 
-    public AuthResponse login(LoginRequest request) {
+    public AuthResponse login(LoginRequest request, String clientIp) {
         log.info("Attempting login for: {}", request.getEmailOrusername());
 
+        loginAttemptService.checkSource(clientIp);
+
         AuthUser user = authUserRepository.findByUsernameAndIsActiveTrue(request.getEmailOrusername())
-                .orElseThrow(() -> new ValidationException("Invalid email/username or password."));
+                .orElse(null);
+        if (user == null) {
+            loginAttemptService.recordFailure(null, clientIp);
+            throw new ValidationException("Invalid email/username or password.");
+        }
 
         if (user.isAccountLocked()) {
             throw new BusinessException("Account is locked due to multiple login attempts.");
         }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPasswordHash())) {
+            handleFailedLogin(user, clientIp);
             throw new ValidationException("Invalid password.");
         }
+        loginAttemptService.recordSuccess(user.getId());
+        rehashIfNeeded(user, request.getPassword());
 
         if (user.getFailedLoginAttempts() > 0) {
             user.resetFailedloginAttempts();
@@ -79,14 +118,16 @@ public class AuthService {
         }
 
         user.setLastLogin(LocalDateTime.now());
-        authUserRepository.updateLastLogin(user.getId(), user.getLastLogin());
+        lastLoginRecorder.record(user.getId(), user.getLastLogin());
 
         log.info("Successfully login for: {}", user.getUsername());
 
-        String accessToken = jwtTokenService.generateAccessToken(user);
-        String refreshToken = jwtTokenService.generateRefreshToken(user);
+        UserPrincipal principal = UserPrincipal.from(user);
+        userPrincipalCache.put(principal);
+        String accessToken = jwtTokenService.generateAccessToken(principal);
+        String refreshToken = jwtTokenService.generateRefreshToken(principal);
 
-        return buildAuthResponse(user, accessToken, refreshToken);
+        return buildAuthResponse(principal, accessToken, refreshToken);
     }
 
     @Transactional
@@ -106,63 +147,150 @@ public class AuthService {
         }
     }
 
-    @Transactional(readOnly = true)
+    /** Revoke every session of the user owning the access token, on all devices */
+    public void logoutAll(LogOutRequest request) {
+        log.info("Attempting to logout from all sessions");
+
+        TokenClaims claims = jwtTokenService.validateAndGetClaims(request.getAcessToken())
+                .filter(TokenClaims::isAccessToken)
+                .orElseThrow(() -> new ValidationException("Invalid or expired access token"));
+
+        jwtTokenService.revokeAllTokens(claims.userId());
+        log.info("User {} logged out from all sessions", claims.userId());
+    }
+
+    /** One Redis round trip and, while the principal is cached, no query; the rest is signing */
     public AuthResponse refreshToken(RefreshTokenRequest request) {
         log.info("Attempting token refresh");
 
-        // Validate refresh token
-        if (!jwtTokenService.validateRefreshToken(request.getRefreshToken())) {
-            throw new ValidationException("Invalid or expired refresh token");
-        }
+        // Validates the refresh token and revokes it at once, so a second use of it fails here
+        TokenClaims refreshClaims = jwtTokenService.consumeRefreshToken(request.getRefreshToken())
+                .orElseThrow(() -> new ValidationException("Invalid or expired refresh token"));
 
-        // Extract user information from refresh token
-        Long userId = jwtTokenService.getUserIdFromToken(request.getRefreshToken());
-        AuthUser user = authUserRepository.findById(userId)
+        UserPrincipal user = userPrincipalCache.get(refreshClaims.userId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         // Check if user is still active
-        if (!user.getIsActive()) {
+        if (!user.active()) {
             throw new BusinessException("User account is deactivated");
         }
 
-        // Generate new access token
         String newAccessToken = jwtTokenService.generateAccessToken(user);
         String newRefreshToken = jwtTokenService.generateRefreshToken(user);
 
-        // Blacklist old refresh token
-        jwtTokenService.blacklistToken(request.getRefreshToken());
-
-        log.info("Token refreshed successfully for user: {}", user.getEmail());
+        log.info("Token refreshed successfully for user: {}", user.email());
 
         return buildAuthResponse(user, newAccessToken, newRefreshToken);
     }
 
-    private void handleFailedLogin(AuthUser user) {
-        user.incrementFailedLoginAttempts();
+    /**
+     * Id of the admin presenting this bearer access token. The role and active flag come from the user record
+     * (through the principal cache), so a demoted or deactivated admin loses access within the cache ttl
+     * rather than when the token expires.
+     */
+    public Long requireAdmin(String authorizationHeader) {
+        String token = authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                ? authorizationHeader.substring(7) : null;
+        TokenClaims claims = jwtTokenService.validateAndGetClaims(token)
+                .filter(TokenClaims::isAccessToken)
+                .orElseThrow(() -> new BusinessException("Invalid or expired access token", HttpStatus.UNAUTHORIZED, "UNAUTHORIZED"));
+        UserPrincipal admin = userPrincipalCache.get(claims.userId())
+                .filter(UserPrincipal::active)
+                .filter(principal -> principal.role() == AuthUser.UserRole.ADMIN)
+                .orElseThrow(() -> new BusinessException("Admin role required", HttpStatus.FORBIDDEN, "ADMIN_REQUIRED"));
+        return admin.id();
+    }
+
+    /** Deactivate a user and end all of their sessions; the cached principal is dropped once the row is written */
+    public void deactivateUser(Long userId) {
+        if (authUserRepository.updateActive(userId, Boolean.FALSE) == 0) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        userPrincipalCache.invalidate(userId);
+        jwtTokenService.revokeAllTokens(userId);
+        log.info("User {} deactivated", userId);
+    }
+
+    /** Tokens issued from now on carry the new role; existing access tokens keep theirs until they expire */
+    public void changeRole(Long userId, AuthUser.UserRole role) {
+        if (authUserRepository.updateRole(userId, role) == 0) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        userPrincipalCache.invalidate(userId);
+        log.info("Role of user {} changed to {}", userId, role);
+    }
+
+    private boolean isUsernameTaken(String username) {
+        return availabilityIndex.mightContainUsername(username) && authUserRepository.existsByUsername(username);
+    }
+
+    private boolean isEmailTaken(String email) {
+        return availabilityIndex.mightContainEmail(email) && authUserRepository.existsByEmail(email);
+    }
+
+    /**
+     * Whether a unique-index violation was on email. V2 names the index idx_email, but schemas first created by
+     * ddl-auto carry a generated UK_ name, so the duplicated value MySQL reports is compared too
+     * ("Duplicate entry 'value' for key 'auth_users.UK_...'"); the session cannot be queried after the failed insert.
+     */
+    private static boolean isDuplicateEmail(DataIntegrityViolationException e, String email) {
+        String cause = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (cause.contains("idx_email")) {
+            return true;
+        }
+        if (cause.contains("idx_username")) {
+            return false;
+        }
+        return email != null && cause.contains("'" + email.trim().toLowerCase(Locale.ROOT) + "'");
+    }
+
+    // Best effort: skipped while hashing is busy, the next login tries again
+    private void rehashIfNeeded(AuthUser user, String rawPassword) {
+        if (!passwordHashingService.needsRehash(user.getPasswordHash()) || !passwordHashingService.hasIdleCapacity()) {
+            return;
+        }
+        try {
+            String newHash = passwordHashingService.encode(rawPassword);
+            if (authUserRepository.updatePasswordHash(user.getId(), user.getPasswordHash(), newHash) > 0) {
+                user.setPasswordHash(newHash);
+                log.debug("Rehashed password of user {} with the current strength", user.getId());
+            }
+        } catch (Exception e) {
+            log.warn("Failed to rehash password of user {}: {}", user.getId(), e.getMessage());
+        }
+    }
+
+    // Counted in Redis; the row is only written when this failure starts a lock
+    private void handleFailedLogin(AuthUser user, String clientIp) {
+        log.warn("Failed login attempt for user: {} from {}", user.getEmail(), clientIp);
+        if (!loginAttemptService.recordFailure(user.getId(), clientIp)) {
+            return;
+        }
+
+        user.lockUntil(LocalDateTime.now().plus(loginAttemptService.getLockDuration()), loginAttemptService.getMaxPerAccount());
         authUserRepository.updateFailedLoginAttempts(
                 user.getId(),
                 user.getFailedLoginAttempts(),
                 user.getAccountLockedUntil()
         );
-
-        log.warn("Failed login attempt for user: {}. Attempts: {}",
-                user.getEmail(), user.getFailedLoginAttempts());
     }
 
-    private AuthResponse buildAuthResponse(AuthUser authUser, String accessToken, String refreshToken) {
+    private AuthResponse buildAuthResponse(UserPrincipal authUser, String accessToken, String refreshToken) {
+        // Claims of a freshly issued token are already cached
+        TokenClaims accessClaims = jwtTokenService.parseToken(accessToken);
         return AuthResponse.builder().accessToken(accessToken).refreshToken(refreshToken)
                 .tokenType("Bearer")
-                .expiresIn(jwtTokenService.getRemainingValidityInSeconds(accessToken))
-                .expiresAt(jwtTokenService.getExpirationAsLocalDateTime(accessToken))
+                .expiresIn(accessClaims.remainingSeconds(Instant.now()))
+                .expiresAt(accessClaims.expiresAtLocal())
                 .user(AuthResponse.UserInfo.builder()
-                        .id(authUser.getId())
-                        .username(authUser.getUsername())
-                        .email(authUser.getEmail())
-                        .firstName(authUser.getFirstName())
-                        .lastName(authUser.getLastName())
-                        .role(authUser.getRole().toString())
-                        .emailVerified(authUser.getIsEmailVerified())
-                        .phoneVerified(authUser.getIsPhoneVerified())
+                        .id(authUser.id())
+                        .username(authUser.username())
+                        .email(authUser.email())
+                        .firstName(authUser.firstName())
+                        .lastName(authUser.lastName())
+                        .role(authUser.role().toString())
+                        .emailVerified(authUser.emailVerified())
+                        .phoneVerified(authUser.phoneVerified())
                         .build())
                 .build();
     }
@@ -1,172 +1,400 @@
 package org.splitzy.auth.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.splitzy.auth.dto.TokenClaims;
+import org.splitzy.auth.dto.UserPrincipal;
+import org.splitzy.auth.keys.SigningKeyManager;
+import org.splitzy.auth.revocation.TokenDigests;
+import org.splitzy.auth.revocation.TokenRevocationFilter;
 import org.springframework.beans.factory.annotation.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.splitzy.auth.entity.AuthUser;
+import org.splitzy.common.exception.BusinessException;
 import org.splitzy.common.exception.ValidationException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.security.Key;
+import java.security.SecureRandom;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
 public class JwtTokenService {
 
+    // Only set while HS512 tokens are issued or still accepted
     private final SecretKey secretKey;
+    private final SigningKeyManager signingKeys;
+    private final JwtParser jwtParser;
     private final long accessTokenValiditySeconds;
     private final long refreshTokenValiditySeconds;
     private final RedisTemplate<String, String> redisTemplate;
-    private static final String BLACKLIST_PREFIX = "BLACKLIST:";
+    // Verified claims keyed by the token's SHA-256 digest; an entry lives until the token expires
+    private final Cache<String, TokenClaims> claimsCache;
+    private final TokenRevocationFilter revocationFilter;
+    // One key per revoked session (value unused) and one per user for "log out everywhere"
+    public static final String REVOKED_JTI_PREFIX = "REVOKED_JTI:";
+    public static final String REVOKE_EPOCH_PREFIX = "REVOKE_EPOCH:";
+    // Whole-token keys written before tokens carried a jti; still honoured until those tokens expire
+    public static final String BLACKLIST_PREFIX = "BLACKLIST:";
+    private static final SecureRandom TOKEN_ID_RANDOM = new SecureRandom();
     private static final String USER_ID_CLAIM = "USER_ID";
     private static final String USERNAME_CLAIM = "USERNAME";
     private static final String EMAIL_CLAIM = "EMAIL";
     private static final String ROLE_CLAIM = "ROLE";
     private static final String TOKEN_TYPE_CLAIM = "token_type";
 
-    public JwtTokenService(RedisTemplate<String, String> redisTemplate, @Value("${jwt.secret}") String secret, @Value("${jwt.access-token.validity-ms:3600000}") long accessTokenValiditySeconds, @Value("${jwt.refresh-token.validity-ms:604800000}")  long refreshTokenValiditySeconds) {
+    public JwtTokenService(RedisTemplate<String, String> redisTemplate, TokenRevocationFilter revocationFilter, SigningKeyManager signingKeys, MeterRegistry meterRegistry, @Value("${jwt.secret:}") String secret, @Value("${jwt.access-token.validity-ms:3600000}") long accessTokenValiditySeconds, @Value("${jwt.refresh-token.validity-ms:604800000}")  long refreshTokenValiditySeconds, @Value("${jwt.claims-cache.maximum-size:10000}") long claimsCacheSize) {
         this.redisTemplate = redisTemplate;
-        this.secretKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.revocationFilter = revocationFilter;
+        this.signingKeys = signingKeys;
+        this.secretKey = secret.isBlank() ? null : Keys.hmacShaKeyFor(secret.getBytes());
+        if (!signingKeys.isAsymmetric() && secretKey == null) {
+            throw new IllegalStateException("jwt.secret is required when jwt.signing.algorithm is HS512");
+        }
+        this.jwtParser = Jwts.parser().keyLocator(new VerificationKeyLocator()).build();
         this.accessTokenValiditySeconds = accessTokenValiditySeconds;
         this.refreshTokenValiditySeconds = refreshTokenValiditySeconds;
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfter(new Expiry<String, TokenClaims>() {
+                    @Override
+                    public long expireAfterCreate(String key, TokenClaims claims, long currentTime) {
+                        return Math.max(0, TimeUnit.MILLISECONDS.toNanos(claims.expiresAt().toEpochMilli() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, TokenClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, TokenClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, claimsCache, "jwtClaims");
     }
 
     public String generateAccessToken(AuthUser authUser) {
-        return generateToken(authUser, accessTokenValiditySeconds, "ACCESS");
+        return generateAccessToken(UserPrincipal.from(authUser));
+    }
+
+    public String generateAccessToken(UserPrincipal principal) {
+        return generateToken(principal, accessTokenValiditySeconds, TokenClaims.ACCESS);
     }
 
     public String generateRefreshToken(AuthUser user) {
-        return generateToken(user, refreshTokenValiditySeconds, "REFRESH");
+        return generateRefreshToken(UserPrincipal.from(user));
     }
 
-    //Generate JWT token with specified validity and type
-    private String generateToken(AuthUser authUser, long validityMs, String tokenType) {
-        Date now = new Date();
+    public String generateRefreshToken(UserPrincipal principal) {
+        return generateToken(principal, refreshTokenValiditySeconds, TokenClaims.REFRESH);
+    }
+
+    //Generate JWT token with specified validity and type; its claims are cached so the response needs no re-parse
+    private String generateToken(UserPrincipal principal, long validityMs, String tokenType) {
+        // Never issue a token that an earlier "log out everywhere" in the same second would reject
+        long notBefore = revocationEpoch(principal.id());
+        Date now = new Date(Math.max(System.currentTimeMillis(), TimeUnit.SECONDS.toMillis(notBefore)));
         Date expiryDate = new Date(now.getTime() + validityMs);
+        String tokenId = newTokenId();
 
         Map<String, Object> claims = new HashMap<>();
-        claims.put(USER_ID_CLAIM, authUser.getId());
-        claims.put(USERNAME_CLAIM, authUser.getUsername());
-        claims.put(EMAIL_CLAIM, authUser.getEmail());
+        claims.put(USER_ID_CLAIM, principal.id());
+        claims.put(USERNAME_CLAIM, principal.username());
+        claims.put(EMAIL_CLAIM, principal.email());
         claims.put(TOKEN_TYPE_CLAIM, tokenType);
-        claims.put(ROLE_CLAIM, authUser.getRole());
+        claims.put(ROLE_CLAIM, principal.role());
+
+        JwtBuilder builder = Jwts.builder().claims(claims).id(tokenId).subject(principal.email()).issuedAt(now).expiration(expiryDate);
+        if (signingKeys.isAsymmetric()) {
+            SigningKeyManager.SigningKey signingKey = signingKeys.activeKey();
+            builder.header().keyId(signingKey.kid()).and().signWith(signingKey.privateKey(), Jwts.SIG.ES256);
+        } else {
+            builder.signWith(secretKey, Jwts.SIG.HS512);
+        }
+        String token = builder.compact();
 
-        return Jwts.builder().setClaims(claims).setSubject(authUser.getEmail()).setIssuedAt(now).setExpiration(expiryDate).signWith(SignatureAlgorithm.HS512, secretKey).compact();
+        // JWT dates have second precision, match what a parse would return
+        claimsCache.put(TokenDigests.encode(TokenDigests.sha256(token)), new TokenClaims(tokenId, principal.id(), principal.username(), principal.email(),
+                String.valueOf(principal.role()), tokenType,
+                Instant.ofEpochSecond(now.getTime() / 1000), Instant.ofEpochSecond(expiryDate.getTime() / 1000)));
+        return token;
     }
 
-    public Long getUserIdFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        Object userIdObj = claims.get(USER_ID_CLAIM);
-        if(userIdObj instanceof Integer) {
-            return ((Integer) userIdObj).longValue();
+    /**
+     * Verify a token once and return its claims.
+     * A token seen before costs one SHA-256 and a cache lookup instead of an HMAC check and JSON parse.
+     * Throws JwtException (or IllegalArgumentException) when the token is invalid or expired; does not check the blacklist.
+     */
+    public TokenClaims parseToken(String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("JWT token is empty");
+        }
+        return parseToken(token, TokenDigests.sha256(token));
+    }
+
+    private TokenClaims parseToken(String token, byte[] digest) {
+        String key = TokenDigests.encode(digest);
+        TokenClaims cached = claimsCache.getIfPresent(key);
+        if (cached != null) {
+            if (cached.isExpired(Instant.now())) {
+                claimsCache.invalidate(key);
+                throw new ExpiredJwtException(null, null, "JWT expired at " + cached.expiresAt());
+            }
+            return cached;
+        }
+
+        TokenClaims claims = toTokenClaims(getClaimsFromToken(token));
+        claimsCache.put(key, claims);
+        return claims;
+    }
+
+    /**
+     * Claims of a valid, unexpired and not blacklisted token; empty otherwise
+     */
+    public Optional<TokenClaims> validateAndGetClaims(String token) {
+        try {
+            if (token == null || token.isBlank()) {
+                throw new IllegalArgumentException("JWT token is empty");
+            }
+            byte[] digest = TokenDigests.sha256(token);
+            TokenClaims claims = parseToken(token, digest);
+            if (isRevoked(token, claims, digest)) {
+                log.debug("Token is blacklisted");
+                return Optional.empty();
+            }
+            return Optional.of(claims);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Token validation failed: {}", e.getMessage());
+            return Optional.empty();
         }
-        return (Long) userIdObj;
+    }
+
+    public Long getUserIdFromToken(String token) {
+        return parseToken(token).userId();
     }
 
     public String getUsernameFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return (String) claims.get(USERNAME_CLAIM);
+        return parseToken(token).username();
     }
 
     public String getEmailFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return (String) claims.get(EMAIL_CLAIM);
+        return parseToken(token).email();
     }
 
     public String getRoleFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return (String) claims.get(ROLE_CLAIM);
+        return parseToken(token).role();
     }
 
     public String getTokenTypeFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return (String) claims.get(TOKEN_TYPE_CLAIM);
+        return parseToken(token).tokenType();
     }
 
     public Date getExpirationDateFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.getExpiration();
+        return Date.from(parseToken(token).expiresAt());
     }
 
     public LocalDateTime getExpirationAsLocalDateTime(String token) {
-        Date expiration = getExpirationDateFromToken(token);
-        return expiration.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
+        return parseToken(token).expiresAtLocal();
     }
 
     public Boolean isTokenExpired(String token) {
         try{
-            Date expiration = getExpirationDateFromToken(token);
-            return expiration.before(new Date());
-        } catch(JwtException e){
+            return parseToken(token).isExpired(Instant.now());
+        } catch(JwtException | IllegalArgumentException e){
             return true;
         }
     }
 
     public Boolean validateToken(String token) {
-        try {
-            if (isTokenBlacklisted(token)) {
-                log.debug("Token is blacklisted");
-                return false;
-            }
-
-            getClaimsFromToken(token); // This will throw exception if invalid
-            return !isTokenExpired(token);
-        } catch (JwtException | IllegalArgumentException e) {
-            log.debug("Token validation failed: {}", e.getMessage());
-            return false;
-        }
+        return validateAndGetClaims(token).isPresent();
     }
 
     public Boolean validateRefreshToken(String token) {
-        try{
-            if (!validateToken(token)) {
-                return false;
-            }
-            String tokenType = getTokenTypeFromToken(token);
-            return "REFRESH".equals(tokenType);
-        } catch(Exception e){
-            log.debug("Refresh Token validation failed: {}", e.getMessage());
-            return false;
-        }
+        return validateAndGetClaims(token).filter(TokenClaims::isRefreshToken).isPresent();
     }
 
+    /**
+     * Revoke one session; only the token's jti is stored, until the token would have expired anyway
+     */
     public void blacklistToken(String token) {
         try{
-            Date expiration = getExpirationDateFromToken(token);
-            long tt1 = expiration.getTime() - System.currentTimeMillis();
+            byte[] digest = TokenDigests.sha256(token);
+            TokenClaims claims = parseToken(token, digest);
+            String revocationId = revocationId(claims, digest);
+            long expiresAt = claims.expiresAt().toEpochMilli();
+            long tt1 = expiresAt - System.currentTimeMillis();
 
             if(tt1 > 0) {
-                String key = BLACKLIST_PREFIX + token;
-                redisTemplate.opsForValue().set(key, "blacklisted", tt1, TimeUnit.MILLISECONDS);
+                redisTemplate.opsForValue().set(REVOKED_JTI_PREFIX + revocationId, "1", tt1, TimeUnit.MILLISECONDS);
+                revocationFilter.revoked(revocationId, expiresAt);
                 log.debug("Token is blacklisted successfully");
             }
+            claimsCache.invalidate(TokenDigests.encode(digest));
         } catch(Exception e){
             log.error("Failed to blacklist token: {}", e.getMessage());
             throw new ValidationException("Failed to logout user");
         }
     }
 
+    /**
+     * Validate a refresh token and revoke it in the same step, so each refresh token works once.
+     * Its revocation key is written with SET NX, which doubles as the revocation check: an existing key means
+     * the token was revoked or already used, possibly by a concurrent refresh, and empty is returned.
+     * The SET and the revocation broadcast go to Redis as one pipelined round trip; the per-user epoch is
+     * checked locally like in validateAndGetClaims.
+     */
+    public Optional<TokenClaims> consumeRefreshToken(String token) {
+        byte[] digest;
+        TokenClaims claims;
+        try {
+            if (token == null || token.isBlank()) {
+                throw new IllegalArgumentException("JWT token is empty");
+            }
+            digest = TokenDigests.sha256(token);
+            claims = parseToken(token, digest);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Refresh token validation failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+        if (!claims.isRefreshToken() || isRevokedByEpoch(claims)) {
+            return Optional.empty();
+        }
+
+        String revocationId = revocationId(claims, digest);
+        long expiresAt = claims.expiresAt().toEpochMilli();
+        long ttl = expiresAt - System.currentTimeMillis();
+        if (ttl <= 0) {
+            return Optional.empty();
+        }
+        String message = revocationFilter.revocationMessage(revocationId, expiresAt);
+        List<Object> results;
+        try {
+            results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> redis = (RedisOperations<String, String>) operations;
+                    redis.opsForValue().setIfAbsent(REVOKED_JTI_PREFIX + revocationId, "1", ttl, TimeUnit.MILLISECONDS);
+                    if (claims.tokenId() == null) {
+                        redis.hasKey(BLACKLIST_PREFIX + token);
+                    }
+                    redis.convertAndSend(revocationFilter.getChannel(), message);
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.error("Failed to revoke refresh token: {}", e.getMessage());
+            throw new BusinessException("Token refresh is temporarily unavailable, please retry.",
+                    HttpStatus.SERVICE_UNAVAILABLE, "TOKEN_REFRESH_UNAVAILABLE");
+        }
+        revocationFilter.revokedLocally(revocationId, expiresAt);
+        claimsCache.invalidate(TokenDigests.encode(digest));
+
+        boolean firstUse = Boolean.TRUE.equals(results.get(0))
+                && (claims.tokenId() != null || !Boolean.TRUE.equals(results.get(1)));
+        if (!firstUse) {
+            log.warn("Rejected reuse of a revoked refresh token of user {}", claims.userId());
+            return Optional.empty();
+        }
+        return Optional.of(claims);
+    }
+
+    /**
+     * Revoke every token issued to the user so far ("log out everywhere") with a single per-user epoch.
+     * The epoch key lives as long as the longest token validity; after that no older token can still be valid.
+     */
+    public void revokeAllTokens(Long userId) {
+        long epochSeconds = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + 1;
+        try {
+            redisTemplate.opsForValue().set(REVOKE_EPOCH_PREFIX + userId, String.valueOf(epochSeconds),
+                    Math.max(accessTokenValiditySeconds, refreshTokenValiditySeconds), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.error("Failed to revoke tokens of user {}: {}", userId, e.getMessage());
+            throw new ValidationException("Failed to logout user");
+        }
+        revocationFilter.epochAdvanced(userId, epochSeconds);
+        log.debug("All tokens of user {} issued before {} revoked", userId, epochSeconds);
+    }
+
     public boolean isTokenBlacklisted(String token) {
-        try{
-            String key = BLACKLIST_PREFIX + token;
-            return Boolean.TRUE.equals(redisTemplate.hasKey(key));
-        } catch(Exception e){
-            log.error("Failed to check token status: {}", e.getMessage());
-            return false;
+        byte[] digest = TokenDigests.sha256(token);
+        return isRevoked(token, parseToken(token, digest), digest);
+    }
+
+    // Per-user epoch first, then the session itself; Redis is only asked when local state cannot rule a token out
+    private boolean isRevoked(String token, TokenClaims claims, byte[] digest) {
+        if (isRevokedByEpoch(claims)) {
+            return true;
         }
+        String revocationId = revocationId(claims, digest);
+        return revocationFilter.isRevoked(revocationId, () -> {
+            try{
+                if (claims.tokenId() != null) {
+                    return Boolean.TRUE.equals(redisTemplate.hasKey(REVOKED_JTI_PREFIX + revocationId));
+                }
+                Long found = redisTemplate.countExistingKeys(List.of(REVOKED_JTI_PREFIX + revocationId, BLACKLIST_PREFIX + token));
+                return found != null && found > 0;
+            } catch(Exception e){
+                log.error("Failed to check token status: {}", e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    private boolean isRevokedByEpoch(TokenClaims claims) {
+        return claims.userId() != null && claims.issuedAt() != null
+                && claims.issuedAt().getEpochSecond() < revocationEpoch(claims.userId());
+    }
+
+    // Epoch seconds before which the user's tokens are revoked, 0 if never
+    private long revocationEpoch(Long userId) {
+        return revocationFilter.revocationEpoch(userId, () -> {
+            try {
+                String epoch = redisTemplate.opsForValue().get(REVOKE_EPOCH_PREFIX + userId);
+                return epoch != null ? Long.parseLong(epoch) : 0L;
+            } catch (Exception e) {
+                log.error("Failed to read revocation epoch of user {}: {}", userId, e.getMessage());
+                return 0L;
+            }
+        });
+    }
+
+    // The jti, or for tokens issued before jti existed the digest of the whole token
+    private static String revocationId(TokenClaims claims, byte[] digest) {
+        return claims.tokenId() != null ? claims.tokenId() : TokenDigests.encode(digest);
+    }
+
+    private static String newTokenId() {
+        byte[] id = new byte[16];
+        TOKEN_ID_RANDOM.nextBytes(id);
+        return TokenDigests.encode(id);
     }
 
     private Claims getClaimsFromToken(String token){
         try{
-            return Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload();
+            return jwtParser.parseSignedClaims(token).getPayload();
         } catch (ExpiredJwtException e){
             log.debug("Token expired: {}", e.getMessage());
             throw e;
@@ -185,13 +413,46 @@ public class JwtTokenService {
         }
     }
 
+    private static TokenClaims toTokenClaims(Claims claims) {
+        if (claims.getExpiration() == null) {
+            throw new MalformedJwtException("JWT token has no expiration");
+        }
+        Object userId = claims.get(USER_ID_CLAIM);
+        return new TokenClaims(
+                claims.getId(),
+                userId instanceof Number number ? number.longValue() : null,
+                claims.get(USERNAME_CLAIM, String.class),
+                claims.get(EMAIL_CLAIM, String.class),
+                claims.get(ROLE_CLAIM, String.class),
+                claims.get(TOKEN_TYPE_CLAIM, String.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration().toInstant());
+    }
+
     public long getRemainingValidityInSeconds(String token) {
         try {
-            Date expiration = getExpirationDateFromToken(token);
-            long remaining = expiration.getTime() - System.currentTimeMillis();
-            return remaining > 0 ? remaining / 1000 : 0;
+            return parseToken(token).remainingSeconds(Instant.now());
         } catch (Exception e) {
             return 0;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * ES256 tokens are verified with the key named by their kid; HS512 tokens with jwt.secret, as long as it is set
+     */
+    private class VerificationKeyLocator extends LocatorAdapter<Key> {
+
+        @Override
+        protected Key locate(JwsHeader header) {
+            String algorithm = header.getAlgorithm();
+            if (algorithm != null && algorithm.startsWith("HS")) {
+                if (secretKey == null) {
+                    throw new UnsupportedJwtException("HMAC-signed tokens are no longer accepted");
+                }
+                return secretKey;
+            }
+            return signingKeys.verificationKey(header.getKeyId())
+                    .orElseThrow(() -> new UnsupportedJwtException("Unknown signing key: " + header.getKeyId()));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.splitzy.auth.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.splitzy.auth.repository.AuthUserBatchRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind buffer for last-login timestamps, so a login does not wait on an UPDATE of its row.
+ * Logins are coalesced per user (latest wins) and flushed as one batched UPDATE every max-staleness,
+ * or as soon as max-buffered users are waiting, and once more on shutdown.
+ * A failed flush puts its entries back for the next one.
+ */
+@Slf4j
+@Service
+public class LastLoginRecorder {
+
+    private final AuthUserBatchRepository batchRepository;
+    private final int maxBuffered;
+    private final Map<Long, LocalDateTime> buffer = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final ExecutorService flushExecutor;
+    private final Timer flushTimer;
+
+    public LastLoginRecorder(AuthUserBatchRepository batchRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${auth.last-login.max-buffered:1000}") int maxBuffered) {
+        this.batchRepository = batchRepository;
+        this.maxBuffered = maxBuffered;
+        this.flushExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "last-login-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flushTimer = Timer.builder("splitzy.last.login.flush")
+                .description("Time to write one batch of buffered last-login timestamps")
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("splitzy.last.login.buffered", List.of(), buffer);
+    }
+
+    public void record(Long userId, LocalDateTime lastLogin) {
+        buffer.merge(userId, lastLogin, (previous, current) -> current.isAfter(previous) ? current : previous);
+        if (buffer.size() >= maxBuffered && flushQueued.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushQueued.set(false);
+                flush();
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.last-login.max-staleness:PT5S}")
+    public synchronized void flush() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        // Entries recorded while this batch is written stay in the buffer for the next one
+        Map<Long, LocalDateTime> batch = new HashMap<>();
+        for (Long userId : buffer.keySet()) {
+            LocalDateTime lastLogin = buffer.remove(userId);
+            if (lastLogin != null) {
+                batch.put(userId, lastLogin);
+            }
+        }
+        try {
+            flushTimer.record(() -> batchRepository.updateLastLogins(batch));
+            log.debug("Flushed last login of {} users", batch.size());
+        } catch (Exception e) {
+            log.warn("Failed to flush last login of {} users, retrying with the next batch: {}", batch.size(), e.getMessage());
+            batch.forEach((userId, lastLogin) -> buffer.merge(userId, lastLogin,
+                    (current, failed) -> current.isAfter(failed) ? current : failed));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        flush();
+    }
+}
@@ -0,0 +1,159 @@
+package org.splitzy.auth.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.splitzy.common.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Failed-login counting in Redis, per account and per source address.
+ * Each scope uses a sliding-window counter: a counter for the current window plus the previous window's count
+ * weighted by how much of it still overlaps, so memory is two integers per scope whatever the attempt rate.
+ * Recording a failure is one Lua script that bumps both scopes and, when the account limit is reached,
+ * starts the lock with SET NX; only then does the caller write the auth_users row, once per lock.
+ * Redis errors fail open: logins keep working, only the throttling is lost.
+ */
+@Slf4j
+@Service
+public class LoginAttemptService {
+
+    private static final String KEY_PREFIX = "LOGIN_FAIL:";
+    private static final String LOCK_PREFIX = "LOGIN_LOCK:";
+
+    // KEYS: source current, source previous[, account current, account previous, account lock]
+    // ARGV: window ms, weight of the previous window, account limit, lock ms
+    private static final RedisScript<List> RECORD_FAILURE = new DefaultRedisScript<>("""
+            local ttl = tonumber(ARGV[1]) * 2
+            local weight = tonumber(ARGV[2])
+            local function hit(current, previous)
+                local count = redis.call('INCR', current)
+                if count == 1 then
+                    redis.call('PEXPIRE', current, ttl)
+                end
+                return count + math.floor((tonumber(redis.call('GET', previous)) or 0) * weight)
+            end
+            local sourceCount = hit(KEYS[1], KEYS[2])
+            if #KEYS < 5 then
+                return {sourceCount, 0, 0}
+            end
+            local accountCount = hit(KEYS[3], KEYS[4])
+            local lockStarted = 0
+            if accountCount >= tonumber(ARGV[3]) and redis.call('SET', KEYS[5], '1', 'NX', 'PX', ARGV[4]) then
+                lockStarted = 1
+            end
+            return {sourceCount, accountCount, lockStarted}
+            """, List.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long windowMs;
+    private final int maxPerAccount;
+    private final int maxPerSource;
+    private final Duration lockDuration;
+
+    public LoginAttemptService(RedisTemplate<String, String> redisTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${auth.login-attempts.window:PT15M}") Duration window,
+                               @Value("${auth.login-attempts.max-per-account:5}") int maxPerAccount,
+                               @Value("${auth.login-attempts.max-per-source:50}") int maxPerSource,
+                               @Value("${auth.login-attempts.lock-duration:PT30M}") Duration lockDuration) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.windowMs = window.toMillis();
+        this.maxPerAccount = maxPerAccount;
+        this.maxPerSource = maxPerSource;
+        this.lockDuration = lockDuration;
+    }
+
+    public Duration getLockDuration() {
+        return lockDuration;
+    }
+
+    public int getMaxPerAccount() {
+        return maxPerAccount;
+    }
+
+    /**
+     * Refuse a login from a source over its failure limit, before any database lookup or password check
+     */
+    public void checkSource(String clientIp) {
+        try {
+            long now = System.currentTimeMillis();
+            long window = now / windowMs;
+            List<String> counts = redisTemplate.opsForValue().multiGet(List.of(
+                    sourceKey(clientIp, window), sourceKey(clientIp, window - 1)));
+            if (counts != null && estimate(counts.get(0), counts.get(1), now) >= maxPerSource) {
+                meterRegistry.counter("splitzy.login.attempts", "outcome", "source_blocked").increment();
+                throw new BusinessException("Too many failed login attempts, please try again later.",
+                        HttpStatus.TOO_MANY_REQUESTS, "LOGIN_THROTTLED");
+            }
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            log.warn("Failed to check login attempts of {}: {}", clientIp, e.getMessage());
+        }
+    }
+
+    /**
+     * Count a failed login; true if it started a lock on the account, which the caller must then persist
+     */
+    public boolean recordFailure(Long userId, String clientIp) {
+        long now = System.currentTimeMillis();
+        long window = now / windowMs;
+        List<String> keys = userId == null
+                ? List.of(sourceKey(clientIp, window), sourceKey(clientIp, window - 1))
+                : List.of(sourceKey(clientIp, window), sourceKey(clientIp, window - 1),
+                        accountKey(userId, window), accountKey(userId, window - 1), LOCK_PREFIX + userId);
+        try {
+            List<?> result = redisTemplate.execute(RECORD_FAILURE, keys,
+                    String.valueOf(windowMs), String.valueOf(previousWeight(now)),
+                    String.valueOf(maxPerAccount), String.valueOf(lockDuration.toMillis()));
+            boolean lockStarted = result != null && result.size() == 3 && ((Number) result.get(2)).longValue() == 1;
+            meterRegistry.counter("splitzy.login.attempts", "outcome", lockStarted ? "lock_started" : "failed").increment();
+            if (lockStarted) {
+                log.warn("Locking account {} after {} failed logins within {} ms", userId, result.get(1), windowMs);
+            }
+            return lockStarted;
+        } catch (Exception e) {
+            log.warn("Failed to record failed login of {}: {}", clientIp, e.getMessage());
+            return false;
+        }
+    }
+
+    /** Forget an account's failures after a successful login; the source's stay until they slide out */
+    public void recordSuccess(Long userId) {
+        long window = System.currentTimeMillis() / windowMs;
+        try {
+            redisTemplate.delete(List.of(accountKey(userId, window), accountKey(userId, window - 1)));
+        } catch (Exception e) {
+            log.warn("Failed to clear failed logins of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private long estimate(String current, String previous, long now) {
+        long currentCount = current != null ? Long.parseLong(current) : 0;
+        long previousCount = previous != null ? Long.parseLong(previous) : 0;
+        return currentCount + (long) Math.floor(previousCount * previousWeight(now));
+    }
+
+    // Share of the previous window still inside the sliding window
+    private double previousWeight(long now) {
+        return 1.0 - (double) (now % windowMs) / windowMs;
+    }
+
+    private static String sourceKey(String clientIp, long window) {
+        return KEY_PREFIX + "src:" + clientIp + ":" + window;
+    }
+
+    private static String accountKey(Long userId, long window) {
+        return KEY_PREFIX + "acct:" + userId + ":" + window;
+    }
+}
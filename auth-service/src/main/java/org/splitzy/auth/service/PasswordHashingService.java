@@ -0,0 +1,178 @@
+package org.splitzy.auth.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.splitzy.common.exception.ServiceOverloadedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs password hashing and verification on a small pool sized to the CPU count, so a login storm
+ * can only take that many cores and the other endpoints keep their request threads and CPU.
+ * A request is refused at submit time with 503 when the tasks ahead of it, at the recent hash time,
+ * would not finish within max-wait, so shed requests fail in microseconds instead of after max-wait.
+ */
+@Slf4j
+@Service
+public class PasswordHashingService {
+
+    private static final String OVERLOADED = "PASSWORD_HASHING_OVERLOADED";
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final int poolSize;
+    private final long maxWaitMs;
+    // Moving average of recent hash times, seeded with expected-hash-time
+    private final AtomicLong averageHashNanos;
+    private final MeterRegistry meterRegistry;
+    private final Timer queueWait;
+    private final Counter rejected;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${auth.password-hashing.threads:0}") int threads,
+                                  @Value("${auth.password-hashing.queue-capacity:0}") int queueCapacity,
+                                  @Value("${auth.password-hashing.max-wait:PT2S}") Duration maxWait,
+                                  @Value("${auth.password-hashing.expected-hash-time:PT0.25S}") Duration expectedHashTime) {
+        this.passwordEncoder = passwordEncoder;
+        this.meterRegistry = meterRegistry;
+        this.maxWaitMs = maxWait.toMillis();
+        this.averageHashNanos = new AtomicLong(expectedHashTime.toNanos());
+
+        this.poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        if (queueCapacity <= 0) {
+            // As many as the pool can start within max-wait; the submit-time check tightens this as hash time moves
+            queueCapacity = (int) Math.max(1, poolSize * (maxWait.toNanos() / expectedHashTime.toNanos()));
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.queueWait = Timer.builder("splitzy.password.hashing.wait")
+                .description("Time a hashing task waited in the queue before a thread picked it up")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("splitzy.password.hashing.rejected")
+                .description("Logins and registrations shed with 503 because hashing was saturated")
+                .register(meterRegistry);
+        Gauge.builder("splitzy.password.hashing.queue", executor, pool -> pool.getQueue().size())
+                .description("Hashing tasks waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("splitzy.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing tasks running")
+                .register(meterRegistry);
+        log.info("Password hashing pool: {} threads, queue of {}", poolSize, queueCapacity);
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return run("encode", () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run("matches", () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /** Whether the hash was made with weaker settings than the encoder now uses */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Whether a new task would start without queueing; optional work such as rehashing is skipped otherwise
+     */
+    public boolean hasIdleCapacity() {
+        return executor.getQueue().isEmpty() && executor.getActiveCount() < executor.getMaximumPoolSize();
+    }
+
+    private <T> T run(String operation, Callable<T> task) {
+        long expectedMs = expectedCompletionMs();
+        if (expectedMs > maxWaitMs) {
+            throw overloaded("expected " + expectedMs + " ms, max-wait " + maxWaitMs + " ms");
+        }
+
+        long submittedAt = System.nanoTime();
+        Timer duration = Timer.builder("splitzy.password.hashing.duration")
+                .description("Time to hash or verify one password")
+                .tag("operation", operation)
+                .register(meterRegistry);
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWait.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return duration.recordCallable(task);
+                } finally {
+                    long elapsed = System.nanoTime() - startedAt;
+                    averageHashNanos.accumulateAndGet(elapsed, (average, sample) -> average + (sample - average) / 8);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw overloaded("queue full");
+        }
+
+        try {
+            return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Not started yet: drop it from the queue; already running: let it finish, the result is discarded
+            future.cancel(false);
+            executor.remove((Runnable) future);
+            throw overloaded("waited " + maxWaitMs + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw overloaded("interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Time until a task submitted now would finish: the rounds of pool-sized batches ahead of it plus its own hash
+     */
+    private long expectedCompletionMs() {
+        long ahead = executor.getQueue().size() + executor.getActiveCount();
+        long rounds = ahead / poolSize + 1;
+        return TimeUnit.NANOSECONDS.toMillis(rounds * averageHashNanos.get());
+    }
+
+    private ServiceOverloadedException overloaded(String reason) {
+        rejected.increment();
+        log.warn("Shedding password hashing request: {}", reason);
+        // Roughly when the current backlog has drained
+        Duration retryAfter = Duration.ofMillis(expectedCompletionMs());
+        return new ServiceOverloadedException("Too many sign-in requests right now, please retry shortly.",
+                OVERLOADED, retryAfter);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,53 @@
+package org.splitzy.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.splitzy.auth.dto.UserPrincipal;
+import org.splitzy.auth.repository.AuthUserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Short-lived cache of user principals by id, so a burst of token refreshes does not load the same rows.
+ * Changes made through AuthService invalidate the entry on this instance; other instances see them within the ttl.
+ * Deactivation also revokes the user's tokens, which every instance honours at once.
+ */
+@Service
+public class UserPrincipalCache {
+
+    private final AuthUserRepository authUserRepository;
+    private final Cache<Long, UserPrincipal> principals;
+
+    public UserPrincipalCache(AuthUserRepository authUserRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${auth.principal-cache.ttl:PT30S}") Duration ttl,
+                              @Value("${auth.principal-cache.maximum-size:10000}") long maximumSize) {
+        this.authUserRepository = authUserRepository;
+        this.principals = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "userPrincipals");
+    }
+
+    /** The cached principal, or the row loaded and cached; empty if the user does not exist */
+    public Optional<UserPrincipal> get(Long userId) {
+        return Optional.ofNullable(principals.get(userId,
+                id -> authUserRepository.findById(id).map(UserPrincipal::from).orElse(null)));
+    }
+
+    /** Cache a principal just read or written, e.g. at login, so the refresh that follows finds it */
+    public void put(UserPrincipal principal) {
+        principals.put(principal.id(), principal);
+    }
+
+    public void invalidate(Long userId) {
+        principals.invalidate(userId);
+    }
+}
@@ -0,0 +1,23 @@
+-- Auth schema as previously created by ddl-auto=update.
+-- Existing databases are baselined at this version; secondary indexes are added online by V2.
+
+CREATE TABLE auth_users (
+    id                    BIGINT       NOT NULL AUTO_INCREMENT,
+    created_at            DATETIME(6)  NOT NULL,
+    updated_at            DATETIME(6)  NOT NULL,
+    is_active             BIT          NOT NULL,
+    username              VARCHAR(50)  NOT NULL,
+    email                 VARCHAR(100) NOT NULL,
+    password_hash         VARCHAR(255) NOT NULL,
+    first_name            VARCHAR(50)  NOT NULL,
+    last_name             VARCHAR(50)  NOT NULL,
+    phone_number          VARCHAR(20),
+    is_email_verified     BIT          NOT NULL,
+    is_phone_verified     BIT          NOT NULL,
+    failed_login_attempts INT          NOT NULL,
+    account_locked_until  DATETIME(6),
+    last_login            DATETIME(6),
+    password_changed_at   DATETIME(6),
+    role                  ENUM ('USER','ADMIN') NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
@@ -4,6 +4,7 @@ import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.splitzy.common.dto.ApiResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindException;
@@ -28,8 +29,26 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ApiResponse<Object>> handleBusinessException(BusinessException ex, WebRequest request) {
         log.error("Business exception occurred: {}", ex.getMessage(), ex);
 
+        return new ResponseEntity<>(businessError(ex), ex.getStatus());
+    }
+
+    /**
+     * Handle requests shed under load; expected, so no stack trace
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ApiResponse<Object>> handleServiceOverloadedException(ServiceOverloadedException ex, WebRequest request) {
+        log.warn("Request shed: {} ({})", ex.getErrorCode(), ex.getMessage());
+
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(ex.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(businessError(ex));
+    }
+
+    private ApiResponse<Object> businessError(BusinessException ex) {
         ApiResponse<Object> response = ApiResponse.error(ex.getMessage(), "Business logic error");
-        return new ResponseEntity<>(response, ex.getStatus());
+        response.setErrorCode(ex.getErrorCode());
+        return response;
     }
 
     /**
@@ -0,0 +1,20 @@
+package org.splitzy.common.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when a request is shed because the service is saturated; answered with 503 and Retry-After
+ */
+@Getter
+public class ServiceOverloadedException extends BusinessException {
+
+    private final Duration retryAfter;
+
+    public ServiceOverloadedException(String message, String errorCode, Duration retryAfter) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE, errorCode);
+        this.retryAfter = retryAfter;
+    }
+}
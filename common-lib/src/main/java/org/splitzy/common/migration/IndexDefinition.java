@@ -0,0 +1,32 @@
+package org.splitzy.common.migration;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Secondary index created by an {@link OnlineIndexMigration}
+ */
+public record IndexDefinition(String table, String name, boolean unique, List<String> columns) {
+
+    public static IndexDefinition index(String table, String name, String... columns) {
+        return new IndexDefinition(table, name, false, List.of(columns));
+    }
+
+    public static IndexDefinition uniqueIndex(String table, String name, String... columns) {
+        return new IndexDefinition(table, name, true, List.of(columns));
+    }
+
+    /**
+     * InnoDB builds the index in place and keeps the table open for reads and writes;
+     * MySQL rejects the statement rather than silently falling back to a locking copy.
+     */
+    public String toDdl() {
+        return "ALTER TABLE `" + table + "` ADD " + (unique ? "UNIQUE " : "") + "INDEX `" + name + "` ("
+                + columns.stream().map(column -> "`" + column + "`").collect(Collectors.joining(", "))
+                + "), ALGORITHM=INPLACE, LOCK=NONE";
+    }
+
+    public String toDropDdl() {
+        return "ALTER TABLE `" + table + "` DROP INDEX `" + name + "`, ALGORITHM=INPLACE, LOCK=NONE";
+    }
+}
@@ -0,0 +1,76 @@
+package org.splitzy.common.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Java migration that adds secondary indexes one at a time with online DDL.
+ * Indexes that already exist (databases first created by ddl-auto) are skipped, so the
+ * same migration works for fresh and baselined schemas. Subclasses are Spring beans;
+ * Boot hands them to Flyway, which also keeps them usable in the native image.
+ */
+@Slf4j
+public abstract class OnlineIndexMigration extends BaseJavaMigration {
+
+    private static final String INDEX_EXISTS = "SELECT COUNT(*) FROM information_schema.statistics " +
+            "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?";
+
+    protected abstract List<IndexDefinition> indexes();
+
+    /**
+     * Indexes superseded by ones in {@link #indexes()}, dropped once those exist; absent ones are skipped
+     */
+    protected List<IndexDefinition> replacedIndexes() {
+        return List.of();
+    }
+
+    // MySQL commits DDL implicitly; each index is its own unit of work
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        for (IndexDefinition index : indexes()) {
+            if (indexExists(connection, index)) {
+                log.info("Index {} on {} already exists", index.name(), index.table());
+                continue;
+            }
+            log.info("Creating index {} on {}", index.name(), index.table());
+            long start = System.nanoTime();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(index.toDdl());
+            }
+            log.info("Created index {} on {} in {} ms", index.name(), index.table(), (System.nanoTime() - start) / 1_000_000);
+        }
+        for (IndexDefinition index : replacedIndexes()) {
+            if (!indexExists(connection, index)) {
+                continue;
+            }
+            log.info("Dropping replaced index {} on {}", index.name(), index.table());
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(index.toDropDdl());
+            }
+        }
+    }
+
+    private boolean indexExists(Connection connection, IndexDefinition index) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INDEX_EXISTS)) {
+            statement.setString(1, index.table());
+            statement.setString(2, index.name());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getInt(1) > 0;
+            }
+        }
+    }
+}
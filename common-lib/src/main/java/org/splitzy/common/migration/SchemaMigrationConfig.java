@@ -0,0 +1,36 @@
+package org.splitzy.common.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces Boot's migrate-on-startup with validation.
+ * Schema changes are applied ahead of a rollout by starting one instance with
+ * "splitzy.schema.mode=migrate" (and -Dspring.context.exit=onRefresh to stop it afterwards),
+ * so a rolling deploy never runs DDL from every new pod.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnClass(name = "org.flywaydb.core.Flyway")
+@EnableConfigurationProperties(SchemaMigrationProperties.class)
+public class SchemaMigrationConfig {
+
+    @Bean
+    public FlywayMigrationStrategy schemaMigrationStrategy(SchemaMigrationProperties properties) {
+        return flyway -> {
+            if (properties.getMode() == SchemaMigrationProperties.Mode.MIGRATE) {
+                MigrateResult result = flyway.migrate();
+                log.info("Applied {} schema migrations, schema now at version {}",
+                        result.migrationsExecuted, result.targetSchemaVersion);
+            } else {
+                flyway.validate();
+                log.info("Schema validated against {} migrations", flyway.info().applied().length);
+            }
+        };
+    }
+}
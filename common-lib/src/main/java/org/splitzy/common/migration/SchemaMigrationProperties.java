@@ -0,0 +1,19 @@
+package org.splitzy.common.migration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * What a service does with its Flyway migrations at startup (prefix "splitzy.schema")
+ */
+@Data
+@ConfigurationProperties(prefix = "splitzy.schema")
+public class SchemaMigrationProperties {
+
+    private Mode mode = Mode.VALIDATE;
+
+    public enum Mode {
+        VALIDATE,   // Fail startup unless every migration has been applied; never changes the schema
+        MIGRATE     // Apply pending migrations (one-off deploy step or local development)
+    }
+}
@@ -0,0 +1,94 @@
+package org.splitzy.common.observability;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+import java.time.Duration;
+
+/**
+ * Shared metrics setup for all services: common tags, service method timers,
+ * latency histograms for the hot-path timers and guards against tag explosion.
+ * Hikari, Hibernate, Kafka and HTTP server metrics come from Spring Boot and are shaped here.
+ */
+@Configuration
+@EnableAspectJAutoProxy
+public class ObservabilityConfig {
+
+    private static final Duration[] LATENCY_SLOS = {
+            Duration.ofMillis(10), Duration.ofMillis(50), Duration.ofMillis(100),
+            Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofSeconds(2)
+    };
+
+    @Value("${spring.application.name:splitzy}")
+    private String applicationName;
+
+    @Value("${splitzy.metrics.max-method-tags:500}")
+    private int maxMethodTags;
+
+    @Value("${splitzy.metrics.max-endpoint-tags:200}")
+    private int maxEndpointTags;
+
+    @Bean
+    public MeterRegistryCustomizer<MeterRegistry> commonTagsCustomizer() {
+        return registry -> registry.config().commonTags("application", applicationName);
+    }
+
+    @Bean
+    public ServiceMetricsAspect serviceMetricsAspect(MeterRegistry meterRegistry) {
+        return new ServiceMetricsAspect(meterRegistry);
+    }
+
+    /**
+     * Publish histogram buckets for request and service timers so percentiles can be aggregated across replicas
+     */
+    @Bean
+    public MeterFilter latencyHistogramFilter() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() != Meter.Type.TIMER || !isLatencyTimer(id.getName())) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .serviceLevelObjectives(toNanos(LATENCY_SLOS))
+                        .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+                        .maximumExpectedValue((double) Duration.ofSeconds(10).toNanos())
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+
+    /**
+     * Stop registering new method series once the limit is hit, e.g. if a proxy ever exposes generated methods
+     */
+    @Bean
+    public MeterFilter serviceMethodCardinalityFilter() {
+        return MeterFilter.maximumAllowableTags(ServiceMetricsAspect.METRIC_NAME, "method", maxMethodTags, MeterFilter.deny());
+    }
+
+    @Bean
+    public MeterFilter serviceEndpointCardinalityFilter() {
+        return MeterFilter.maximumAllowableTags(ServiceMetricsAspect.METRIC_NAME, "endpoint", maxEndpointTags, MeterFilter.deny());
+    }
+
+    private static boolean isLatencyTimer(String name) {
+        return name.startsWith("splitzy.") || name.equals("http.server.requests") || name.equals("hikaricp.connections.acquire");
+    }
+
+    private static double[] toNanos(Duration[] durations) {
+        double[] nanos = new double[durations.length];
+        for (int i = 0; i < durations.length; i++) {
+            nanos[i] = durations[i].toNanos();
+        }
+        return nanos;
+    }
+}
@@ -0,0 +1,114 @@
+package org.splitzy.common.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.splitzy.common.exception.BusinessException;
+import org.splitzy.common.exception.ResourceNotFoundException;
+import org.splitzy.common.exception.ValidationException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Times every public method of the Splitzy {@code @Service} beans.
+ * Tags are limited to the service class, method name, calling endpoint and outcome so the series count
+ * stays bounded: the endpoint is the mapping pattern ("GET /api/expenses/{expenseId}"), and exceptions
+ * are reported by the first matching class of a fixed list.
+ * Methods returning Mono or Flux are timed until the publisher terminates, not until it is assembled.
+ */
+@Aspect
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    public static final String METRIC_NAME = "splitzy.service.method";
+
+    // Most specific first
+    private static final List<Class<? extends Throwable>> EXCEPTION_TAGS = List.of(
+            ResourceNotFoundException.class,
+            ValidationException.class,
+            BusinessException.class,
+            ConstraintViolationException.class,
+            IllegalArgumentException.class,
+            IllegalStateException.class,
+            DataAccessException.class);
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("within(org.splitzy..*) && @within(org.springframework.stereotype.Service) && execution(public * *(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        // Read on the calling thread: the request context does not follow the publisher
+        String endpoint = currentEndpoint();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable ex) {
+            stop(sample, joinPoint, endpoint, "error", exceptionTag(ex));
+            throw ex;
+        }
+
+        if (result instanceof Mono<?> mono) {
+            AtomicReference<String> exception = new AtomicReference<>("none");
+            return mono.doOnError(ex -> exception.set(exceptionTag(ex)))
+                    .doFinally(signal -> stop(sample, joinPoint, endpoint, signal, exception.get()));
+        }
+        if (result instanceof Flux<?> flux) {
+            AtomicReference<String> exception = new AtomicReference<>("none");
+            return flux.doOnError(ex -> exception.set(exceptionTag(ex)))
+                    .doFinally(signal -> stop(sample, joinPoint, endpoint, signal, exception.get()));
+        }
+        stop(sample, joinPoint, endpoint, "success", "none");
+        return result;
+    }
+
+    private void stop(Timer.Sample sample, ProceedingJoinPoint joinPoint, String endpoint, SignalType signal, String exception) {
+        String outcome = switch (signal) {
+            case ON_ERROR -> "error";
+            case CANCEL -> "cancelled";
+            default -> "success";
+        };
+        stop(sample, joinPoint, endpoint, outcome, exception);
+    }
+
+    private void stop(Timer.Sample sample, ProceedingJoinPoint joinPoint, String endpoint, String outcome, String exception) {
+        sample.stop(Timer.builder(METRIC_NAME)
+                .tag("service", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                .tag("method", joinPoint.getSignature().getName())
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .tag("exception", exception)
+                .register(meterRegistry));
+    }
+
+    private static String exceptionTag(Throwable ex) {
+        for (Class<? extends Throwable> type : EXCEPTION_TAGS) {
+            if (type.isInstance(ex)) {
+                return type.getSimpleName();
+            }
+        }
+        return "Other";
+    }
+
+    // "none" outside a request (schedulers, Kafka listeners)
+    private static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return "none";
+        }
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return servletAttributes.getRequest().getMethod() + " " + (pattern != null ? pattern : "UNKNOWN");
+    }
+}
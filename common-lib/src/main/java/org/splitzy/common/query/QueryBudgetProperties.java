@@ -0,0 +1,33 @@
+package org.splitzy.common.query;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-request SQL statement budgets (prefix "splitzy.query-budget")
+ */
+@Data
+@ConfigurationProperties(prefix = "splitzy.query-budget")
+public class QueryBudgetProperties {
+
+    private boolean enabled = true;
+
+    // Statements a request may issue before a warning is logged
+    private int defaultBudget = 20;
+
+    // Overrides keyed by "METHOD /pattern", e.g. "GET /api/expenses/getAll"
+    private Map<String, Integer> endpoints = new LinkedHashMap<>();
+
+    // Record which application methods issued the statements (one stack walk per statement)
+    private boolean captureCallSites = true;
+
+    // Call sites listed in the warning
+    private int reportedCallSites = 5;
+
+    public int budgetFor(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaultBudget);
+    }
+}
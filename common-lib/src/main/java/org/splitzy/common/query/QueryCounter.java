@@ -0,0 +1,98 @@
+package org.splitzy.common.query;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Counts JDBC statements executed on the current thread within an open scope.
+ * Scopes nest: statements counted by an inner scope also count towards the enclosing ones.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private QueryCounter() {
+    }
+
+    /**
+     * Open a counting scope on the current thread; close it (try-with-resources) to stop counting
+     */
+    public static Scope start(boolean captureCallSites) {
+        Scope scope = new Scope(CURRENT.get(), captureCallSites);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    public static Optional<Scope> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * Record one executed statement (a batch counts once: it is one round trip)
+     */
+    static void record() {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return;
+        }
+        String callSite = scope.captureCallSites ? callSite() : null;
+        for (Scope s = scope; s != null; s = s.parent) {
+            s.count++;
+            if (callSite != null && s.captureCallSites) {
+                s.callSites.merge(callSite, 1, Integer::sum);
+            }
+        }
+    }
+
+    // First application frame below the repository proxies, e.g. "ExpenseService.getUserExpenses:152"
+    private static String callSite() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith("org.splitzy.")
+                        && !f.getClassName().startsWith("org.splitzy.common.query.")
+                        && !f.getClassName().contains("$$"))
+                .findFirst()
+                .map(f -> f.getClassName().substring(f.getClassName().lastIndexOf('.') + 1) + "." + f.getMethodName() + ":" + f.getLineNumber())
+                .orElse("unknown"));
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope parent;
+        private final boolean captureCallSites;
+        private final Map<String, Integer> callSites = new HashMap<>();
+        private int count;
+        private boolean closed;
+
+        private Scope(Scope parent, boolean captureCallSites) {
+            this.parent = parent;
+            this.captureCallSites = captureCallSites;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Call sites ordered by the number of statements they issued, most first
+         */
+        public List<Map.Entry<String, Integer>> getTopCallSites(int limit) {
+            return callSites.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                    .limit(limit)
+                    .map(e -> Map.entry(e.getKey(), e.getValue()))
+                    .toList();
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                CURRENT.set(parent);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.splitzy.common.r2dbc;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * R2DBC pool for the reactive read path, next to (not instead of) the JDBC DataSource.
+ * Services that enable it must exclude Spring Boot's R2DBC auto-configuration.
+ */
+@Configuration
+@ConditionalOnClass(name = "io.r2dbc.pool.ConnectionPool")
+@ConditionalOnProperty(prefix = "splitzy.reactive-read", name = "enabled", havingValue = "true")
+public class ReactiveReadConfig {
+
+    @Value("${splitzy.reactive-read.url}")
+    private String url;
+
+    @Value("${splitzy.reactive-read.username:${spring.datasource.username}}")
+    private String username;
+
+    @Value("${splitzy.reactive-read.password:${spring.datasource.password}}")
+    private String password;
+
+    @Value("${splitzy.reactive-read.pool.initial-size:4}")
+    private int initialSize;
+
+    @Value("${splitzy.reactive-read.pool.max-size:20}")
+    private int maxSize;
+
+    @Value("${splitzy.reactive-read.pool.max-idle-time:PT30M}")
+    private Duration maxIdleTime;
+
+    @Value("${splitzy.reactive-read.pool.max-acquire-time:PT5S}")
+    private Duration maxAcquireTime;
+
+    @Bean
+    public ReactiveReadDatabase reactiveReadDatabase() {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+
+        ConnectionPoolConfiguration configuration = ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("reactive-read")
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxIdleTime(maxIdleTime)
+                .maxAcquireTime(maxAcquireTime)
+                .validationQuery("SELECT 1")
+                .build();
+        return new ReactiveReadDatabase(new ConnectionPool(configuration));
+    }
+}
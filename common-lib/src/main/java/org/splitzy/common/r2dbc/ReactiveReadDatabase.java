@@ -0,0 +1,30 @@
+package org.splitzy.common.r2dbc;
+
+import io.r2dbc.pool.ConnectionPool;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Non-blocking connection pool used only by the reactive read endpoints.
+ * The pool is deliberately not exposed as a ConnectionFactory bean: Spring Boot would then
+ * back off from creating the JDBC DataSource that JPA and all writes depend on.
+ */
+public class ReactiveReadDatabase implements DisposableBean {
+
+    private final ConnectionPool pool;
+    private final DatabaseClient client;
+
+    public ReactiveReadDatabase(ConnectionPool pool) {
+        this.pool = pool;
+        this.client = DatabaseClient.create(pool);
+    }
+
+    public DatabaseClient getClient() {
+        return client;
+    }
+
+    @Override
+    public void destroy() {
+        pool.dispose();
+    }
+}
@@ -0,0 +1,64 @@
+package org.splitzy.common.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.splitzy.common.dto.ApiResponse;
+import org.splitzy.common.security.JwtVerificationFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects requests over the per-user, per-endpoint limit with 429 before the controller runs,
+ * so throttled requests never reach a transaction or the connection pool.
+ * Runs as a handler interceptor rather than a servlet filter so the endpoint is keyed by its
+ * mapping pattern ("/api/expenses/{expenseId}") instead of the raw path.
+ * Users are identified by their verified access token, never by a client-supplied user header, which
+ * could spread its traffic over any number of buckets. Requests without a verified token (all of
+ * auth-service, which registers no JwtVerificationFilter, or any service with splitzy.jwt.required off)
+ * are keyed by client address, so one caller cannot use up the limit of every other anonymous caller.
+ * Behind a load balancer this relies on server.forward-headers-strategy resolving the client address.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        // Async handlers are redispatched to complete; the request was charged on its first dispatch
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        // Raw paths would give every id its own bucket and metric series
+        String endpoint = request.getMethod() + " " + (pattern != null ? pattern : "UNKNOWN");
+
+        Long userId = JwtVerificationFilter.verifiedUserId(request);
+        String userKey = userId != null ? "user:" + userId : "ip:" + request.getRemoteAddr();
+
+        long waitNanos = rateLimiter.tryAcquire(userKey, endpoint);
+        if (waitNanos == 0) {
+            return true;
+        }
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+        log.debug("Rate limit exceeded for {} on {}, retry after {}s", userKey, endpoint, retryAfterSeconds);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error("Too many requests, retry after " + retryAfterSeconds + "s", "Rate limit exceeded"));
+        return false;
+    }
+}
@@ -0,0 +1,36 @@
+package org.splitzy.common.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-user, per-endpoint rate limit settings (prefix "splitzy.rate-limit")
+ */
+@Data
+@ConfigurationProperties(prefix = "splitzy.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Requests allowed per user and endpoint in each window
+    private int limit = 120;
+
+    private Duration window = Duration.ofMinutes(1);
+
+    // Requests a user may send back-to-back before the steady rate applies
+    private int burst = 20;
+
+    // How often local counts are pushed to Redis and other replicas' usage is pulled back
+    private Duration syncInterval = Duration.ofSeconds(1);
+
+    // Overrides keyed by "METHOD /pattern", e.g. "POST /api/expenses/create"
+    private Map<String, Integer> endpoints = new LinkedHashMap<>();
+
+    private List<String> excludePaths = new ArrayList<>(List.of("/actuator/**", "/swagger-ui/**", "/v3/api-docs/**", "/error"));
+}
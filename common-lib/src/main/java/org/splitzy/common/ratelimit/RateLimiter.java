@@ -0,0 +1,127 @@
+package org.splitzy.common.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user, per-endpoint rate limiter.
+ * Decisions are made locally against lock-free buckets so the request path never waits on Redis;
+ * a dedicated thread periodically pushes local counts to a shared fixed-window counter in Redis
+ * and charges each bucket for what other replicas accepted, so limits hold across replicas
+ * within one sync interval.
+ */
+@Slf4j
+public class RateLimiter {
+
+    private static final String KEY_PREFIX = "ratelimit:";
+
+    private final RateLimitProperties properties;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<BucketKey, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, Integer> limits = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService syncExecutor;
+    private final Counter syncFailures;
+
+    public RateLimiter(RateLimitProperties properties, StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.syncFailures = meterRegistry.counter("splitzy.ratelimit.sync.failures");
+        meterRegistry.gaugeMapSize("splitzy.ratelimit.buckets", List.of(), buckets);
+
+        this.syncExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "rate-limit-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = properties.getSyncInterval().toMillis();
+        syncExecutor.scheduleWithFixedDelay(this::sync, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return 0 if allowed, otherwise nanoseconds the caller should wait
+     */
+    public long tryAcquire(String userKey, String endpoint) {
+        long now = System.nanoTime();
+        int limit = limits.computeIfAbsent(endpoint, e -> properties.getEndpoints().getOrDefault(e, properties.getLimit()));
+        TokenBucket bucket = buckets.computeIfAbsent(new BucketKey(userKey, endpoint),
+                key -> new TokenBucket(properties.getWindow().toNanos() / limit, Math.min(properties.getBurst(), limit), now));
+
+        long waitNanos = bucket.tryAcquire(now);
+        meterRegistry.counter("splitzy.ratelimit.requests", "endpoint", endpoint, "outcome", waitNanos == 0 ? "allowed" : "throttled")
+                .increment();
+        return waitNanos;
+    }
+
+    void sync() {
+        try {
+            long windowMillis = properties.getWindow().toMillis();
+            long windowIndex = System.currentTimeMillis() / windowMillis;
+            long now = System.nanoTime();
+
+            List<BucketKey> keys = new ArrayList<>();
+            List<Long> sent = new ArrayList<>();
+            buckets.forEach((key, bucket) -> {
+                long count = bucket.drainUnsynced();
+                if (count > 0) {
+                    keys.add(key);
+                    sent.add(count);
+                } else if (bucket.isIdle(now)) {
+                    buckets.remove(key, bucket);
+                }
+            });
+            if (keys.isEmpty()) {
+                return;
+            }
+
+            long ttlSeconds = Math.max(1, 2 * windowMillis / 1000);
+            List<Object> totals = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (int i = 0; i < keys.size(); i++) {
+                    String redisKey = redisKey(keys.get(i), windowIndex);
+                    stringConnection.incrBy(redisKey, sent.get(i));
+                    stringConnection.expire(redisKey, ttlSeconds);
+                }
+                return null;
+            });
+
+            for (int i = 0; i < keys.size(); i++) {
+                TokenBucket bucket = buckets.get(keys.get(i));
+                Object total = totals.get(2 * i);
+                if (bucket != null && total instanceof Long globalCount) {
+                    bucket.applyGlobalCount(windowIndex, sent.get(i), globalCount, now);
+                }
+            }
+        } catch (Exception e) {
+            // Keep limiting locally; the counts of this round are dropped
+            syncFailures.increment();
+            log.warn("Rate limit sync with Redis failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        syncExecutor.shutdownNow();
+    }
+
+    private static String redisKey(BucketKey key, long windowIndex) {
+        return KEY_PREFIX + key.userKey() + ":" + key.endpoint() + ":" + windowIndex;
+    }
+
+    private record BucketKey(String userKey, String endpoint) {
+    }
+}
@@ -0,0 +1,76 @@
+package org.splitzy.common.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket using the generic cell rate algorithm (GCRA).
+ * State is a single theoretical arrival time (TAT) updated with CAS; a request is allowed while
+ * the TAT stays within the burst tolerance of now. Usage reported by other replicas is folded in
+ * by pushing the TAT forward.
+ */
+final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival;
+    private final AtomicLong unsynced = new AtomicLong();
+
+    // Sync bookkeeping, only touched by the single sync thread
+    private long windowIndex = -1;
+    private long localWindowCount;
+    private long remoteWindowCount;
+
+    TokenBucket(long emissionIntervalNanos, int burst, long now) {
+        this.emissionIntervalNanos = emissionIntervalNanos;
+        this.burstToleranceNanos = emissionIntervalNanos * Math.max(burst - 1, 0);
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * @return 0 if the request is allowed, otherwise nanoseconds until it would be
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long newTat = Math.max(tat, now) + emissionIntervalNanos;
+            long waitNanos = newTat - burstToleranceNanos - emissionIntervalNanos - now;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrival.compareAndSet(tat, newTat)) {
+                unsynced.incrementAndGet();
+                return 0;
+            }
+        }
+    }
+
+    long drainUnsynced() {
+        return unsynced.getAndSet(0);
+    }
+
+    /**
+     * Record the window total reported by Redis and charge this bucket for requests other replicas accepted
+     */
+    void applyGlobalCount(long currentWindowIndex, long sent, long globalCount, long now) {
+        if (currentWindowIndex != windowIndex) {
+            windowIndex = currentWindowIndex;
+            localWindowCount = 0;
+            remoteWindowCount = 0;
+        }
+        localWindowCount += sent;
+        long remote = globalCount - localWindowCount;
+        long newlyRemote = remote - remoteWindowCount;
+        if (newlyRemote > 0) {
+            remoteWindowCount = remote;
+            long charge = newlyRemote * emissionIntervalNanos;
+            theoreticalArrival.updateAndGet(tat -> Math.max(tat, now) + charge);
+        }
+    }
+
+    /**
+     * Idle buckets are full again and can be dropped
+     */
+    boolean isIdle(long now) {
+        return unsynced.get() == 0 && theoreticalArrival.get() < now;
+    }
+}
@@ -0,0 +1,116 @@
+package org.splitzy.common.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resolves the verification key of a token from auth-service's JWKS.
+ * Keys are fetched once and kept in memory; the JWKS is only fetched again when a token names a kid
+ * not seen yet (a rotated-in key), at most once per min-refresh-interval. Only ES256 keys are accepted,
+ * HMAC-signed tokens cannot be verified without the shared secret and are rejected.
+ */
+@Slf4j
+public class JwksKeyLocator extends LocatorAdapter<Key> {
+
+    private final JwtVerificationProperties properties;
+    private final RestClient restClient;
+    private final Counter fetched;
+    private final Counter fetchFailed;
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile long lastFetchAt;
+
+    public JwksKeyLocator(JwtVerificationProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout((int) properties.getConnectTimeout().toMillis());
+        requestFactory.setReadTimeout((int) properties.getReadTimeout().toMillis());
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+        this.fetched = Counter.builder("splitzy.jwt.jwks.fetches").tag("result", "success")
+                .description("JWKS fetches from auth-service").register(meterRegistry);
+        this.fetchFailed = Counter.builder("splitzy.jwt.jwks.fetches").tag("result", "failure")
+                .description("JWKS fetches from auth-service").register(meterRegistry);
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        if (!"ES256".equals(header.getAlgorithm())) {
+            throw new UnsupportedJwtException("Unsupported token algorithm: " + header.getAlgorithm());
+        }
+        String kid = header.getKeyId();
+        if (kid == null) {
+            throw new UnsupportedJwtException("Token has no key id");
+        }
+        PublicKey key = keys.get(kid);
+        if (key == null && refresh()) {
+            key = keys.get(kid);
+        }
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown signing key: " + kid);
+        }
+        return key;
+    }
+
+    /**
+     * Fetch the JWKS unless that was tried less than min-refresh-interval ago; true if the keys were replaced
+     */
+    public synchronized boolean refresh() {
+        long now = System.currentTimeMillis();
+        if (lastFetchAt != 0 && now - lastFetchAt < properties.getMinRefreshInterval().toMillis()) {
+            return false;
+        }
+        lastFetchAt = now;
+        try {
+            JsonNode jwks = restClient.get().uri(properties.getJwksUri()).retrieve().body(JsonNode.class);
+            Map<String, PublicKey> loaded = new HashMap<>();
+            if (jwks != null) {
+                for (JsonNode jwk : jwks.path("keys")) {
+                    if ("EC".equals(jwk.path("kty").asText()) && "P-256".equals(jwk.path("crv").asText()) && jwk.hasNonNull("kid")) {
+                        loaded.put(jwk.get("kid").asText(), toPublicKey(jwk));
+                    }
+                }
+            }
+            keys = Map.copyOf(loaded);
+            fetched.increment();
+            log.info("Loaded {} token verification keys from {}", loaded.size(), properties.getJwksUri());
+            return true;
+        } catch (Exception e) {
+            fetchFailed.increment();
+            log.warn("Failed to fetch JWKS from {}: {}", properties.getJwksUri(), e.getMessage());
+            return false;
+        }
+    }
+
+    private static PublicKey toPublicKey(JsonNode jwk) throws GeneralSecurityException {
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec("secp256r1"));
+        ECParameterSpec curve = parameters.getParameterSpec(ECParameterSpec.class);
+        ECPoint point = new ECPoint(coordinate(jwk, "x"), coordinate(jwk, "y"));
+        return KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(point, curve));
+    }
+
+    private static BigInteger coordinate(JsonNode jwk, String name) {
+        return new BigInteger(1, Base64.getUrlDecoder().decode(jwk.path(name).asText()));
+    }
+}
@@ -0,0 +1,46 @@
+package org.splitzy.common.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers the local access-token verification filter for all endpoints
+ */
+@Configuration
+@EnableConfigurationProperties(JwtVerificationProperties.class)
+@ConditionalOnProperty(prefix = "splitzy.jwt", name = "enabled", havingValue = "true")
+@ImportRuntimeHints(JjwtRuntimeHints.class)
+public class JwtVerificationConfig {
+
+    @Bean
+    public JwksKeyLocator jwksKeyLocator(JwtVerificationProperties properties, MeterRegistry meterRegistry) {
+        return new JwksKeyLocator(properties, meterRegistry);
+    }
+
+    // After the observation filter so rejections are traced, before Spring Security and the rate limiter
+    @Bean
+    public FilterRegistrationBean<JwtVerificationFilter> jwtVerificationFilter(JwtVerificationProperties properties,
+                                                                              JwksKeyLocator jwksKeyLocator,
+                                                                              ObjectMapper objectMapper,
+                                                                              MeterRegistry meterRegistry) {
+        FilterRegistrationBean<JwtVerificationFilter> registration = new FilterRegistrationBean<>(
+                new JwtVerificationFilter(properties, jwksKeyLocator, objectMapper, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    /** Fetch the keys up front; if auth-service is not up yet the first token triggers the fetch instead */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prefetchKeys(ApplicationReadyEvent event) {
+        event.getApplicationContext().getBean(JwksKeyLocator.class).refresh();
+    }
+}
@@ -0,0 +1,171 @@
+package org.splitzy.common.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.splitzy.common.dto.ApiResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Verifies the bearer access token of each request against auth-service's public keys, in process.
+ * A valid token's user id replaces the user header the controllers read, and a request without a token
+ * has the header removed, so a client can no longer act as another user by sending it itself. Revocation is not checked here: access tokens
+ * are short-lived and revoked sessions cannot refresh.
+ */
+@Slf4j
+public class JwtVerificationFilter extends OncePerRequestFilter {
+
+    /** Request attribute holding the verified token's claims */
+    public static final String CLAIMS_ATTRIBUTE = JwtVerificationFilter.class.getName() + ".claims";
+
+    // Claim names and values as issued by auth-service
+    private static final String USER_ID_CLAIM = "USER_ID";
+    private static final String TOKEN_TYPE_CLAIM = "token_type";
+    private static final String ACCESS_TOKEN_TYPE = "ACCESS";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtVerificationProperties properties;
+    private final ObjectMapper objectMapper;
+    private final JwtParser jwtParser;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Counter valid;
+    private final Counter invalid;
+    private final Counter missing;
+
+    public JwtVerificationFilter(JwtVerificationProperties properties, JwksKeyLocator keyLocator,
+                                 ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.jwtParser = Jwts.parser()
+                .keyLocator(keyLocator)
+                .clockSkewSeconds(properties.getAllowedClockSkew().toSeconds())
+                .build();
+        this.valid = verifications(meterRegistry, "valid");
+        this.invalid = verifications(meterRegistry, "invalid");
+        this.missing = verifications(meterRegistry, "missing");
+    }
+
+    /**
+     * User id of the request's verified access token, or null if it carried none
+     */
+    public static Long verifiedUserId(HttpServletRequest request) {
+        return request.getAttribute(CLAIMS_ATTRIBUTE) instanceof Claims claims
+                && claims.get(USER_ID_CLAIM) instanceof Number userId ? userId.longValue() : null;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return properties.getExcludePaths().stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            missing.increment();
+            if (properties.isRequired()) {
+                reject(response, "Missing bearer token");
+                return;
+            }
+            filterChain.doFilter(properties.isTrustUserHeader()
+                    ? request
+                    : new UserHeaderRequest(request, properties.getUserHeader(), null), response);
+            return;
+        }
+
+        Claims claims;
+        try {
+            claims = jwtParser.parseSignedClaims(authorization.substring(BEARER_PREFIX.length()).trim()).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected token: {}", e.getMessage());
+            invalid.increment();
+            reject(response, "Invalid or expired token");
+            return;
+        }
+        Object userId = claims.get(USER_ID_CLAIM);
+        if (!ACCESS_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE_CLAIM, String.class)) || !(userId instanceof Number)) {
+            invalid.increment();
+            reject(response, "Not an access token");
+            return;
+        }
+
+        valid.increment();
+        request.setAttribute(CLAIMS_ATTRIBUTE, claims);
+        filterChain.doFilter(new UserHeaderRequest(request, properties.getUserHeader(),
+                String.valueOf(((Number) userId).longValue())), response);
+    }
+
+    private void reject(HttpServletResponse response, String error) throws IOException {
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(error, "Unauthorized"));
+    }
+
+    private static Counter verifications(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("splitzy.jwt.verifications")
+                .description("Bearer tokens verified locally, by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Request whose user header is the verified user id, or absent without one, whatever the client sent
+     */
+    private static final class UserHeaderRequest extends HttpServletRequestWrapper {
+
+        private final String header;
+        private final String userId;
+
+        private UserHeaderRequest(HttpServletRequest request, String header, String userId) {
+            super(request);
+            this.header = header;
+            this.userId = userId;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return header.equalsIgnoreCase(name) ? userId : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (!header.equalsIgnoreCase(name)) {
+                return super.getHeaders(name);
+            }
+            return userId != null ? Collections.enumeration(Set.of(userId)) : Collections.emptyEnumeration();
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            Set<String> names = new LinkedHashSet<>(Collections.list(super.getHeaderNames()));
+            names.removeIf(header::equalsIgnoreCase);
+            if (userId != null) {
+                names.add(header);
+            }
+            return Collections.enumeration(names);
+        }
+    }
+}
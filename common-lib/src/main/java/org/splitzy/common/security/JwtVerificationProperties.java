@@ -0,0 +1,40 @@
+package org.splitzy.common.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local verification of auth-service access tokens (prefix "splitzy.jwt")
+ */
+@Data
+@ConfigurationProperties(prefix = "splitzy.jwt")
+public class JwtVerificationProperties {
+
+    private boolean enabled = false;
+
+    private String jwksUri = "http://localhost:8081/.well-known/jwks.json";
+
+    // Reject requests without a bearer token; while false they pass through without a user header
+    private boolean required = true;
+
+    // Let requests without a token keep the client's user header. Only for load tests on an isolated stack
+    private boolean trustUserHeader = false;
+
+    // Header set from the token's user id, replacing any value sent by the client
+    private String userHeader = "X-User-Id";
+
+    // A token with an unknown kid refetches the JWKS at most this often
+    private Duration minRefreshInterval = Duration.ofSeconds(30);
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(2);
+
+    private Duration allowedClockSkew = Duration.ofSeconds(30);
+
+    private List<String> excludePaths = new ArrayList<>(List.of("/actuator/**", "/swagger-ui/**", "/v3/api-docs/**", "/error"));
+}
@@ -0,0 +1,65 @@
+package org.splitzy.common.tracing;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the most recent finished spans in a bounded buffer so traces can be inspected
+ * locally (and from tests) without running a collector
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+    private final int capacity;
+    private final Deque<SpanRecord> spans;
+
+    public InMemorySpanExporter(int capacity) {
+        this.capacity = capacity;
+        this.spans = new ArrayDeque<>(capacity);
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> batch) {
+        for (SpanData span : batch) {
+            if (spans.size() == capacity) {
+                spans.removeFirst();
+            }
+            spans.addLast(SpanRecord.from(span));
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * Copy the buffered spans, optionally only those of one trace
+     */
+    public synchronized List<SpanRecord> getSpans(String traceId) {
+        List<SpanRecord> result = new ArrayList<>();
+        for (SpanRecord span : spans) {
+            if (traceId == null || traceId.equals(span.traceId())) {
+                result.add(span);
+            }
+        }
+        return result;
+    }
+
+    public synchronized void reset() {
+        spans.clear();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        spans.clear();
+        return CompletableResultCode.ofSuccess();
+    }
+}
@@ -0,0 +1,29 @@
+package org.splitzy.common.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint (/actuator/spans) over the in-memory exporter
+ */
+@Endpoint(id = "spans")
+@RequiredArgsConstructor
+public class SpansEndpoint {
+
+    private final InMemorySpanExporter exporter;
+
+    @ReadOperation
+    public List<SpanRecord> spans(@Nullable String traceId) {
+        return exporter.getSpans(traceId);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        exporter.reset();
+    }
+}
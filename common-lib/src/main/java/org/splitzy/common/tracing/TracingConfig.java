@@ -0,0 +1,36 @@
+package org.splitzy.common.tracing;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Local span exporters. Spring Boot's OpenTelemetry auto-configuration picks up every
+ * SpanExporter bean, so a collector exporter (OTLP) can be added next to these by configuration.
+ */
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "splitzy.tracing", name = "exporter", havingValue = "memory")
+    public InMemorySpanExporter inMemorySpanExporter(TracingProperties properties) {
+        return new InMemorySpanExporter(properties.getMemoryCapacity());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "splitzy.tracing", name = "exporter", havingValue = "memory")
+    public SpansEndpoint spansEndpoint(InMemorySpanExporter inMemorySpanExporter) {
+        return new SpansEndpoint(inMemorySpanExporter);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "splitzy.tracing", name = "exporter", havingValue = "file")
+    public FileSpanExporter fileSpanExporter(TracingProperties properties) throws IOException {
+        return new FileSpanExporter(Path.of(properties.getFile()));
+    }
+}
@@ -0,0 +1,23 @@
+package org.splitzy.common.tracing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Local span export settings (prefix "splitzy.tracing").
+ * Sampling and propagation are configured through the standard management.tracing properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "splitzy.tracing")
+public class TracingProperties {
+
+    public enum Exporter { NONE, MEMORY, FILE }
+
+    private Exporter exporter = Exporter.NONE;
+
+    // Most recent spans kept by the in-memory exporter
+    private int memoryCapacity = 2000;
+
+    // JSON lines file written by the file exporter
+    private String file = "logs/spans.jsonl";
+}
@@ -0,0 +1,147 @@
+package org.splitzy.common.version;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.ETag;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-resource version counters kept in Redis, used to build strong ETags without reading
+ * or serializing the resource. Writers bump the counter after their transaction commits;
+ * readers compare the current counter with If-None-Match before loading anything else.
+ * A counter that does not exist (never written, evicted or lost) starts at a random value rather than 0,
+ * so ETags issued before it went missing cannot match again.
+ * When Redis is unavailable no ETag is produced and requests are served normally.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ResourceVersionService {
+
+    private static final String VERSION_PREFIX = "version:";
+    // Seeded counters expire so lookups of ids that never get written do not pile up; a reseed only costs a miss
+    private static final Duration SEED_TTL = Duration.ofDays(7);
+
+    // KEYS: version keys; ARGV: one seed per key, then the seed ttl in ms
+    private static final RedisScript<Long> BUMP = new DefaultRedisScript<>("""
+            for i, key in ipairs(KEYS) do
+                if redis.call('EXISTS', key) == 1 then
+                    redis.call('INCR', key)
+                else
+                    redis.call('SET', key, ARGV[i], 'PX', ARGV[#KEYS + 1])
+                end
+            end
+            return #KEYS
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * Current version of a resource, seeded with a random one if it has none, or null if the store is unavailable
+     */
+    public Long currentVersion(String resource, Object id) {
+        String key = key(resource, id);
+        try {
+            String value = redisTemplate.opsForValue().get(key);
+            if (value == null) {
+                String seed = newSeed();
+                value = Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, seed, SEED_TTL))
+                        ? seed : redisTemplate.opsForValue().get(key);
+            }
+            return value != null ? Long.parseLong(value) : null;
+        } catch (Exception e) {
+            log.warn("Failed to read version of {} {}: {}", resource, id, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Strong ETag for a resource; qualifiers distinguish variants of the same version (e.g. currency)
+     * @return quoted ETag, or null if the version is unavailable
+     */
+    public String etag(String resource, Object id, Object... qualifiers) {
+        Long version = currentVersion(resource, id);
+        if (version == null) {
+            return null;
+        }
+        StringBuilder etag = new StringBuilder("\"").append(resource).append('-').append(id).append("-v").append(version);
+        for (Object qualifier : qualifiers) {
+            etag.append('-').append(qualifier);
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * Whether an If-None-Match value matches the ETag (weak comparison, as for GET), for conditional
+     * reads that are completed off the request thread
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        // Weak comparison ignores the W/ prefix, so only the unquoted tags are compared
+        String tag = etag.startsWith("W/") ? etag.substring(2) : etag;
+        String unquoted = tag.length() > 1 && tag.startsWith("\"") && tag.endsWith("\"") ? tag.substring(1, tag.length() - 1) : tag;
+        return ETag.parse(ifNoneMatch).stream()
+                .anyMatch(candidate -> candidate.isWildcard() || candidate.tag().equals(unquoted));
+    }
+
+    /**
+     * Bump a resource version once the current transaction commits (immediately if there is none)
+     */
+    public void bumpAfterCommit(String resource, Object id) {
+        bumpAfterCommit(resource, List.of(id));
+    }
+
+    /**
+     * Bump several versions of the same resource type in one round trip after commit
+     */
+    public void bumpAfterCommit(String resource, Collection<?> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<String> keys = ids.stream().map(id -> key(resource, id)).toList();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(keys);
+                }
+            });
+        } else {
+            bump(keys);
+        }
+    }
+
+    private void bump(List<String> keys) {
+        List<String> args = new ArrayList<>(keys.size() + 1);
+        keys.forEach(key -> args.add(newSeed()));
+        args.add(String.valueOf(SEED_TTL.toMillis()));
+        try {
+            redisTemplate.execute(BUMP, keys, args.toArray());
+        } catch (Exception e) {
+            // A missed bump can serve a stale 304, so make it visible
+            log.error("Failed to bump versions {}: {}", keys, e.getMessage(), e);
+        }
+    }
+
+    // Leaves room to increment without overflowing
+    private static String newSeed() {
+        return String.valueOf(ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE >> 1));
+    }
+
+    private static String key(String resource, Object id) {
+        return VERSION_PREFIX + resource + ":" + id;
+    }
+}
@@ -0,0 +1,84 @@
+package org.splitzy.common.query;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryBudgetInterceptorTest {
+
+    private static final String ENDPOINT = "GET /api/reactive/balances/user";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private QueryBudgetInterceptor interceptor;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        QueryBudgetProperties properties = new QueryBudgetProperties();
+        properties.setDefaultBudget(2);
+        interceptor = new QueryBudgetInterceptor(properties, meterRegistry);
+
+        request = new MockHttpServletRequest("GET", "/api/reactive/balances/user");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/reactive/balances/user");
+    }
+
+    @AfterEach
+    void tearDown() {
+        QueryCounter.current().ifPresent(QueryCounter.Scope::close);
+    }
+
+    @Test
+    void recordsStatementsOfASynchronousRequest() {
+        interceptor.preHandle(request, response, null);
+        QueryCounter.record();
+        QueryCounter.record();
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertThat(QueryCounter.current()).isEmpty();
+        assertThat(statementsSummary().count()).isEqualTo(1);
+        assertThat(statementsSummary().totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.find("splitzy.jdbc.budget.exceeded").counter()).isNull();
+    }
+
+    @Test
+    void countsRequestsOverBudget() {
+        interceptor.preHandle(request, response, null);
+        QueryCounter.record();
+        QueryCounter.record();
+        QueryCounter.record();
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertThat(meterRegistry.get("splitzy.jdbc.budget.exceeded").tag("endpoint", ENDPOINT).counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void releasesTheScopeWhenTheHandlerGoesAsync() {
+        interceptor.preHandle(request, response, null);
+        QueryCounter.record();
+        interceptor.afterConcurrentHandlingStarted(request, response, null);
+
+        assertThat(QueryCounter.current()).isEmpty();
+
+        request.setDispatcherType(DispatcherType.ASYNC);
+        interceptor.preHandle(request, response, null);
+        assertThat(QueryCounter.current()).isEmpty();
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertThat(statementsSummary().count()).isEqualTo(1);
+        assertThat(statementsSummary().totalAmount()).isEqualTo(1);
+    }
+
+    private DistributionSummary statementsSummary() {
+        return meterRegistry.get("splitzy.jdbc.statements.per.request").tag("endpoint", ENDPOINT).summary();
+    }
+}
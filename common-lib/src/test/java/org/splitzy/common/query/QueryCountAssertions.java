@@ -0,0 +1,55 @@
+package org.splitzy.common.query;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Budget assertions for tests that run against a real DataSource:
+ * <pre>
+ *   QueryCountAssertions.assertAtMost(3, () -> expenseService.getUserExpenses(userId, criteria));
+ * </pre>
+ * Requires the QueryCountingListener to be registered: it is whenever splitzy.query-budget is enabled,
+ * and sliced tests such as @DataJpaTest import {@link QueryCountingDataSourceConfig}.
+ */
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    /**
+     * Run the action and return how many statements it executed on this thread
+     */
+    public static <T> int count(Callable<T> action) throws Exception {
+        try (QueryCounter.Scope scope = QueryCounter.start(false)) {
+            action.call();
+            return scope.getCount();
+        }
+    }
+
+    /**
+     * Fail with the offending call sites if the action executes more than the given number of statements
+     */
+    public static <T> T assertAtMost(int budget, Callable<T> action) throws Exception {
+        try (QueryCounter.Scope scope = QueryCounter.start(true)) {
+            T result = action.call();
+            if (scope.getCount() > budget) {
+                throw new AssertionError("Expected at most " + budget + " statements but " + scope.getCount()
+                        + " were executed, top call sites: " + scope.getTopCallSites(10));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Fail unless the action executes exactly the given number of statements
+     */
+    public static <T> T assertExactly(int expected, Callable<T> action) throws Exception {
+        try (QueryCounter.Scope scope = QueryCounter.start(true)) {
+            T result = action.call();
+            if (scope.getCount() != expected) {
+                throw new AssertionError("Expected " + expected + " statements but " + scope.getCount()
+                        + " were executed, top call sites: " + scope.getTopCallSites(10));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.splitzy.common.test;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.MySQLContainer;
+
+/**
+ * MySQL for repository tests; the container is shared by every test class that imports this
+ * configuration through Spring's context cache. Pair with
+ * {@code @AutoConfigureTestDatabase(replace = NONE)} and {@code @Testcontainers(disabledWithoutDocker = true)}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class MySqlContainerConfig {
+
+    @Bean
+    @ServiceConnection
+    MySQLContainer<?> mySqlContainer() {
+        return new MySQLContainer<>("mysql:8.0");
+    }
+}
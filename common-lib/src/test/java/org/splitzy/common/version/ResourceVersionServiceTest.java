@@ -0,0 +1,33 @@
+package org.splitzy.common.version;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResourceVersionServiceTest {
+
+    private static final String ETAG = "\"balances-7-v42-USD\"";
+
+    @Test
+    void matchesTheSameTag() {
+        assertThat(ResourceVersionService.matches(ETAG, ETAG)).isTrue();
+    }
+
+    @Test
+    void matchesAWeakTagAndAnyEntryOfAList() {
+        assertThat(ResourceVersionService.matches("W/" + ETAG, ETAG)).isTrue();
+        assertThat(ResourceVersionService.matches("\"balances-7-v41-USD\", " + ETAG, ETAG)).isTrue();
+    }
+
+    @Test
+    void matchesTheWildcard() {
+        assertThat(ResourceVersionService.matches("*", ETAG)).isTrue();
+    }
+
+    @Test
+    void doesNotMatchAnotherVersionOrMissingValues() {
+        assertThat(ResourceVersionService.matches("\"balances-7-v41-USD\"", ETAG)).isFalse();
+        assertThat(ResourceVersionService.matches(null, ETAG)).isFalse();
+        assertThat(ResourceVersionService.matches(ETAG, null)).isFalse();
+    }
+}
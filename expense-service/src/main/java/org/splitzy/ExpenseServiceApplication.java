@@ -1,16 +1,26 @@
 package org.splitzy;
 
+import org.splitzy.expense.aot.ExpenseRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main application class for Expense Service
  * Handles expense creation, splitting, and balance calculations
  */
-@SpringBootApplication
+// The reactive read pool is created by ReactiveReadConfig; Boot's R2DBC setup would replace the JDBC DataSource
+@SpringBootApplication(excludeName = {
+        "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration",
+        "org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration",
+        "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration",
+        "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration"})
 @EnableKafka
+@EnableScheduling
+@ImportRuntimeHints(ExpenseRuntimeHints.class)
 @ComponentScan(basePackages = {
         "org.splitzy.expense",
         "org.splitzy.common"})
@@ -0,0 +1,37 @@
+package org.splitzy.expense.aot;
+
+import org.splitzy.expense.dto.ExpenseDetail;
+import org.splitzy.expense.dto.ExpenseEvent;
+import org.splitzy.expense.dto.ExpenseSummary;
+import org.splitzy.expense.dto.GroupDebt;
+import org.splitzy.expense.dto.SplitAllocation;
+import org.splitzy.expense.dto.SplitView;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Reflection and resource hints for the native image that Spring AOT cannot infer.
+ * JPQL constructor expressions are resolved by Hibernate at runtime, Kafka events are
+ * serialized by JsonSerializer, and the JCache regions are read from application.conf.
+ */
+public class ExpenseRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Projections built with "select new ..." in the repositories
+        for (Class<?> projection : new Class<?>[] {
+                ExpenseSummary.class, ExpenseDetail.class, SplitView.class, SplitAllocation.class, GroupDebt.class}) {
+            hints.reflection().registerType(projection,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS);
+        }
+
+        hints.reflection().registerType(ExpenseEvent.class,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.DECLARED_FIELDS);
+
+        hints.reflection().registerType(TypeReference.of("com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider"),
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.resources().registerPattern("application.conf");
+    }
+}
@@ -1,12 +1,21 @@
 package org.splitzy.expense.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.splitzy.expense.service.GroupBalanceEvictions;
+import org.splitzy.expense.service.GroupBalances;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -25,4 +34,46 @@ public class CacheConfig {
                 .recordStats());
         return cacheManager;
     }
+
+    /**
+     * Balance matrices for hot groups, keyed by currency.
+     * Entries live for a fixed time after being built; incremental updates do not extend it,
+     * so any drift is bounded by a periodic rebuild from the database.
+     */
+    @Bean
+    public Cache<Long, GroupBalances> groupBalanceCache(
+            @Value("${expense.group-balance.cache.maximum-size:500}") long maximumSize,
+            @Value("${expense.group-balance.cache.time-to-live:30m}") Duration timeToLive) {
+        long ttlNanos = timeToLive.toNanos();
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Long, GroupBalances>() {
+                    @Override
+                    public long expireAfterCreate(Long key, GroupBalances value, long currentTime) {
+                        return ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long key, GroupBalances value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long key, GroupBalances value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    // Group balance writes on other instances drop the matrices cached here
+    @Bean
+    public RedisMessageListenerContainer groupBalanceListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       GroupBalanceEvictions groupBalanceEvictions) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(groupBalanceEvictions, new ChannelTopic(groupBalanceEvictions.getChannel()));
+        return container;
+    }
 }
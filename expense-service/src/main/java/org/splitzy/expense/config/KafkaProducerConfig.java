@@ -1,15 +1,18 @@
 package org.splitzy.expense.config;
 
 import com.fasterxml.jackson.databind.JsonSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.splitzy.expense.dto.ExpenseEvent;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
 
 import java.util.HashMap;
@@ -22,6 +25,15 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${spring.kafka.producer.properties.linger.ms:20}")
+    private int lingerMs;
+
+    @Value("${spring.kafka.producer.batch-size:65536}")
+    private int batchSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Bean
     public ProducerFactory<String, ExpenseEvent> producerFactory(){
         Map<String, Object> configProps = new HashMap<>();
@@ -32,13 +44,19 @@ public class KafkaProducerConfig {
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
         configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 1); // Maintain order
         configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "snappy");
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs); // Let bursts of events share a batch
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
         configProps.put("spring.json.add.type.headers", false);
 
-        return new DefaultKafkaProducerFactory<>(configProps);
+        DefaultKafkaProducerFactory<String, ExpenseEvent> factory = new DefaultKafkaProducerFactory<>(configProps);
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry)); // kafka.producer.* metrics
+        return factory;
     }
 
     @Bean
     public KafkaTemplate<String, ExpenseEvent> kafkaTemplate(){
-        return new KafkaTemplate<>(producerFactory());
+        KafkaTemplate<String, ExpenseEvent> template = new KafkaTemplate<>(producerFactory());
+        template.setObservationEnabled(true); // send spans and traceparent headers on every event
+        return template;
     }
 }
@@ -1,14 +1,22 @@
 package org.splitzy.expense.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.splitzy.common.dto.ApiResponse;
+import org.splitzy.expense.dto.request.SettleAmountRequest;
 import org.splitzy.expense.dto.response.BalanceResponse;
+import org.splitzy.expense.dto.response.GroupBalanceResponse;
+import org.splitzy.expense.dto.response.SettlementResponse;
 import org.splitzy.expense.service.BalanceService;
+import org.splitzy.expense.service.GroupBalanceService;
+import org.splitzy.expense.service.SettlementService;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @Slf4j
 @RestController
@@ -17,19 +25,30 @@ import org.springframework.web.bind.annotation.*;
 public class BalanceController {
 
     private final BalanceService balanceService;
+    private final SettlementService settlementService;
+    private final GroupBalanceService groupBalanceService;
 
     /**
      * Get all balances for user
      */
     @GetMapping
-    @Operation(summary = "Get all balances", description = "Get all balances and settlement status for user")
-    public ResponseEntity<ApiResponse<BalanceResponse>> getUserBalances(@RequestHeader("X-User-Id") Long userId) {
+    @Operation(summary = "Get all balances", description = "Get all balances and settlement status for user; supports If-None-Match")
+    public ResponseEntity<ApiResponse<BalanceResponse>> getUserBalances(
+            @RequestHeader("X-User-Id") Long userId,
+            @RequestParam(required = false) String currency,
+            WebRequest webRequest) {
         log.info("Get balances request for user: {}", userId);
 
-        BalanceResponse response = balanceService.getUserBalances(userId);
+        // Version is read before the data, so a concurrent write can only make the ETag older than the body
+        String etag = balanceService.getUserBalancesEtag(userId, currency);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        BalanceResponse response = balanceService.getUserBalances(userId, currency);
         ApiResponse<BalanceResponse> apiResponse = ApiResponse.success(response);
 
-        return ResponseEntity.ok(apiResponse);
+        return etag != null ? ResponseEntity.ok().eTag(etag).body(apiResponse) : ResponseEntity.ok(apiResponse);
     }
 
     /**
@@ -39,10 +58,11 @@ public class BalanceController {
     @Operation(summary = "Get balance between users", description = "Get balance and settlement status between two users")
     public ResponseEntity<ApiResponse<BalanceResponse>> getBalanceBetweenUsers(
             @RequestHeader("X-User-Id") Long userId,
-            @PathVariable Long otherUserId) {
+            @PathVariable Long otherUserId,
+            @RequestParam(required = false) String currency) {
         log.info("Get balance between users: {} and {}", userId, otherUserId);
 
-        BalanceResponse response = balanceService.getBalanceBetweenUsers(userId, otherUserId);
+        BalanceResponse response = balanceService.getBalanceBetweenUsers(userId, otherUserId, currency);
         ApiResponse<BalanceResponse> apiResponse = ApiResponse.success(response);
 
         return ResponseEntity.ok(apiResponse);
@@ -56,15 +76,49 @@ public class BalanceController {
     public ResponseEntity<ApiResponse<Page<BalanceResponse.IndividualBalance>>> getPaginatedBalances(
             @RequestHeader("X-User-Id") Long userId,
             @RequestParam(defaultValue = "0") Integer page,
-            @RequestParam(defaultValue = "10") Integer size) {
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String currency) {
         log.info("Get paginated balances for user: {}", userId);
 
-        Page<BalanceResponse.IndividualBalance> response = balanceService.getUserBalancesPaginated(userId, page, size);
+        Page<BalanceResponse.IndividualBalance> response = balanceService.getUserBalancesPaginated(userId, page, size, currency);
         ApiResponse<Page<BalanceResponse.IndividualBalance>> apiResponse = ApiResponse.success(response);
 
         return ResponseEntity.ok(apiResponse);
     }
 
+    /**
+     * Get balances within a group
+     */
+    @GetMapping("/groups/{groupId}")
+    @Operation(summary = "Get group balances", description = "Get net positions and pairwise balances for all members of a group")
+    public ResponseEntity<ApiResponse<GroupBalanceResponse>> getGroupBalances(
+            @RequestHeader("X-User-Id") Long userId,
+            @PathVariable Long groupId,
+            @RequestParam(required = false) String currency) {
+        log.info("Get group balances for group: {} by user: {}", groupId, userId);
+
+        GroupBalanceResponse response = groupBalanceService.getGroupBalances(groupId, userId, currency);
+        ApiResponse<GroupBalanceResponse> apiResponse = ApiResponse.success(response);
+
+        return ResponseEntity.ok(apiResponse);
+    }
+
+    /**
+     * Settle an amount paid to another user
+     */
+    @PostMapping("/settle")
+    @Operation(summary = "Settle amount", description = "Settle an amount paid to another user across the oldest unsettled splits")
+    public ResponseEntity<ApiResponse<SettlementResponse>> settleAmount(
+            @RequestHeader("X-User-Id") Long userId,
+            @Valid @RequestBody SettleAmountRequest request) {
+        log.info("Settle amount request from user: {} to user: {}", userId, request.getPayeeUserId());
+
+        SettlementResponse response = settlementService.settleAmount(userId, request.getPayeeUserId(), request.getAmount(), request.getCurrency());
+        ApiResponse<SettlementResponse> apiResponse = ApiResponse.success(response, "Amount settled successfully");
+
+        return ResponseEntity.ok(apiResponse);
+    }
+
     /**
      * Health check
      */
@@ -16,6 +16,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @Slf4j
 @RestController
@@ -37,17 +38,24 @@ public class ExpenseController {
         return ResponseEntity.status(HttpStatus.CREATED).body(apiResponse);
     }
 
-    /** Get expense by ID */
+    /** Get expense by ID; answers 304 when If-None-Match still matches the expense version */
     @GetMapping("/{expenseId}")
     public ResponseEntity<ApiResponse<ExpenseResponse>> getExpense(
             @PathVariable Long expenseId,
-            @RequestHeader("X-User-Id") Long userId) {
+            @RequestHeader("X-User-Id") Long userId,
+            WebRequest webRequest) {
         log.info("Get expense request for ID: {}", expenseId);
 
+        // Version is read before the data, so a concurrent write can only make the ETag older than the body
+        String etag = expenseService.getExpenseEtag(expenseId);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
         ExpenseResponse response = expenseService.getExpenseById(expenseId);
         ApiResponse<ExpenseResponse> apiResponse = ApiResponse.success(response);
 
-        return ResponseEntity.ok(apiResponse);
+        return etag != null ? ResponseEntity.ok().eTag(etag).body(apiResponse) : ResponseEntity.ok(apiResponse);
     }
 
     /** Update expense */
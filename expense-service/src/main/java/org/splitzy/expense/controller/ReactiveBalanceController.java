@@ -0,0 +1,91 @@
+package org.splitzy.expense.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.splitzy.common.dto.ApiResponse;
+import org.splitzy.common.version.ResourceVersionService;
+import org.splitzy.expense.dto.response.BalanceResponse;
+import org.splitzy.expense.service.BalanceService;
+import org.splitzy.expense.service.ReactiveBalanceService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+
+/**
+ * Non-blocking variants of the balance reads. Spring MVC completes these asynchronously,
+ * so the servlet thread is released while R2DBC waits on MySQL.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/reactive/balances")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "splitzy.reactive-read", name = "enabled", havingValue = "true")
+public class ReactiveBalanceController {
+
+    private final ReactiveBalanceService reactiveBalanceService;
+    private final BalanceService balanceService;
+
+    /**
+     * Get all balances for user
+     */
+    @GetMapping
+    @Operation(summary = "Get all balances (reactive)", description = "Same response as GET /api/balances, read over R2DBC; supports If-None-Match")
+    public Mono<ResponseEntity<ApiResponse<BalanceResponse>>> getUserBalances(
+            @RequestHeader("X-User-Id") Long userId,
+            @RequestParam(required = false) String currency,
+            WebRequest webRequest) {
+        log.info("Reactive get balances request for user: {}", userId);
+
+        String ifNoneMatch = webRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
+        // The version lookup is a blocking Redis call, so it runs off the request thread as well
+        return Mono.fromCallable(() -> Optional.ofNullable(balanceService.getUserBalancesEtag(userId, currency)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(etag -> {
+                    if (etag.isPresent() && ResourceVersionService.matches(ifNoneMatch, etag.get())) {
+                        return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build());
+                    }
+                    return reactiveBalanceService.getUserBalances(userId, currency)
+                            .map(response -> etag.isPresent()
+                                    ? ResponseEntity.ok().eTag(etag.get()).body(ApiResponse.success(response))
+                                    : ResponseEntity.ok(ApiResponse.success(response)));
+                });
+    }
+
+    /**
+     * Stream balances for user as newline-delimited JSON
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream balances", description = "Emit each balance as it is read; the client's read rate drives the query")
+    public Flux<BalanceResponse.IndividualBalance> streamUserBalances(
+            @RequestHeader("X-User-Id") Long userId,
+            @RequestParam(required = false) String currency) {
+        log.info("Stream balances request for user: {}", userId);
+
+        return reactiveBalanceService.streamUserBalances(userId, currency);
+    }
+
+    /**
+     * Get balance between two users
+     */
+    @GetMapping("/between/{otherUserId}")
+    @Operation(summary = "Get balance between users (reactive)", description = "Same response as GET /api/balances/between/{otherUserId}, read over R2DBC")
+    public Mono<ResponseEntity<ApiResponse<BalanceResponse>>> getBalanceBetweenUsers(
+            @RequestHeader("X-User-Id") Long userId,
+            @PathVariable Long otherUserId,
+            @RequestParam(required = false) String currency) {
+        log.info("Reactive get balance between users: {} and {}", userId, otherUserId);
+
+        return reactiveBalanceService.getBalanceBetweenUsers(userId, otherUserId, currency)
+                .map(response -> ResponseEntity.ok(ApiResponse.success(response)));
+    }
+}
@@ -0,0 +1,60 @@
+package org.splitzy.expense.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.splitzy.common.dto.ApiResponse;
+import org.splitzy.expense.dto.request.CreateRecurringExpenseRequest;
+import org.splitzy.expense.dto.response.RecurringExpenseResponse;
+import org.splitzy.expense.service.RecurringExpenseService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/recurring-expenses")
+@RequiredArgsConstructor
+public class RecurringExpenseController {
+    private final RecurringExpenseService recurringExpenseService;
+
+    /** Create a recurring expense template */
+    @PostMapping("/create")
+    public ResponseEntity<ApiResponse<RecurringExpenseResponse>> createRecurringExpense(
+            @Valid @RequestBody CreateRecurringExpenseRequest request,
+            @RequestHeader("X-User-Id") Long userId) {
+        log.info("Create recurring expense request from user: {}", userId);
+
+        RecurringExpenseResponse response = recurringExpenseService.createRecurringExpense(request, userId);
+        ApiResponse<RecurringExpenseResponse> apiResponse = ApiResponse.success(response, "Recurring expense created successfully");
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(apiResponse);
+    }
+
+    /** Get user's active recurring expenses */
+    @GetMapping("/getAll")
+    public ResponseEntity<ApiResponse<List<RecurringExpenseResponse>>> getRecurringExpenses(
+            @RequestHeader("X-User-Id") Long userId) {
+        log.info("Get recurring expenses request for user: {}", userId);
+
+        List<RecurringExpenseResponse> response = recurringExpenseService.getUserRecurringExpenses(userId);
+        ApiResponse<List<RecurringExpenseResponse>> apiResponse = ApiResponse.success(response);
+
+        return ResponseEntity.ok(apiResponse);
+    }
+
+    /** Stop a recurring expense */
+    @DeleteMapping("/{recurringExpenseId}")
+    public ResponseEntity<ApiResponse<String>> deleteRecurringExpense(
+            @PathVariable Long recurringExpenseId,
+            @RequestHeader("X-User-Id") Long userId) {
+        log.info("Delete recurring expense request for ID: {}", recurringExpenseId);
+
+        recurringExpenseService.deleteRecurringExpense(recurringExpenseId, userId);
+        ApiResponse<String> apiResponse = ApiResponse.success("Recurring expense deleted successfully");
+
+        return ResponseEntity.ok(apiResponse);
+    }
+}
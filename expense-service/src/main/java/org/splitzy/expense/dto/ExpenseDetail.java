@@ -0,0 +1,14 @@
+package org.splitzy.expense.dto;
+
+import org.splitzy.expense.entity.Expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+//  Read-only projection of a single expense for the detail view
+public record ExpenseDetail(Long id, String title, String description, BigDecimal totalAmount, String currency,
+                            Long paidByUserId, LocalDate expenseDate, Expense.ExpenseCategory category,
+                            Expense.SplitType splitType, Long groupId, String notes, String receiptUrl,
+                            Expense.ExpenseStatus status, LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
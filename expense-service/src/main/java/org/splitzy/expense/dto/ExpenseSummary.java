@@ -0,0 +1,13 @@
+package org.splitzy.expense.dto;
+
+import org.splitzy.expense.entity.Expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+//  Read-only projection of the expense columns shown in list views (no description, notes or receipt URL)
+public record ExpenseSummary(Long id, String title, BigDecimal totalAmount, String currency, Long paidByUserId,
+                             LocalDate expenseDate, Expense.ExpenseCategory category, Expense.SplitType splitType,
+                             Long groupId, Expense.ExpenseStatus status, LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
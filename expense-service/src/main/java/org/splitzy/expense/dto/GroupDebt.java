@@ -0,0 +1,7 @@
+package org.splitzy.expense.dto;
+
+import java.math.BigDecimal;
+
+//  Aggregated outstanding amount a debtor owes a creditor within a group
+public record GroupDebt(Long debtorUserId, Long creditorUserId, String currency, BigDecimal amount) {
+}
@@ -0,0 +1,7 @@
+package org.splitzy.expense.dto;
+
+import java.math.BigDecimal;
+
+//  Lightweight projection of an unsettled split used for FIFO settlement allocation
+public record SplitAllocation(Long splitId, Long expenseId, Long groupId, BigDecimal remainingAmount) {
+}
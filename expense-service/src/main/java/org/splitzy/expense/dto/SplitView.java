@@ -0,0 +1,12 @@
+package org.splitzy.expense.dto;
+
+import java.math.BigDecimal;
+
+//  Read-only projection of a split, keyed by its expense for grouping a page of results
+public record SplitView(Long expenseId, Long id, Long userId, BigDecimal amount, BigDecimal percentage, Integer shares,
+                        Boolean isSettled, BigDecimal settledAmount, String notes) {
+
+    public BigDecimal remainingAmount() {
+        return amount.subtract(settledAmount);
+    }
+}
@@ -0,0 +1,72 @@
+package org.splitzy.expense.dto.request;
+
+import org.splitzy.expense.entity.Expense;
+import org.splitzy.expense.entity.RecurringExpense;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Request DTO for creating a recurring expense template
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateRecurringExpenseRequest {
+
+    @NotBlank(message = "Title is required")
+    @Size(max = 200, message = "Title must not exceed 200 characters")
+    private String title;
+
+    @Size(max = 1000, message = "Description must not exceed 1000 characters")
+    private String description;
+
+    @NotNull(message = "Total amount is required")
+    @DecimalMin(value = "0.01", message = "Total amount must be greater than 0")
+    @Digits(integer = 10, fraction = 2, message = "Invalid amount format")
+    private BigDecimal totalAmount;
+
+    @NotBlank(message = "Currency is required")
+    @Pattern(regexp = "^[A-Z]{3}$", message = "Currency must be a valid 3-letter ISO code")
+    private String currency;
+
+    @NotNull(message = "Paid by user ID is required")
+    @Positive(message = "Paid by user ID must be positive")
+    private Long paidByUserId;
+
+    @NotNull(message = "Category is required")
+    private Expense.ExpenseCategory category;
+
+    @NotNull(message = "Split type is required")
+    private Expense.SplitType splitType;
+
+    private Long groupId;
+
+    @Size(max = 500, message = "Notes must not exceed 500 characters")
+    private String notes;
+
+    @NotNull(message = "Frequency is required")
+    private RecurringExpense.Frequency frequency;
+
+    @Min(value = 1, message = "Interval must be at least 1")
+    @Max(value = 365, message = "Interval must not exceed 365")
+    private Integer intervalCount;
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    @NotNull(message = "Splits are required")
+    @Size(min = 1, message = "At least one split is required")
+    @Valid
+    private List<CreateExpenseRequest.SplitRequest> splits;
+}
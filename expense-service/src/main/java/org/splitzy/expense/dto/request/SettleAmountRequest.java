@@ -0,0 +1,33 @@
+package org.splitzy.expense.dto.request;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Request DTO for settling an amount paid to another user
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettleAmountRequest {
+
+    @NotNull(message = "Payee user ID is required")
+    @Positive(message = "Payee user ID must be positive")
+    private Long payeeUserId;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    @Digits(integer = 10, fraction = 2, message = "Invalid amount format")
+    private BigDecimal amount;
+
+    @Pattern(regexp = "^[A-Z]{3}$", message = "Currency must be a valid 3-letter ISO code")
+    private String currency; // Defaults to the configured balance currency
+}
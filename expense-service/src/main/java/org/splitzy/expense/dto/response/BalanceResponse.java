@@ -19,7 +19,8 @@ public class BalanceResponse {
     private BigDecimal totalOwed;      // Total amount user owes to others
     private BigDecimal totalOwedBy;    // Total amount others owe to user
     private BigDecimal netBalance;     // Net balance (totalOwedBy - totalOwed)
-    private String currency;
+    private String currency;           // Currency of the totals
+    private List<String> unconvertedCurrencies; // Currencies without a rate, left out of the totals
     private List<IndividualBalance> balances;
 
     @Data
@@ -32,5 +33,7 @@ public class BalanceResponse {
         private BigDecimal amount;
         private String type; // "owes" or "owed_by"
         private String currency;
+        private BigDecimal convertedAmount; // Amount in the requested currency
+        private String convertedCurrency;
     }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package org.splitzy.expense.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+//  Response DTO for group-level balances
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupBalanceResponse {
+
+    private Long groupId;
+    private String currency;               // Currency all amounts are converted to
+    private List<String> unconvertedCurrencies; // Currencies without a rate, left out of members and debts
+    private List<MemberBalance> members;   // Net position per member
+    private List<PairwiseBalance> debts;   // Outstanding amounts between member pairs
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MemberBalance {
+        private Long userId;
+        private BigDecimal netBalance; // Positive when others owe this member
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PairwiseBalance {
+        private Long fromUserId; // Debtor
+        private Long toUserId;   // Creditor
+        private BigDecimal amount;
+    }
+}
@@ -0,0 +1,57 @@
+package org.splitzy.expense.dto.response;
+
+import org.splitzy.expense.entity.Expense;
+import org.splitzy.expense.entity.RecurringExpense;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+//  Response DTO for recurring expense templates
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringExpenseResponse {
+
+    private Long id;
+    private String title;
+    private String description;
+    private BigDecimal totalAmount;
+    private String currency;
+    private Long paidByUserId;
+    private Long createdByUserId;
+    private Expense.ExpenseCategory category;
+    private Expense.SplitType splitType;
+    private Long groupId;
+    private String notes;
+    private RecurringExpense.Frequency frequency;
+    private Integer intervalCount;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private LocalDate nextOccurrenceDate;
+    private Integer occurrenceCount;
+    private LocalDateTime lastMaterializedAt;
+    private List<SplitTemplateResponse> splits;
+    private LocalDateTime createdAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SplitTemplateResponse {
+        private Long userId;
+        private BigDecimal amount;
+        private BigDecimal percentage;
+        private Integer shares;
+        private Integer ratio;
+        private BigDecimal itemTotal;
+        private BigDecimal adjustment;
+        private String notes;
+    }
+}
@@ -0,0 +1,24 @@
+package org.splitzy.expense.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+//  Response DTO for an amount settlement between two users
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementResponse {
+
+    private Long payerUserId;
+    private Long payeeUserId;
+    private BigDecimal amount;
+    private String currency;
+    private int settledSplitCount;
+    private Long partiallySettledSplitId;
+    private int settledExpenseCount;
+}
@@ -1,5 +1,7 @@
 package org.splitzy.expense.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.splitzy.common.entity.BaseEntity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -23,6 +25,8 @@ import java.util.List;
         @Index(name = "idx_status", columnList = "status"),
         @Index(name = "idx_created_at", columnList = "created_at")
 })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "expense")
 @Data
 @EqualsAndHashCode(callSuper = true)
 @Builder
@@ -73,6 +77,7 @@ public class Expense extends BaseEntity {
     private ExpenseStatus status = ExpenseStatus.ACTIVE;
 
     @OneToMany(mappedBy = "expense", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "expense-splits")
     @Builder.Default
     private List<ExpenseSplit> splits = new ArrayList<>();
 
@@ -1,5 +1,7 @@
 package org.splitzy.expense.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.splitzy.common.entity.BaseEntity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -20,6 +22,8 @@ import java.math.BigDecimal;
         @Index(name = "idx_paid_status", columnList = "is_settled"),
         @Index(name = "idx_expense_user", columnList = "expense_id, user_id", unique = true)
 })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "expense-split")
 @Data
 @EqualsAndHashCode(callSuper = true, exclude = "expense")
 @Builder
@@ -54,10 +58,10 @@ public class ExpenseSplit extends BaseEntity {
     @Column(name = "notes", length = 500)
     private String notes;
 
-    @Column(name = "Total Items", length = 500)
+    @Column(name = "item_total", precision = 12, scale = 2)
     private BigDecimal itemTotal;
 
-    @Column(name = "Adjsutments", length = 500)
+    @Column(name = "adjustment", precision = 10, scale = 2)
     private BigDecimal adjustment;
 
     /**
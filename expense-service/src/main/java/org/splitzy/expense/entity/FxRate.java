@@ -0,0 +1,32 @@
+package org.splitzy.expense.entity;
+
+import org.splitzy.common.entity.BaseEntity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Exchange rate of a currency against the configured base currency
+ */
+@Entity
+@Table(name = "fx_rates", indexes = {
+        @Index(name = "idx_fx_currency", columnList = "currency", unique = true)
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FxRate extends BaseEntity {
+
+    @Column(name = "currency", nullable = false, length = 3)
+    private String currency;
+
+    @Column(name = "rate_to_base", nullable = false, precision = 19, scale = 8)
+    private BigDecimal rateToBase; // Units of base currency for one unit of this currency
+}
@@ -0,0 +1,170 @@
+package org.splitzy.expense.entity;
+
+import org.hibernate.annotations.BatchSize;
+import org.splitzy.common.entity.BaseEntity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Template for an expense that repeats on a fixed schedule (rent, utilities, subscriptions)
+ */
+@Entity
+@Table(name = "recurring_expenses", indexes = {
+        @Index(name = "idx_recurring_due", columnList = "is_active, next_run_at"),
+        @Index(name = "idx_recurring_created_by", columnList = "created_by_user_id")
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringExpense extends BaseEntity {
+
+    @Column(name = "title", nullable = false, length = 200)
+    private String title;
+
+    @Column(name = "description", length = 1000)
+    private String description;
+
+    @Column(name = "total_amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "currency", nullable = false, length = 3)
+    @Builder.Default
+    private String currency = "INR";
+
+    @Column(name = "paid_by_user_id", nullable = false)
+    private Long paidByUserId;
+
+    @Column(name = "created_by_user_id", nullable = false)
+    private Long createdByUserId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "category", nullable = false)
+    private Expense.ExpenseCategory category;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "split_type", nullable = false)
+    @Builder.Default
+    private Expense.SplitType splitType = Expense.SplitType.EQUAL;
+
+    @Column(name = "group_id")
+    private Long groupId;
+
+    @Column(name = "notes", length = 500)
+    private String notes;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "frequency", nullable = false)
+    private Frequency frequency;
+
+    @Column(name = "interval_count", nullable = false)
+    @Builder.Default
+    private Integer intervalCount = 1;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    @Column(name = "next_occurrence_date", nullable = false)
+    private LocalDate nextOccurrenceDate; // Expense date of the next occurrence
+
+    @Column(name = "next_run_at", nullable = false)
+    private LocalDateTime nextRunAt; // Jittered time the next occurrence is picked up
+
+    @Column(name = "occurrence_count", nullable = false)
+    @Builder.Default
+    private Integer occurrenceCount = 0;
+
+    @Column(name = "last_materialized_at")
+    private LocalDateTime lastMaterializedAt;
+
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "recurring_expense_splits", joinColumns = @JoinColumn(name = "recurring_expense_id"))
+    @OrderColumn(name = "split_order")
+    @BatchSize(size = 50)
+    @Builder.Default
+    private List<SplitTemplate> splits = new ArrayList<>();
+
+    /**
+     * Check whether an occurrence on the given date is still within the schedule
+     */
+    public boolean isWithinSchedule(LocalDate occurrenceDate) {
+        return endDate == null || !occurrenceDate.isAfter(endDate);
+    }
+
+    /**
+     * Advance to the occurrence after the current one
+     */
+    public void advanceOccurrence() {
+        occurrenceCount = occurrenceCount + 1;
+        nextOccurrenceDate = frequency.next(startDate, occurrenceCount * intervalCount);
+    }
+
+    /**
+     * Participant share copied onto each generated expense
+     */
+    @Embeddable
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SplitTemplate {
+
+        @Column(name = "user_id", nullable = false)
+        private Long userId;
+
+        @Column(name = "amount", precision = 10, scale = 2)
+        private BigDecimal amount;
+
+        @Column(name = "percentage", precision = 5, scale = 2)
+        private BigDecimal percentage;
+
+        @Column(name = "shares")
+        private Integer shares;
+
+        @Column(name = "ratio")
+        private Integer ratio;
+
+        @Column(name = "item_total", precision = 12, scale = 2)
+        private BigDecimal itemTotal;
+
+        @Column(name = "adjustment", precision = 10, scale = 2)
+        private BigDecimal adjustment;
+
+        @Column(name = "notes", length = 500)
+        private String notes;
+    }
+
+    //  Recurrence frequency
+    public enum Frequency {
+        DAILY,
+        WEEKLY,
+        MONTHLY,
+        YEARLY;
+
+        /**
+         * Occurrence date counted from the start date, so month-end dates do not drift (Jan 31 -> Feb 28 -> Mar 31)
+         */
+        public LocalDate next(LocalDate startDate, long units) {
+            return switch (this) {
+                case DAILY -> startDate.plusDays(units);
+                case WEEKLY -> startDate.plusWeeks(units);
+                case MONTHLY -> startDate.plusMonths(units);
+                case YEARLY -> startDate.plusYears(units);
+            };
+        }
+    }
+}
@@ -14,7 +14,7 @@ import java.math.BigDecimal;
 @Table(name = "user_balances", indexes = {
         @Index(name = "idx_user1", columnList = "user1_id"),
         @Index(name = "idx_user2", columnList = "user2_id"),
-        @Index(name = "idx_users_pair", columnList = "user1_id, user2_id", unique = true)
+        @Index(name = "idx_users_pair_currency", columnList = "user1_id, user2_id, currency", unique = true)
 })
 @Data
 @EqualsAndHashCode(callSuper = true)
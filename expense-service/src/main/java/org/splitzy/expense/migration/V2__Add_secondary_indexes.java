@@ -0,0 +1,48 @@
+package org.splitzy.expense.migration;
+
+import org.splitzy.common.migration.IndexDefinition;
+import org.splitzy.common.migration.OnlineIndexMigration;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static org.splitzy.common.migration.IndexDefinition.index;
+import static org.splitzy.common.migration.IndexDefinition.uniqueIndex;
+
+/**
+ * Indexes declared on Expense, ExpenseSplit, UserBalance, FxRate and RecurringExpense, built online.
+ * Balances are unique per currency now, so the old per-pair unique index goes once its replacement exists.
+ */
+@Component
+public class V2__Add_secondary_indexes extends OnlineIndexMigration {
+
+    @Override
+    protected List<IndexDefinition> indexes() {
+        return List.of(
+                index("expenses", "idx_paid_by", "paid_by_user_id"),
+                index("expenses", "idx_group", "group_id"),
+                index("expenses", "idx_category", "category"),
+                index("expenses", "idx_expense_date", "expense_date"),
+                index("expenses", "idx_status", "status"),
+                index("expenses", "idx_created_at", "created_at"),
+
+                index("expense_splits", "idx_expense", "expense_id"),
+                index("expense_splits", "idx_user", "user_id"),
+                index("expense_splits", "idx_paid_status", "is_settled"),
+                uniqueIndex("expense_splits", "idx_expense_user", "expense_id", "user_id"),
+
+                index("user_balances", "idx_user1", "user1_id"),
+                index("user_balances", "idx_user2", "user2_id"),
+                uniqueIndex("user_balances", "idx_users_pair_currency", "user1_id", "user2_id", "currency"),
+
+                uniqueIndex("fx_rates", "idx_fx_currency", "currency"),
+
+                index("recurring_expenses", "idx_recurring_due", "is_active", "next_run_at"),
+                index("recurring_expenses", "idx_recurring_created_by", "created_by_user_id"));
+    }
+
+    @Override
+    protected List<IndexDefinition> replacedIndexes() {
+        return List.of(uniqueIndex("user_balances", "idx_users_pair", "user1_id", "user2_id"));
+    }
+}
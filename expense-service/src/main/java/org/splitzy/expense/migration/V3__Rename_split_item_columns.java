@@ -0,0 +1,63 @@
+package org.splitzy.expense.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Gives expense_splits its item_total and adjustment columns. Where ddl-auto created them from the
+ * old "Total Items" and "Adjsutments" mappings they are renamed; otherwise, as in schemas created
+ * by V1, they are added. Both only change metadata, so they run online.
+ */
+@Slf4j
+@Component
+public class V3__Rename_split_item_columns extends BaseJavaMigration {
+
+    private static final String COLUMN_EXISTS = "SELECT COUNT(*) FROM information_schema.columns " +
+            "WHERE table_schema = DATABASE() AND table_name = 'expense_splits' AND column_name = ?";
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        renameOrAdd(connection, "Total Items", "item_total", "DECIMAL(12,2)");
+        renameOrAdd(connection, "Adjsutments", "adjustment", "DECIMAL(10,2)");
+    }
+
+    private void renameOrAdd(Connection connection, String oldName, String newName, String type) throws SQLException {
+        if (columnExists(connection, newName)) {
+            return;
+        }
+        String ddl;
+        if (columnExists(connection, oldName)) {
+            log.info("Renaming expense_splits.`{}` to {}", oldName, newName);
+            ddl = "ALTER TABLE expense_splits RENAME COLUMN `" + oldName + "` TO " + newName + ", ALGORITHM=INPLACE, LOCK=NONE";
+        } else {
+            log.info("Adding expense_splits.{}", newName);
+            ddl = "ALTER TABLE expense_splits ADD COLUMN " + newName + " " + type + ", ALGORITHM=INSTANT";
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(ddl);
+        }
+    }
+
+    private boolean columnExists(Connection connection, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(COLUMN_EXISTS)) {
+            statement.setString(1, name);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getInt(1) > 0;
+            }
+        }
+    }
+}
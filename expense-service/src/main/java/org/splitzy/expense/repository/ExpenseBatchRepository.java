@@ -0,0 +1,135 @@
+package org.splitzy.expense.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.splitzy.expense.entity.Expense;
+import org.splitzy.expense.entity.ExpenseSplit;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC batch inserts for generated expenses.
+ * Expense ids use IDENTITY generation, which stops Hibernate from batching inserts,
+ * so bulk writes go through JdbcTemplate within the surrounding JPA transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ExpenseBatchRepository {
+
+    private static final String INSERT_EXPENSE = "INSERT INTO expenses (title, description, total_amount, currency, paid_by_user_id, " +
+            "expense_date, category, split_type, group_id, notes, receipt_url, status, created_at, updated_at, is_active) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_SPLIT = "INSERT INTO expense_splits (expense_id, user_id, amount, percentage, shares, " +
+            "is_settled, settled_amount, notes, item_total, adjustment, created_at, updated_at, is_active) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Insert expenses with their splits in two batched statements; generated ids are set on the entities
+     */
+    public void insertAll(List<Expense> expenses) {
+        if (expenses.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_EXPENSE, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Expense expense = expenses.get(i);
+                        ps.setString(1, expense.getTitle());
+                        ps.setString(2, expense.getDescription());
+                        ps.setBigDecimal(3, expense.getTotalAmount());
+                        ps.setString(4, expense.getCurrency());
+                        ps.setLong(5, expense.getPaidByUserId());
+                        ps.setObject(6, expense.getExpenseDate());
+                        ps.setString(7, expense.getCategory().name());
+                        ps.setString(8, expense.getSplitType().name());
+                        ps.setObject(9, expense.getGroupId(), Types.BIGINT);
+                        ps.setString(10, expense.getNotes());
+                        ps.setString(11, expense.getReceiptUrl());
+                        ps.setString(12, expense.getStatus().name());
+                        ps.setTimestamp(13, timestamp);
+                        ps.setTimestamp(14, timestamp);
+                        ps.setBoolean(15, true);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return expenses.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        List<ExpenseSplit> splits = new ArrayList<>();
+        for (int i = 0; i < expenses.size(); i++) {
+            Expense expense = expenses.get(i);
+            expense.setId(((Number) keys.get(i).values().iterator().next()).longValue());
+            expense.setCreatedAt(now);
+            expense.setUpdateAt(now);
+            splits.addAll(expense.getSplits());
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SPLIT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ExpenseSplit split = splits.get(i);
+                ps.setLong(1, split.getExpense().getId());
+                ps.setLong(2, split.getUserId());
+                ps.setBigDecimal(3, split.getAmount());
+                ps.setBigDecimal(4, split.getPercentage());
+                ps.setObject(5, split.getShares(), Types.INTEGER);
+                ps.setBoolean(6, Boolean.TRUE.equals(split.getIsSettled()));
+                ps.setBigDecimal(7, split.getSettledAmount());
+                ps.setString(8, split.getNotes());
+                ps.setBigDecimal(9, split.getItemTotal());
+                ps.setBigDecimal(10, split.getAdjustment());
+                ps.setTimestamp(11, timestamp);
+                ps.setTimestamp(12, timestamp);
+                ps.setBoolean(13, true);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return splits.size();
+            }
+        });
+
+        evictQueryCacheAfterCommit();
+    }
+
+    /**
+     * JDBC writes bypass Hibernate's update timestamps, so cached query results
+     * (e.g. a miss recorded for an id before it existed) are dropped explicitly
+     */
+    private void evictQueryCacheAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion("expense-queries");
+            }
+        });
+    }
+}
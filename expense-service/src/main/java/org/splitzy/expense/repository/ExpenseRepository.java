@@ -1,5 +1,8 @@
 package org.splitzy.expense.repository;
 
+import jakarta.persistence.QueryHint;
+import org.splitzy.expense.dto.ExpenseDetail;
+import org.splitzy.expense.dto.ExpenseSummary;
 import org.splitzy.expense.entity.Expense;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -7,11 +10,13 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +31,31 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long>, JpaSpec
     @Query("SELECT e FROM Expense e WHERE e.isActive = true AND (e.paidByUserId = :userId OR EXISTS (SELECT 1 FROM ExpenseSplit s WHERE s.expense = e AND s.userId = :userId))")
     Page<Expense> findUserExpenses(@Param("userId") Long userId, Pageable pageable);
 
+    // List view of a user's expenses, selected straight into read-only records
+    @Query(value = "SELECT new org.splitzy.expense.dto.ExpenseSummary(e.id, e.title, e.totalAmount, e.currency, e.paidByUserId, e.expenseDate, " +
+            "e.category, e.splitType, e.groupId, e.status, e.createdAt, e.updateAt) FROM Expense e " +
+            "WHERE e.isActive = true AND (e.paidByUserId = :userId OR EXISTS (SELECT 1 FROM ExpenseSplit s WHERE s.expense = e AND s.userId = :userId))",
+            countQuery = "SELECT COUNT(e) FROM Expense e " +
+                    "WHERE e.isActive = true AND (e.paidByUserId = :userId OR EXISTS (SELECT 1 FROM ExpenseSplit s WHERE s.expense = e AND s.userId = :userId))")
+    Page<ExpenseSummary> findUserExpenseSummaries(@Param("userId") Long userId, Pageable pageable);
+
+    // List view of a user's unsettled expenses
+    @Query(value = "SELECT new org.splitzy.expense.dto.ExpenseSummary(e.id, e.title, e.totalAmount, e.currency, e.paidByUserId, e.expenseDate, " +
+            "e.category, e.splitType, e.groupId, e.status, e.createdAt, e.updateAt) FROM Expense e " +
+            "WHERE e.isActive = true AND EXISTS (SELECT 1 FROM ExpenseSplit s WHERE s.expense = e AND s.isSettled = false AND (e.paidByUserId = :userId OR s.userId = :userId))",
+            countQuery = "SELECT COUNT(e) FROM Expense e " +
+                    "WHERE e.isActive = true AND EXISTS (SELECT 1 FROM ExpenseSplit s WHERE s.expense = e AND s.isSettled = false AND (e.paidByUserId = :userId OR s.userId = :userId))")
+    Page<ExpenseSummary> findUnsettledExpenseSummaries(@Param("userId") Long userId, Pageable pageable);
+
+    // Detail view of a single expense
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "expense-queries")
+    })
+    @Query("SELECT new org.splitzy.expense.dto.ExpenseDetail(e.id, e.title, e.description, e.totalAmount, e.currency, e.paidByUserId, e.expenseDate, " +
+            "e.category, e.splitType, e.groupId, e.notes, e.receiptUrl, e.status, e.createdAt, e.updateAt) FROM Expense e WHERE e.id = :expenseId")
+    Optional<ExpenseDetail> findExpenseDetail(@Param("expenseId") Long expenseId);
+
     // Find expenses by group
     Page<Expense> findByGroupIdAndIsActiveTrue(Long groupId, Pageable pageable);
 
@@ -59,16 +89,21 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long>, JpaSpec
     Page<Expense> findRecentExpenses(Pageable pageable);
 
     // Mark expenses as settled
-    @Modifying
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
     @Query("UPDATE Expense e SET e.status = 'SETTLED' WHERE e.id = :expenseId")
     void markAsSettled(@Param("expenseId") Long expenseId);
 
-    // Soft delete expense
+    // Mark expenses as settled once none of the owed splits remain unsettled
     @Modifying
+    @Query("UPDATE Expense e SET e.status = 'SETTLED' WHERE e.id IN :expenseIds AND e.status = 'ACTIVE' AND NOT EXISTS (SELECT 1 FROM ExpenseSplit s WHERE s.expense = e AND s.isSettled = false AND s.userId <> e.paidByUserId)")
+    int markFullySettled(@Param("expenseIds") Collection<Long> expenseIds);
+
+    // Soft delete expense
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
     @Query("UPDATE Expense e SET e.isActive = false WHERE e.id = :expenseId")
     void softDelete(@Param("expenseId") Long expenseId);
 
-    // Find expenses for dashboard (last 30 days)
-    @Query("SELECT e FROM Expense e WHERE e.isActive = true AND (e.paidByUserId = :userId OR EXISTS (SELECT 1 FROM ExpenseSplit s WHERE s.expense = e AND s.userId = :userId)) AND e.expenseDate >= CURRENT_DATE - 30 ORDER BY e.expenseDate DESC")
-    List<Expense> findDashboardExpenses(@Param("userId") Long userId);
+    // Find expenses for dashboard (since the given date, e.g. the last 30 days)
+    @Query("SELECT e FROM Expense e WHERE e.isActive = true AND (e.paidByUserId = :userId OR EXISTS (SELECT 1 FROM ExpenseSplit s WHERE s.expense = e AND s.userId = :userId)) AND e.expenseDate >= :since ORDER BY e.expenseDate DESC")
+    List<Expense> findDashboardExpenses(@Param("userId") Long userId, @Param("since") LocalDate since);
 }
\ No newline at end of file
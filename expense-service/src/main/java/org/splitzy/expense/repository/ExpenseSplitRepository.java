@@ -1,13 +1,19 @@
 package org.splitzy.expense.repository;
 
+import jakarta.persistence.QueryHint;
+import org.splitzy.expense.dto.GroupDebt;
+import org.splitzy.expense.dto.SplitAllocation;
+import org.splitzy.expense.dto.SplitView;
 import org.splitzy.expense.entity.ExpenseSplit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,11 +38,23 @@ public interface ExpenseSplitRepository extends JpaRepository<ExpenseSplit, Long
     @Query("SELECT s FROM ExpenseSplit s WHERE s.userId = :userId AND s.isSettled = false AND s.expense.paidByUserId = :otherUserId")
     List<ExpenseSplit> findUnsettledSplitsBetweenUsers(@Param("userId") Long userId, @Param("otherUserId") Long otherUserId);
 
+    // Unsettled split allocations between two users in a currency, oldest first (FIFO settlement order)
+    @Query("SELECT new org.splitzy.expense.dto.SplitAllocation(s.id, s.expense.id, s.expense.groupId, s.amount - s.settledAmount) FROM ExpenseSplit s " +
+            "WHERE s.userId = :userId AND s.isSettled = false AND s.expense.paidByUserId = :otherUserId AND s.expense.isActive = true " +
+            "AND s.expense.currency = :currency " +
+            "ORDER BY s.expense.expenseDate ASC, s.id ASC")
+    List<SplitAllocation> findUnsettledSplitAllocationsBetweenUsers(@Param("userId") Long userId, @Param("otherUserId") Long otherUserId, @Param("currency") String currency);
+
     // Mark split as settled
-    @Modifying
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
     @Query("UPDATE ExpenseSplit s SET s.isSettled = true, s.settledAmount = s.amount WHERE s.id = :splitId")
     void markAsSettled(@Param("splitId") Long splitId);
 
+    // Mark a set of splits as settled in one statement
+    @Modifying
+    @Query("UPDATE ExpenseSplit s SET s.isSettled = true, s.settledAmount = s.amount WHERE s.id IN :splitIds")
+    int markAllAsSettled(@Param("splitIds") Collection<Long> splitIds);
+
     // Partially settle split
     @Modifying
     @Query("UPDATE ExpenseSplit s SET s.settledAmount = s.settledAmount + :amount WHERE s.id = :splitId")
@@ -46,7 +64,31 @@ public interface ExpenseSplitRepository extends JpaRepository<ExpenseSplit, Long
     @Query("SELECT COUNT(s) FROM ExpenseSplit s WHERE s.userId = :userId AND s.isSettled = false")
     long countUnsettledSplits(@Param("userId") Long userId);
 
+    // Outstanding amounts within a group, aggregated per debtor/creditor pair and currency
+    @Query("SELECT new org.splitzy.expense.dto.GroupDebt(s.userId, e.paidByUserId, e.currency, SUM(s.amount - s.settledAmount)) FROM ExpenseSplit s JOIN s.expense e " +
+            "WHERE e.groupId = :groupId AND e.isActive = true AND s.isSettled = false AND s.userId <> e.paidByUserId " +
+            "GROUP BY s.userId, e.paidByUserId, e.currency")
+    List<GroupDebt> findOutstandingGroupDebts(@Param("groupId") Long groupId);
+
+    // Whether the user has a share in, or paid, any active expense of the group
+    @Query("SELECT COUNT(s) > 0 FROM ExpenseSplit s JOIN s.expense e " +
+            "WHERE e.groupId = :groupId AND e.isActive = true AND (s.userId = :userId OR e.paidByUserId = :userId)")
+    boolean isGroupMember(@Param("groupId") Long groupId, @Param("userId") Long userId);
+
+    // Splits of a page of expenses in one IN query
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "expense-queries")
+    })
+    @Query("SELECT new org.splitzy.expense.dto.SplitView(s.expense.id, s.id, s.userId, s.amount, s.percentage, s.shares, s.isSettled, s.settledAmount, s.notes) " +
+            "FROM ExpenseSplit s WHERE s.expense.id IN :expenseIds ORDER BY s.id")
+    List<SplitView> findSplitViewsByExpenseIds(@Param("expenseIds") Collection<Long> expenseIds);
+
     // Find all splits for expense
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "expense-queries")
+    })
     @Query("SELECT s FROM ExpenseSplit s WHERE s.expense.id = :expenseId ORDER BY s.userId")
     List<ExpenseSplit> findAllSplitsForExpense(@Param("expenseId") Long expenseId);
 }
\ No newline at end of file
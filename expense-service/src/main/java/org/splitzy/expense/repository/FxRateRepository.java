@@ -0,0 +1,15 @@
+package org.splitzy.expense.repository;
+
+import org.splitzy.expense.entity.FxRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+// Repository for FxRate entity operations
+@Repository
+public interface FxRateRepository extends JpaRepository<FxRate, Long> {
+
+    // Find all rates currently in use
+    List<FxRate> findByIsActiveTrue();
+}
@@ -0,0 +1,30 @@
+package org.splitzy.expense.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.splitzy.expense.entity.RecurringExpense;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Repository for RecurringExpense entity operations
+@Repository
+public interface RecurringExpenseRepository extends JpaRepository<RecurringExpense, Long> {
+
+    // Lock a chunk of due templates; rows locked by another instance are skipped (lock timeout -2 = SKIP LOCKED)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM RecurringExpense r WHERE r.isActive = true AND r.nextRunAt <= :now ORDER BY r.nextRunAt ASC")
+    List<RecurringExpense> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Find active templates created by or paid by a user
+    @Query("SELECT r FROM RecurringExpense r WHERE r.isActive = true AND (r.createdByUserId = :userId OR r.paidByUserId = :userId) ORDER BY r.nextOccurrenceDate ASC")
+    List<RecurringExpense> findActiveByUser(@Param("userId") Long userId);
+}
@@ -17,9 +17,13 @@ import java.util.Optional;
 @Repository
 public interface UserBalanceRepository extends JpaRepository<UserBalance, Long> {
 
-    //  Find balance between two users
+    //  Find balance between two users in a currency
+    @Query("SELECT b FROM UserBalance b WHERE ((b.user1Id = :user1Id AND b.user2Id = :user2Id) OR (b.user1Id = :user2Id AND b.user2Id = :user1Id)) AND b.currency = :currency")
+    Optional<UserBalance> findBalanceBetweenUsers(@Param("user1Id") Long user1Id, @Param("user2Id") Long user2Id, @Param("currency") String currency);
+
+    //  Find balances between two users across all currencies
     @Query("SELECT b FROM UserBalance b WHERE (b.user1Id = :user1Id AND b.user2Id = :user2Id) OR (b.user1Id = :user2Id AND b.user2Id = :user1Id)")
-    Optional<UserBalance> findBalanceBetweenUsers(@Param("user1Id") Long user1Id, @Param("user2Id") Long user2Id);
+    List<UserBalance> findBalancesBetweenUsers(@Param("user1Id") Long user1Id, @Param("user2Id") Long user2Id);
 
     // Find all balances for a user
     @Query("SELECT b FROM UserBalance b WHERE (b.user1Id = :userId OR b.user2Id = :userId) AND b.balanceAmount != 0 ORDER BY b.balanceAmount DESC")
@@ -29,19 +33,17 @@ public interface UserBalanceRepository extends JpaRepository<UserBalance, Long>
     @Query("SELECT b FROM UserBalance b WHERE (b.user1Id = :userId OR b.user2Id = :userId) AND b.balanceAmount != 0")
     Page<UserBalance> findUserBalancesPaginated(@Param("userId") Long userId, Pageable pageable);
 
-     // Calculate total amount user owes to others
-    @Query("SELECT COALESCE(SUM(b.balanceAmount), 0) FROM UserBalance b WHERE b.user1Id = :userId AND b.balanceAmount > 0")
-    BigDecimal calculateTotalOwedByUser(@Param("userId") Long userId);
-
-    // Calculate total amount others owe to user
-    @Query("SELECT COALESCE(SUM(ABS(b.balanceAmount)), 0) FROM UserBalance b WHERE b.user2Id = :userId AND b.balanceAmount < 0")
-    BigDecimal calculateTotalOwedToUser(@Param("userId") Long userId);
-
     // Update balance
     @Modifying
     @Query("UPDATE UserBalance b SET b.balanceAmount = b.balanceAmount + :amount WHERE b.id = :balanceId")
     void updateBalance(@Param("balanceId") Long balanceId, @Param("amount") BigDecimal amount);
 
+    // Apply a payment from payer to payee atomically (positive balance means user1 owes user2)
+    @Modifying
+    @Query("UPDATE UserBalance b SET b.balanceAmount = CASE WHEN b.user1Id = :payerId THEN b.balanceAmount - :amount ELSE b.balanceAmount + :amount END " +
+            "WHERE ((b.user1Id = :payerId AND b.user2Id = :payeeId) OR (b.user1Id = :payeeId AND b.user2Id = :payerId)) AND b.currency = :currency")
+    int applySettlement(@Param("payerId") Long payerId, @Param("payeeId") Long payeeId, @Param("amount") BigDecimal amount, @Param("currency") String currency);
+
     // Settle balance
     @Modifying
     @Query("UPDATE UserBalance b SET b.balanceAmount = 0 WHERE b.id = :balanceId")
@@ -51,7 +53,7 @@ public interface UserBalanceRepository extends JpaRepository<UserBalance, Long>
     @Query("SELECT b FROM UserBalance b WHERE (b.user1Id = :userId OR b.user2Id = :userId) AND b.balanceAmount != 0")
     List<UserBalance> findUnsettledBalances(@Param("userId") Long userId);
 
-    // Check if balance exists between users
-    @Query("SELECT COUNT(b) > 0 FROM UserBalance b WHERE (b.user1Id = :user1Id AND b.user2Id = :user2Id) OR (b.user1Id = :user2Id AND b.user2Id = :user1Id)")
-    boolean balanceExistsBetweenUsers(@Param("user1Id") Long user1Id, @Param("user2Id") Long user2Id);
+    // Check if balance exists between users in a currency
+    @Query("SELECT COUNT(b) > 0 FROM UserBalance b WHERE ((b.user1Id = :user1Id AND b.user2Id = :user2Id) OR (b.user1Id = :user2Id AND b.user2Id = :user1Id)) AND b.currency = :currency")
+    boolean balanceExistsBetweenUsers(@Param("user1Id") Long user1Id, @Param("user2Id") Long user2Id, @Param("currency") String currency);
 }
\ No newline at end of file
@@ -3,19 +3,25 @@ package org.splitzy.expense.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.splitzy.common.exception.ResourceNotFoundException;
+import org.splitzy.common.exception.ValidationException;
+import org.splitzy.common.version.ResourceVersionService;
 import org.splitzy.expense.dto.response.BalanceResponse;
 import org.splitzy.expense.entity.UserBalance;
 import org.splitzy.expense.repository.UserBalanceRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,73 +29,74 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional
 public class BalanceService {
+    public static final String BALANCES_RESOURCE = "balances";
+
     private final UserBalanceRepository userBalanceRepository;
+    private final FxRateService fxRateService;
+    private final ResourceVersionService resourceVersionService;
+
+    @Value("${expense.balance.default-currency:INR}")
+    private String defaultCurrency;
 
     /**
-     * Get balance for a specific pair of users
+     * Get balance for a specific pair of users, with totals in the requested currency
      */
     @Transactional(readOnly = true)
-    public BalanceResponse getBalanceBetweenUsers(Long user1Id, Long user2Id) {
+    public BalanceResponse getBalanceBetweenUsers(Long user1Id, Long user2Id, String currency) {
         log.debug("Fetching balance between users: {} and {}", user1Id, user2Id);
 
-        Optional<UserBalance> balance = userBalanceRepository.findBalanceBetweenUsers(user1Id, user2Id);
+        String targetCurrency = resolveCurrency(currency);
+        List<UserBalance> balances = userBalanceRepository.findBalancesBetweenUsers(user1Id, user2Id);
 
-        if (balance.isEmpty()) {
+        if (balances.isEmpty()) {
             // No balance record exists, create default zero balance
-            return createDefaultBalance(user1Id, user2Id);
+            return createDefaultBalance(user1Id, targetCurrency);
         }
 
-        UserBalance userBalance = balance.get();
-        return mapToResponse(userBalance, user1Id);
+        return buildResponse(user1Id, balances, userBalanceRepository.findUserBalances(user1Id), targetCurrency);
+    }
+
+    /**
+     * ETag of a user's balances in a currency, built from the version counter and FX snapshot only
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String getUserBalancesEtag(Long userId, String currency) {
+        return resourceVersionService.etag(BALANCES_RESOURCE, userId, resolveCurrency(currency), fxRateService.getSnapshot().getVersion());
     }
 
     /**
-     * Get all balances for a user
+     * Get all balances for a user, with totals in the requested currency
      */
     @Transactional(readOnly = true)
-    public BalanceResponse getUserBalances(Long userId) {
+    public BalanceResponse getUserBalances(Long userId, String currency) {
         log.debug("Fetching all balances for user: {}", userId);
 
         List<UserBalance> balances = userBalanceRepository.findUserBalances(userId);
-
-        BigDecimal totalOwed = userBalanceRepository.calculateTotalOwedByUser(userId);
-        BigDecimal totalOwedBy = userBalanceRepository.calculateTotalOwedToUser(userId);
-        BigDecimal netBalance = totalOwedBy.subtract(totalOwed);
-
-        List<BalanceResponse.IndividualBalance> individualBalances = balances.stream()
-                .map(b -> mapToIndividualBalance(b, userId))
-                .collect(Collectors.toList());
-
-        return BalanceResponse.builder()
-                .userId(userId)
-                .totalOwed(totalOwed)
-                .totalOwedBy(totalOwedBy)
-                .netBalance(netBalance)
-                .currency("INR")
-                .balances(individualBalances)
-                .build();
+        return buildResponse(userId, balances, balances, resolveCurrency(currency));
     }
 
     /**
      * Get paginated balances for a user
      */
     @Transactional(readOnly = true)
-    public Page<BalanceResponse.IndividualBalance> getUserBalancesPaginated(Long userId, int page, int size) {
+    public Page<BalanceResponse.IndividualBalance> getUserBalancesPaginated(Long userId, int page, int size, String currency) {
         log.debug("Fetching paginated balances for user: {}", userId);
 
+        String targetCurrency = resolveCurrency(currency);
+        FxSnapshot rates = fxRateService.getSnapshot();
         Pageable pageable = PageRequest.of(page, size);
         Page<UserBalance> balances = userBalanceRepository.findUserBalancesPaginated(userId, pageable);
 
-        return balances.map(b -> mapToIndividualBalance(b, userId));
+        return balances.map(b -> mapToIndividualBalance(b, userId, rates, targetCurrency));
     }
 
     /**
-     * Update or create balance between two users
+     * Update or create balance between two users in a currency
      */
-    public void updateBalance(Long user1Id, Long user2Id, BigDecimal amount) {
-        log.debug("Updating balance between users {} and {} with amount: {}", user1Id, user2Id, amount);
+    public void updateBalance(Long user1Id, Long user2Id, BigDecimal amount, String currency) {
+        log.debug("Updating balance between users {} and {} with amount: {} {}", user1Id, user2Id, amount, currency);
 
-        Optional<UserBalance> existingBalance = userBalanceRepository.findBalanceBetweenUsers(user1Id, user2Id);
+        Optional<UserBalance> existingBalance = userBalanceRepository.findBalanceBetweenUsers(user1Id, user2Id, currency);
 
         if (existingBalance.isPresent()) {
             UserBalance balance = existingBalance.get();
@@ -101,100 +108,133 @@ public class BalanceService {
                     .user1Id(user1Id)
                     .user2Id(user2Id)
                     .balanceAmount(amount)
-                    .currency("INR")
+                    .currency(currency)
                     .build();
             userBalanceRepository.save(newBalance);
         }
+        resourceVersionService.bumpAfterCommit(BALANCES_RESOURCE, List.of(user1Id, user2Id));
 
         log.debug("Balance updated successfully");
     }
 
     /**
-     * Settle balance between two users
+     * Settle balance between two users in a currency
      */
-    public void settleBalance(Long user1Id, Long user2Id) {
-        log.info("Settling balance between users: {} and {}", user1Id, user2Id);
+    public void settleBalance(Long user1Id, Long user2Id, String currency) {
+        log.info("Settling {} balance between users: {} and {}", currency, user1Id, user2Id);
 
-        Optional<UserBalance> balance = userBalanceRepository.findBalanceBetweenUsers(user1Id, user2Id);
+        Optional<UserBalance> balance = userBalanceRepository.findBalanceBetweenUsers(user1Id, user2Id, currency);
         if (balance.isPresent()) {
             balance.get().settle();
             userBalanceRepository.save(balance.get());
+            resourceVersionService.bumpAfterCommit(BALANCES_RESOURCE, List.of(user1Id, user2Id));
             log.info("Balance settled successfully");
         }
     }
 
     /**
-     * Partially settle balance
+     * Partially settle balance in a currency
      */
-    public void partiallySettleBalance(Long user1Id, Long user2Id, BigDecimal amount) {
-        log.info("Partially settling balance between users: {} and {} with amount: {}", user1Id, user2Id, amount);
+    public void partiallySettleBalance(Long user1Id, Long user2Id, BigDecimal amount, String currency) {
+        log.info("Partially settling balance between users: {} and {} with amount: {} {}", user1Id, user2Id, amount, currency);
 
-        Optional<UserBalance> balance = userBalanceRepository.findBalanceBetweenUsers(user1Id, user2Id);
+        Optional<UserBalance> balance = userBalanceRepository.findBalanceBetweenUsers(user1Id, user2Id, currency);
         if (balance.isPresent()) {
             balance.get().partiallySettle(amount);
             userBalanceRepository.save(balance.get());
+            resourceVersionService.bumpAfterCommit(BALANCES_RESOURCE, List.of(user1Id, user2Id));
             log.info("Balance partially settled successfully");
         } else {
             throw new ResourceNotFoundException("Balance not found between users");
         }
     }
 
+    /**
+     * Requested currency, or the configured default when none is given
+     */
+    public String resolveCurrency(String currency) {
+        FxSnapshot rates = fxRateService.getSnapshot();
+        if (currency == null || currency.isBlank()) {
+            // Without rates loaded yet only the base currency can be served
+            return rates.supports(defaultCurrency) ? defaultCurrency : rates.getBaseCurrency();
+        }
+        String resolved = currency.toUpperCase();
+        if (!rates.supports(resolved)) {
+            throw new ValidationException("Unsupported currency: " + resolved);
+        }
+        return resolved;
+    }
+
     /**
      * Create default zero balance response
      */
-    private BalanceResponse createDefaultBalance(Long user1Id, Long user2Id) {
+    BalanceResponse createDefaultBalance(Long userId, String currency) {
         return BalanceResponse.builder()
-                .userId(user1Id)
+                .userId(userId)
                 .totalOwed(BigDecimal.ZERO)
                 .totalOwedBy(BigDecimal.ZERO)
                 .netBalance(BigDecimal.ZERO)
-                .currency("INR")
+                .currency(currency)
                 .balances(new ArrayList<>())
                 .build();
     }
 
     /**
-     * Map UserBalance to BalanceResponse
+     * Build the response from rows already loaded; totals are converted in memory against one FX snapshot.
+     * Rows in a currency the snapshot has no rate for are listed unconverted, left out of the totals and flagged.
+     * Shared with the reactive read path, which loads the same rows through R2DBC.
      */
-    private BalanceResponse mapToResponse(UserBalance userBalance, Long userId) {
-        BigDecimal totalOwed = userBalanceRepository.calculateTotalOwedByUser(userId);
-        BigDecimal totalOwedBy = userBalanceRepository.calculateTotalOwedToUser(userId);
+    BalanceResponse buildResponse(Long userId, List<UserBalance> listed, List<UserBalance> totalled, String currency) {
+        FxSnapshot rates = fxRateService.getSnapshot();
+
+        BigDecimal totalOwed = BigDecimal.ZERO;
+        BigDecimal totalOwedBy = BigDecimal.ZERO;
+        Set<String> unconverted = new TreeSet<>();
+        for (UserBalance balance : totalled) {
+            if (!rates.canConvert(balance.getCurrency(), currency)) {
+                unconverted.add(balance.getCurrency());
+                continue;
+            }
+            BigDecimal owedByUser = balance.getUser1Id().equals(userId) ? balance.getBalanceAmount() : balance.getBalanceAmount().negate();
+            BigDecimal converted = rates.convert(owedByUser, balance.getCurrency(), currency);
+            if (converted.signum() > 0) {
+                totalOwed = totalOwed.add(converted);
+            } else {
+                totalOwedBy = totalOwedBy.add(converted.negate());
+            }
+        }
 
-        List<BalanceResponse.IndividualBalance> balances = new ArrayList<>();
-        balances.add(mapToIndividualBalance(userBalance, userId));
+        List<BalanceResponse.IndividualBalance> individualBalances = listed.stream()
+                .map(b -> mapToIndividualBalance(b, userId, rates, currency))
+                .collect(Collectors.toList());
 
         return BalanceResponse.builder()
                 .userId(userId)
                 .totalOwed(totalOwed)
                 .totalOwedBy(totalOwedBy)
                 .netBalance(totalOwedBy.subtract(totalOwed))
-                .currency("INR")
-                .balances(balances)
+                .currency(currency)
+                .unconvertedCurrencies(List.copyOf(unconverted))
+                .balances(individualBalances)
                 .build();
     }
 
     /**
-     * Map UserBalance to IndividualBalance
+     * Map UserBalance to IndividualBalance, keeping the row currency and adding the converted amount when there is a rate
      */
-    private BalanceResponse.IndividualBalance mapToIndividualBalance(UserBalance balance, Long userId) {
-        if (balance.getUser1Id().equals(userId)) {
-            String type = balance.getBalanceAmount().compareTo(BigDecimal.ZERO) > 0 ? "owes" : "owed_by";
-            return BalanceResponse.IndividualBalance.builder()
-                    .otherUserId(balance.getUser2Id())
-                    .amount(balance.getBalanceAmount().abs())
-                    .type(type)
-                    .currency("INR")
-                    .build();
-        } else {
-            // Reverse the amount and type for user2
-            BigDecimal reversedAmount = balance.getBalanceAmount().negate();
-            String type = reversedAmount.compareTo(BigDecimal.ZERO) > 0 ? "owes" : "owed_by";
-            return BalanceResponse.IndividualBalance.builder()
-                    .otherUserId(balance.getUser1Id())
-                    .amount(reversedAmount.abs())
-                    .type(type)
-                    .currency("INR")
-                    .build();
-        }
+    BalanceResponse.IndividualBalance mapToIndividualBalance(UserBalance balance, Long userId, FxSnapshot rates, String currency) {
+        boolean isUser1 = balance.getUser1Id().equals(userId);
+        // Reverse the amount and type for user2
+        BigDecimal amount = isUser1 ? balance.getBalanceAmount() : balance.getBalanceAmount().negate();
+        String type = amount.compareTo(BigDecimal.ZERO) > 0 ? "owes" : "owed_by";
+        return BalanceResponse.IndividualBalance.builder()
+                .otherUserId(isUser1 ? balance.getUser2Id() : balance.getUser1Id())
+                .amount(amount.abs())
+                .type(type)
+                .currency(balance.getCurrency())
+                .convertedAmount(rates.canConvert(balance.getCurrency(), currency)
+                        ? rates.convert(amount.abs(), balance.getCurrency(), currency) : null)
+                .convertedCurrency(currency)
+                .build();
     }
 }
@@ -8,6 +8,7 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -24,6 +25,22 @@ public class ExpenseEventPublisher {
         log.info("Published EXPENSE_CREATED event for expense: {}", expense.getId());
     }
 
+    /**
+     * Publish EXPENSE_CREATED for a batch of expenses and flush once,
+     * so the producer sends them in a few large requests instead of one per expense
+     */
+    public void publishExpensesCreated(List<Expense> expenses) {
+        for (Expense expense : expenses) {
+            publishEvent(buildExpenseEvent(ExpenseEvent.EventType.EXPENSE_CREATED.name(), expense));
+        }
+        try {
+            kafkaTemplate.flush();
+        } catch (Exception e) {
+            log.error("Failed to flush expense events to kafka: {}", e.getMessage(), e);
+        }
+        log.info("Published {} EXPENSE_CREATED events", expenses.size());
+    }
+
     public void publishExpenseUpdated(Expense expense) {
         ExpenseEvent event = buildExpenseEvent(ExpenseEvent.EventType.EXPENSE_UPDATED.name(), expense);
         publishEvent(event);
@@ -8,7 +8,11 @@ import org.splitzy.common.criteria.SearchOperation;
 import org.splitzy.common.dto.PageResponse;
 import org.splitzy.common.exception.ResourceNotFoundException;
 import org.splitzy.common.exception.ValidationException;
+import org.splitzy.common.version.ResourceVersionService;
+import org.splitzy.expense.dto.ExpenseDetail;
 import org.splitzy.expense.dto.ExpenseSearchCriteria;
+import org.splitzy.expense.dto.ExpenseSummary;
+import org.splitzy.expense.dto.SplitView;
 import org.splitzy.expense.dto.request.CreateExpenseRequest;
 import org.splitzy.expense.dto.request.UpdateExpenseRequest;
 import org.splitzy.expense.dto.response.ExpenseResponse;
@@ -23,12 +27,14 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -36,11 +42,14 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional
 public class ExpenseService {
+    public static final String EXPENSE_RESOURCE = "expense";
 
     private final ExpenseRepository expenseRepository;
     private final ExpenseSplitRepository expenseSplitRepository;
     private final SplitCalculationService splitCalculationService;
     private final ExpenseEventPublisher expenseEventPublisher;
+    private final GroupBalanceService groupBalanceService;
+    private final ResourceVersionService resourceVersionService;
 
     public ExpenseResponse createExpense(CreateExpenseRequest request, Long requestingUsedId) {
         log.info("Creating expense: {} with total amount: {}", request.getTitle(), request.getTotalAmount());
@@ -71,16 +80,24 @@ public class ExpenseService {
 
         Expense savedExpense = expenseRepository.save(expense);
         log.info("Expense created successfully with ID: {}", savedExpense.getId());
+        groupBalanceService.recordExpense(savedExpense);
         expenseEventPublisher.publishExpenseCreated(savedExpense);
         return mapToResponse(savedExpense);
     }
 
+    /** ETag of an expense, built from its version counter only */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String getExpenseEtag(Long expenseId) {
+        return resourceVersionService.etag(EXPENSE_RESOURCE, expenseId);
+    }
+
     @Transactional(readOnly = true)
     public ExpenseResponse getExpenseById(Long expenseId) {
         log.debug("Fetching expense with ID: {}", expenseId);
 
-        Expense expense = expenseRepository.findById(expenseId).orElseThrow(() -> new ResourceNotFoundException("Expense", "id", expenseId));
-        return mapToResponse(expense);
+        ExpenseDetail expense = expenseRepository.findExpenseDetail(expenseId).orElseThrow(() -> new ResourceNotFoundException("Expense", "id", expenseId));
+        List<SplitView> splits = expenseSplitRepository.findSplitViewsByExpenseIds(List.of(expenseId));
+        return mapDetailToResponse(expense, splits);
     }
 
     // Update expense
@@ -115,10 +132,16 @@ public class ExpenseService {
             expense.setReceiptUrl(request.getReceiptUrl());
         }
         if (request.getStatus() != null) {
+            if (request.getStatus() == Expense.ExpenseStatus.SETTLED) {
+                // Settling by hand settles every split; the group matrices drop what was still outstanding
+                groupBalanceService.reverseExpense(expense);
+                expense.getSplits().forEach(ExpenseSplit::markAsSettled);
+            }
             expense.setStatus(request.getStatus());
         }
 
         Expense updatedExpense = expenseRepository.save(expense);
+        resourceVersionService.bumpAfterCommit(EXPENSE_RESOURCE, expenseId);
         log.info("Expense updated successfully with ID: {}", expenseId);
 
         // Publish event
@@ -180,10 +203,10 @@ public class ExpenseService {
                 sort
         );
 
-        Specification<Expense> spec = GenericCriteriaBuilder.of(searchCriteria).build();
-        Page<Expense> expenses = expenseRepository.findUserExpenses(userId, pageable);
+        Specification<Expense> spec = GenericCriteriaBuilder.<Expense>of(searchCriteria).build();
+        Page<ExpenseSummary> expenses = expenseRepository.findUserExpenseSummaries(userId, pageable);
 
-        return PageResponse.of(expenses.map(this::mapToResponse));
+        return PageResponse.of(mapSummaryPage(expenses));
     }
 
     /** Get unsettled expenses for user */
@@ -192,11 +215,9 @@ public class ExpenseService {
         log.debug("Fetching unsettled expenses for user: {}", userId);
 
         Pageable pageable = PageRequest.of(0, 1000);
-        Page<Expense> unsettledExpenses = expenseRepository.findUnsettledExpenses(userId, pageable);
+        Page<ExpenseSummary> unsettledExpenses = expenseRepository.findUnsettledExpenseSummaries(userId, pageable);
 
-        return unsettledExpenses.getContent().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return mapSummaryPage(unsettledExpenses).getContent();
     }
 
     /** Delete expense (soft delete) */
@@ -208,6 +229,8 @@ public class ExpenseService {
 
         expense.setIsActive(false);
         expenseRepository.save(expense);
+        groupBalanceService.reverseExpense(expense);
+        resourceVersionService.bumpAfterCommit(EXPENSE_RESOURCE, expenseId);
 
         // Publish event
         expenseEventPublisher.publishExpenseDeleted(expense);
@@ -270,6 +293,79 @@ public class ExpenseService {
                 .build();
     }
 
+    /**
+     * Assemble a page of responses from summary records and their splits, loaded with one IN query
+     */
+    private Page<ExpenseResponse> mapSummaryPage(Page<ExpenseSummary> summaries) {
+        if (summaries.isEmpty()) {
+            return summaries.map(summary -> mapSummaryToResponse(summary, List.of()));
+        }
+        List<Long> expenseIds = summaries.getContent().stream()
+                .map(ExpenseSummary::id)
+                .collect(Collectors.toList());
+        Map<Long, List<SplitView>> splitsByExpense = expenseSplitRepository.findSplitViewsByExpenseIds(expenseIds).stream()
+                .collect(Collectors.groupingBy(SplitView::expenseId));
+
+        return summaries.map(summary -> mapSummaryToResponse(summary, splitsByExpense.getOrDefault(summary.id(), List.of())));
+    }
+
+    private ExpenseResponse mapSummaryToResponse(ExpenseSummary expense, List<SplitView> splits) {
+        return ExpenseResponse.builder()
+                .id(expense.id())
+                .title(expense.title())
+                .totalAmount(expense.totalAmount())
+                .currency(expense.currency())
+                .paidByUserId(expense.paidByUserId())
+                .expenseDate(expense.expenseDate())
+                .category(expense.category())
+                .splitType(expense.splitType())
+                .groupId(expense.groupId())
+                .status(expense.status())
+                .splits(splits.stream()
+                        .map(this::mapSplitViewToResponse)
+                        .collect(Collectors.toList()))
+                .createdAt(expense.createdAt())
+                .updatedAt(expense.updatedAt())
+                .build();
+    }
+
+    private ExpenseResponse mapDetailToResponse(ExpenseDetail expense, List<SplitView> splits) {
+        return ExpenseResponse.builder()
+                .id(expense.id())
+                .title(expense.title())
+                .description(expense.description())
+                .totalAmount(expense.totalAmount())
+                .currency(expense.currency())
+                .paidByUserId(expense.paidByUserId())
+                .expenseDate(expense.expenseDate())
+                .category(expense.category())
+                .splitType(expense.splitType())
+                .groupId(expense.groupId())
+                .notes(expense.notes())
+                .receiptUrl(expense.receiptUrl())
+                .status(expense.status())
+                .splits(splits.stream()
+                        .map(this::mapSplitViewToResponse)
+                        .collect(Collectors.toList()))
+                .createdAt(expense.createdAt())
+                .updatedAt(expense.updatedAt())
+                .build();
+    }
+
+    private ExpenseResponse.SplitResponse mapSplitViewToResponse(SplitView split) {
+        return ExpenseResponse.SplitResponse.builder()
+                .id(split.id())
+                .userId(split.userId())
+                .amount(split.amount())
+                .percentage(split.percentage())
+                .shares(split.shares())
+                .isSettled(split.isSettled())
+                .settledAmount(split.settledAmount())
+                .remainingAmount(split.remainingAmount())
+                .notes(split.notes())
+                .build();
+    }
+
     private ExpenseResponse.SplitResponse mapSplitToResponse(ExpenseSplit split) {
         return ExpenseResponse.SplitResponse.builder()
                 .id(split.getId())
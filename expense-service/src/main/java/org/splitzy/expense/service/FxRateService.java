@@ -0,0 +1,60 @@
+package org.splitzy.expense.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.splitzy.expense.entity.FxRate;
+import org.splitzy.expense.repository.FxRateRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serves exchange rates from an in-memory snapshot of the local fx_rates table.
+ * The snapshot is reloaded periodically and swapped atomically; conversions never hit the database.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FxRateService {
+
+    private final FxRateRepository fxRateRepository;
+    private final AtomicReference<FxSnapshot> snapshot = new AtomicReference<>();
+
+    @Value("${expense.fx.base-currency:INR}")
+    private String baseCurrency;
+
+    @PostConstruct
+    public void init() {
+        snapshot.set(new FxSnapshot(baseCurrency, Map.of(), LocalDateTime.now()));
+        refresh();
+    }
+
+    /**
+     * Current snapshot; callers should take it once per request so all conversions use the same rates
+     */
+    public FxSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    @Scheduled(fixedDelayString = "${expense.fx.refresh-interval:PT5M}", initialDelayString = "${expense.fx.refresh-interval:PT5M}")
+    public void refresh() {
+        try {
+            Map<String, BigDecimal> rates = new HashMap<>();
+            for (FxRate rate : fxRateRepository.findByIsActiveTrue()) {
+                rates.put(rate.getCurrency(), rate.getRateToBase());
+            }
+            snapshot.set(new FxSnapshot(baseCurrency, rates, LocalDateTime.now()));
+            log.debug("Loaded {} FX rates against {}", rates.size(), baseCurrency);
+        } catch (Exception e) {
+            // Keep serving the previous snapshot
+            log.error("Failed to refresh FX rates: {}", e.getMessage(), e);
+        }
+    }
+}
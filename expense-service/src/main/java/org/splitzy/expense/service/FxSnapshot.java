@@ -0,0 +1,94 @@
+package org.splitzy.expense.service;
+
+import org.splitzy.common.exception.ValidationException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable set of exchange rates against a base currency.
+ * A snapshot is built in full and then swapped in, so readers always see one consistent set of rates.
+ */
+public final class FxSnapshot {
+
+    private static final int SCALE = 2;
+    private static final int RATE_SCALE = 12;
+
+    private final String baseCurrency;
+    private final Map<String, BigDecimal> ratesToBase;
+    private final LocalDateTime loadedAt;
+    private final String version;
+
+    public FxSnapshot(String baseCurrency, Map<String, BigDecimal> ratesToBase, LocalDateTime loadedAt) {
+        this.baseCurrency = baseCurrency;
+        this.ratesToBase = Map.copyOf(ratesToBase);
+        this.loadedAt = loadedAt;
+        this.version = digest(baseCurrency, this.ratesToBase);
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public LocalDateTime getLoadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * Identifier of the rate set, for cache validators of converted responses.
+     * Derived from the rates alone, so every instance gives the same one and reloads of unchanged rates keep it.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    public boolean supports(String currency) {
+        return baseCurrency.equals(currency) || ratesToBase.containsKey(currency);
+    }
+
+    public boolean canConvert(String fromCurrency, String toCurrency) {
+        return fromCurrency.equals(toCurrency) || (supports(fromCurrency) && supports(toCurrency));
+    }
+
+    /**
+     * Convert an amount between two currencies through the base currency
+     */
+    public BigDecimal convert(BigDecimal amount, String fromCurrency, String toCurrency) {
+        if (fromCurrency.equals(toCurrency) || amount.signum() == 0) {
+            return amount;
+        }
+        BigDecimal inBase = amount.multiply(rateToBase(fromCurrency));
+        return inBase.divide(rateToBase(toCurrency), SCALE, RoundingMode.HALF_UP);
+    }
+
+    private BigDecimal rateToBase(String currency) {
+        if (baseCurrency.equals(currency)) {
+            return BigDecimal.ONE;
+        }
+        BigDecimal rate = ratesToBase.get(currency);
+        if (rate == null) {
+            throw new ValidationException("No exchange rate available for currency: " + currency);
+        }
+        return rate.setScale(RATE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    // First 128 bits of a SHA-256 over the base currency and the rates in currency order
+    private static String digest(String baseCurrency, Map<String, BigDecimal> ratesToBase) {
+        StringBuilder canonical = new StringBuilder(baseCurrency);
+        new TreeMap<>(ratesToBase).forEach((currency, rate) ->
+                canonical.append(';').append(currency).append('=').append(rate.stripTrailingZeros().toPlainString()));
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.splitzy.expense.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the group balance matrices of other instances in step with writes made here.
+ * The writing instance applies its deltas itself; every other instance is told on a pub/sub channel to drop
+ * its matrices of the written groups, and rebuilds them on the next read. Deltas are not sent, as the
+ * receiver cannot place a remote commit against its own loads. A message lost while the subscription
+ * is down is bounded by the cache's time-to-live.
+ */
+@Slf4j
+@Component
+public class GroupBalanceEvictions implements MessageListener {
+
+    // Distinguishes this instance's own messages, which it has already applied as deltas
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final StringRedisTemplate redisTemplate;
+    private final Cache<Long, GroupBalances> groupBalanceCache;
+    private final String channel;
+
+    public GroupBalanceEvictions(StringRedisTemplate redisTemplate,
+                                 Cache<Long, GroupBalances> groupBalanceCache,
+                                 @Value("${expense.group-balance.channel:expense:group-balances}") String channel) {
+        this.redisTemplate = redisTemplate;
+        this.groupBalanceCache = groupBalanceCache;
+        this.channel = channel;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * Tell the other instances to drop their matrices of these groups; call once the write has committed
+     */
+    public void publish(Collection<Long> groupIds) {
+        if (groupIds.isEmpty()) {
+            return;
+        }
+        String ids = groupIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        try {
+            redisTemplate.convertAndSend(channel, instanceId + " " + ids);
+        } catch (Exception e) {
+            // Other instances catch up when their entries expire
+            log.warn("Failed to publish group balance eviction: {}", e.getMessage());
+        }
+    }
+
+    // Messages are "<instanceId> <groupId>,<groupId>,..."
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(" ");
+        if (parts.length != 2) {
+            log.warn("Ignoring malformed group balance eviction");
+            return;
+        }
+        if (instanceId.equals(parts[0])) {
+            return;
+        }
+        try {
+            List<Long> groupIds = new ArrayList<>();
+            for (String id : parts[1].split(",")) {
+                groupIds.add(Long.parseLong(id));
+            }
+            // Waits for a load of the same group in progress, so a matrix read before the write is dropped too
+            groupBalanceCache.invalidateAll(groupIds);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed group balance eviction: {}", e.getMessage());
+        }
+    }
+}
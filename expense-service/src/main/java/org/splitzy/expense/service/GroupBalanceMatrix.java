@@ -0,0 +1,156 @@
+package org.splitzy.expense.service;
+
+import org.splitzy.expense.dto.GroupDebt;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory balance state of a single group in one currency.
+ * Amounts are kept in minor units (paise) in primitive arrays keyed by member index:
+ * a dense net-position vector plus a sparse pairwise matrix stored as one compact row per member.
+ * All access is synchronized on the instance; writes are small deltas applied per expense.
+ */
+public final class GroupBalanceMatrix {
+
+    private static final int SCALE = 2;
+    private static final int INITIAL_MEMBERS = 16;
+    private static final int INITIAL_ROW_CAPACITY = 4;
+
+    private final Long groupId;
+    private final String currency;
+    private final Map<Long, Integer> memberIndex = new HashMap<>();
+    private long[] memberIds = new long[INITIAL_MEMBERS];
+    private long[] netPositions = new long[INITIAL_MEMBERS]; // Positive when the member is owed
+    private int[][] rowColumns = new int[INITIAL_MEMBERS][];
+    private long[][] rowAmounts = new long[INITIAL_MEMBERS][]; // Positive when row member owes column member
+    private int[] rowSizes = new int[INITIAL_MEMBERS];
+    private int memberCount;
+
+    public GroupBalanceMatrix(Long groupId, String currency) {
+        this.groupId = groupId;
+        this.currency = currency;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    /**
+     * Record that debtor owes creditor the given amount (negative amounts reduce the debt)
+     */
+    public synchronized void applyDebt(Long debtorId, Long creditorId, BigDecimal amount) {
+        if (debtorId.equals(creditorId) || amount == null || amount.signum() == 0) {
+            return;
+        }
+        long minor = toMinorUnits(amount);
+        int debtor = indexOf(debtorId);
+        int creditor = indexOf(creditorId);
+
+        netPositions[debtor] -= minor;
+        netPositions[creditor] += minor;
+        addToRow(debtor, creditor, minor);
+        addToRow(creditor, debtor, -minor);
+    }
+
+    /**
+     * Whether the user has ever had an amount in this matrix
+     */
+    public synchronized boolean hasMember(Long userId) {
+        return memberIndex.containsKey(userId);
+    }
+
+    /**
+     * Copy the net position of every member under the lock
+     */
+    public synchronized Map<Long, BigDecimal> getNetPositions() {
+        Map<Long, BigDecimal> positions = new HashMap<>(memberCount * 2);
+        for (int i = 0; i < memberCount; i++) {
+            positions.put(memberIds[i], fromMinorUnits(netPositions[i]));
+        }
+        return positions;
+    }
+
+    /**
+     * Copy the outstanding pairwise debts under the lock
+     */
+    public synchronized List<GroupDebt> getDebts() {
+        List<GroupDebt> debts = new ArrayList<>();
+        for (int i = 0; i < memberCount; i++) {
+            int[] columns = rowColumns[i];
+            long[] amounts = rowAmounts[i];
+            for (int k = 0; k < rowSizes[i]; k++) {
+                // Each pair is stored in both rows; emit it once from the owing side
+                if (amounts[k] > 0) {
+                    debts.add(new GroupDebt(memberIds[i], memberIds[columns[k]], currency, fromMinorUnits(amounts[k])));
+                }
+            }
+        }
+        return debts;
+    }
+
+    private int indexOf(Long userId) {
+        Integer index = memberIndex.get(userId);
+        if (index != null) {
+            return index;
+        }
+        if (memberCount == memberIds.length) {
+            int capacity = memberIds.length * 2;
+            memberIds = Arrays.copyOf(memberIds, capacity);
+            netPositions = Arrays.copyOf(netPositions, capacity);
+            rowColumns = Arrays.copyOf(rowColumns, capacity);
+            rowAmounts = Arrays.copyOf(rowAmounts, capacity);
+            rowSizes = Arrays.copyOf(rowSizes, capacity);
+        }
+        int newIndex = memberCount++;
+        memberIds[newIndex] = userId;
+        rowColumns[newIndex] = new int[INITIAL_ROW_CAPACITY];
+        rowAmounts[newIndex] = new long[INITIAL_ROW_CAPACITY];
+        memberIndex.put(userId, newIndex);
+        return newIndex;
+    }
+
+    private void addToRow(int row, int column, long delta) {
+        int[] columns = rowColumns[row];
+        long[] amounts = rowAmounts[row];
+        int size = rowSizes[row];
+
+        for (int k = 0; k < size; k++) {
+            if (columns[k] == column) {
+                amounts[k] += delta;
+                if (amounts[k] == 0) {
+                    // Keep rows sparse: swap the last entry into the freed slot
+                    columns[k] = columns[size - 1];
+                    amounts[k] = amounts[size - 1];
+                    rowSizes[row] = size - 1;
+                }
+                return;
+            }
+        }
+
+        if (size == columns.length) {
+            rowColumns[row] = columns = Arrays.copyOf(columns, size * 2);
+            rowAmounts[row] = amounts = Arrays.copyOf(amounts, size * 2);
+        }
+        columns[size] = column;
+        amounts[size] = delta;
+        rowSizes[row] = size + 1;
+    }
+
+    private static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal fromMinorUnits(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+}
@@ -0,0 +1,221 @@
+package org.splitzy.expense.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.splitzy.expense.dto.GroupDebt;
+import org.splitzy.expense.dto.response.GroupBalanceResponse;
+import org.splitzy.expense.entity.Expense;
+import org.splitzy.expense.entity.ExpenseSplit;
+import org.splitzy.expense.repository.ExpenseSplitRepository;
+import org.splitzy.common.exception.BusinessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Group balance view backed by in-memory matrices per hot group, one per currency.
+ * The matrices are built once from a single aggregate query and then kept current
+ * by applying each group expense write as a delta after its transaction commits.
+ * A write that committed while the matrices were being read may already be in them;
+ * such a delta drops the cached matrices instead of risking counting it twice.
+ * Other instances drop their matrices of the group on each write, see GroupBalanceEvictions.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GroupBalanceService {
+
+    private final ExpenseSplitRepository expenseSplitRepository;
+    private final Cache<Long, GroupBalances> groupBalanceCache;
+    private final BalanceService balanceService;
+    private final FxRateService fxRateService;
+    private final GroupBalanceEvictions groupBalanceEvictions;
+
+    /**
+     * Get net positions and pairwise balances for a group, converted to the requested currency.
+     * Only members of the group, i.e. users with a share in or who paid one of its expenses, may read them.
+     * Not transactional: the aggregate query must read in its own snapshot, taken after the load window opens.
+     */
+    public GroupBalanceResponse getGroupBalances(Long groupId, Long requestingUserId, String currency) {
+        log.debug("Fetching group balances for group: {}", groupId);
+
+        String targetCurrency = balanceService.resolveCurrency(currency);
+        FxSnapshot rates = fxRateService.getSnapshot();
+        Collection<GroupBalanceMatrix> matrices = groupBalanceCache.get(groupId, this::loadMatrices).matrices().values();
+        if (!isMember(matrices, requestingUserId) && !expenseSplitRepository.isGroupMember(groupId, requestingUserId)) {
+            throw new BusinessException("You are not a member of this group", HttpStatus.FORBIDDEN, "NOT_GROUP_MEMBER");
+        }
+
+        Map<Long, BigDecimal> netPositions = new LinkedHashMap<>();
+        Map<List<Long>, BigDecimal> pairs = new LinkedHashMap<>(); // [lower id, higher id] -> amount lower owes higher
+        Set<String> unconverted = new TreeSet<>();
+        for (GroupBalanceMatrix matrix : matrices) {
+            if (!rates.canConvert(matrix.getCurrency(), targetCurrency)) {
+                unconverted.add(matrix.getCurrency());
+                continue;
+            }
+            matrix.getNetPositions().forEach((userId, amount) ->
+                    netPositions.merge(userId, rates.convert(amount, matrix.getCurrency(), targetCurrency), BigDecimal::add));
+            for (GroupDebt debt : matrix.getDebts()) {
+                BigDecimal amount = rates.convert(debt.amount(), debt.currency(), targetCurrency);
+                if (debt.debtorUserId() < debt.creditorUserId()) {
+                    pairs.merge(List.of(debt.debtorUserId(), debt.creditorUserId()), amount, BigDecimal::add);
+                } else {
+                    pairs.merge(List.of(debt.creditorUserId(), debt.debtorUserId()), amount.negate(), BigDecimal::add);
+                }
+            }
+        }
+
+        List<GroupBalanceResponse.MemberBalance> members = new ArrayList<>(netPositions.size());
+        netPositions.forEach((userId, amount) -> members.add(GroupBalanceResponse.MemberBalance.builder()
+                .userId(userId)
+                .netBalance(amount)
+                .build()));
+
+        List<GroupBalanceResponse.PairwiseBalance> debts = new ArrayList<>(pairs.size());
+        pairs.forEach((pair, amount) -> {
+            if (amount.signum() != 0) {
+                boolean lowerOwes = amount.signum() > 0;
+                debts.add(GroupBalanceResponse.PairwiseBalance.builder()
+                        .fromUserId(lowerOwes ? pair.get(0) : pair.get(1))
+                        .toUserId(lowerOwes ? pair.get(1) : pair.get(0))
+                        .amount(amount.abs())
+                        .build());
+            }
+        });
+
+        return GroupBalanceResponse.builder()
+                .groupId(groupId)
+                .currency(targetCurrency)
+                .unconvertedCurrencies(List.copyOf(unconverted))
+                .members(members)
+                .debts(debts)
+                .build();
+    }
+
+    /**
+     * Apply a newly created group expense
+     */
+    public void recordExpense(Expense expense) {
+        applyAfterCommit(expense, false);
+    }
+
+    /**
+     * Remove the outstanding amounts of a deleted group expense
+     */
+    public void reverseExpense(Expense expense) {
+        applyAfterCommit(expense, true);
+    }
+
+    /**
+     * Reduce what payer owes payee by the amounts settled in each group
+     */
+    public void recordSettlement(Long payerId, Long payeeId, String currency, Map<Long, BigDecimal> settledByGroup) {
+        List<Delta> deltas = new ArrayList<>();
+        settledByGroup.forEach((groupId, amount) -> deltas.add(new Delta(groupId, payerId, payeeId, currency, amount.negate())));
+        afterCommit(deltas);
+    }
+
+    private void applyAfterCommit(Expense expense, boolean reverse) {
+        if (expense.getGroupId() == null) {
+            return;
+        }
+
+        // Capture the deltas now; the entities may be detached once the transaction ends
+        List<Delta> deltas = new ArrayList<>(expense.getSplits().size());
+        for (ExpenseSplit split : expense.getSplits()) {
+            if (Boolean.TRUE.equals(split.getIsSettled()) || split.getUserId().equals(expense.getPaidByUserId())) {
+                continue;
+            }
+            BigDecimal outstanding = split.getRemainingAmount();
+            deltas.add(new Delta(expense.getGroupId(), split.getUserId(), expense.getPaidByUserId(), expense.getCurrency(),
+                    reverse ? outstanding.negate() : outstanding));
+        }
+        afterCommit(deltas);
+    }
+
+    // The commit happens between beforeCommit and afterCommit; both times are kept to place it against a load
+    private void afterCommit(List<Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private long commitStartedAt;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    commitStartedAt = System.nanoTime();
+                }
+
+                @Override
+                public void afterCommit() {
+                    applyDeltas(deltas, commitStartedAt, System.nanoTime());
+                }
+            });
+        } else {
+            long now = System.nanoTime();
+            applyDeltas(deltas, now, now);
+        }
+    }
+
+    private void applyDeltas(List<Delta> deltas, long commitStartedAt, long committedAt) {
+        Set<Long> groupIds = new LinkedHashSet<>();
+        for (Delta delta : deltas) {
+            groupIds.add(delta.groupId());
+            // Groups that are not cached are simply built fresh on their next read
+            groupBalanceCache.asMap().computeIfPresent(delta.groupId(), (id, balances) -> {
+                if (committedAt < balances.loadStartedAt()) {
+                    // Committed before the aggregate query started, so already counted
+                    return balances;
+                }
+                if (commitStartedAt <= balances.loadedAt()) {
+                    log.debug("Dropping balance matrices of group {}: a write committed while they were loaded", id);
+                    return null;
+                }
+                balances.matrices().computeIfAbsent(delta.currency(), c -> new GroupBalanceMatrix(id, c))
+                        .applyDebt(delta.debtorId(), delta.creditorId(), delta.amount());
+                return balances;
+            });
+        }
+        groupBalanceEvictions.publish(groupIds);
+    }
+
+    private GroupBalances loadMatrices(Long groupId) {
+        long loadStartedAt = System.nanoTime();
+        List<GroupDebt> debts = expenseSplitRepository.findOutstandingGroupDebts(groupId);
+        Map<String, GroupBalanceMatrix> matrices = new ConcurrentHashMap<>();
+        for (GroupDebt debt : debts) {
+            matrices.computeIfAbsent(debt.currency(), c -> new GroupBalanceMatrix(groupId, c))
+                    .applyDebt(debt.debtorUserId(), debt.creditorUserId(), debt.amount());
+        }
+        log.debug("Built balance matrices for group {} in {} currencies", groupId, matrices.size());
+        return new GroupBalances(matrices, loadStartedAt, System.nanoTime());
+    }
+
+    // Anyone with an outstanding amount in the group is a member; everyone else is checked in the database
+    private static boolean isMember(Collection<GroupBalanceMatrix> matrices, Long userId) {
+        for (GroupBalanceMatrix matrix : matrices) {
+            if (matrix.hasMember(userId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Delta(Long groupId, Long debtorId, Long creditorId, String currency, BigDecimal amount) {
+    }
+}
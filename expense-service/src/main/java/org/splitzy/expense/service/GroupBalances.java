@@ -0,0 +1,10 @@
+package org.splitzy.expense.service;
+
+import java.util.Map;
+
+/**
+ * Balance matrices of one group keyed by currency, with the window (System.nanoTime) in which they were
+ * read from the database. A write that committed inside the window may or may not be part of the matrices.
+ */
+public record GroupBalances(Map<String, GroupBalanceMatrix> matrices, long loadStartedAt, long loadedAt) {
+}
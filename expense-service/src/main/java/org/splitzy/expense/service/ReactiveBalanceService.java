@@ -0,0 +1,92 @@
+package org.splitzy.expense.service;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.splitzy.common.r2dbc.ReactiveReadDatabase;
+import org.splitzy.expense.dto.response.BalanceResponse;
+import org.splitzy.expense.entity.UserBalance;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Balance reads over R2DBC, returning the same responses as {@link BalanceService}.
+ * Requests wait on the database without holding a servlet thread, and the streaming
+ * variant emits rows as the client consumes them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "splitzy.reactive-read", name = "enabled", havingValue = "true")
+public class ReactiveBalanceService {
+
+    private static final String USER_BALANCES_SQL = "SELECT user1_id, user2_id, balance_amount, currency FROM user_balances " +
+            "WHERE (user1_id = :userId OR user2_id = :userId) AND balance_amount <> 0 ORDER BY balance_amount DESC";
+
+    private static final String PAIR_BALANCES_SQL = "SELECT user1_id, user2_id, balance_amount, currency FROM user_balances " +
+            "WHERE (user1_id = :user1Id AND user2_id = :user2Id) OR (user1_id = :user2Id AND user2_id = :user1Id)";
+
+    private final ReactiveReadDatabase database;
+    private final BalanceService balanceService;
+    private final FxRateService fxRateService;
+
+    /**
+     * Get all balances for a user, with totals in the requested currency
+     */
+    public Mono<BalanceResponse> getUserBalances(Long userId, String currency) {
+        String targetCurrency = balanceService.resolveCurrency(currency);
+        return findUserBalances(userId)
+                .collectList()
+                .map(balances -> balanceService.buildResponse(userId, balances, balances, targetCurrency));
+    }
+
+    /**
+     * Stream a user's balances one by one, converted to the requested currency
+     */
+    public Flux<BalanceResponse.IndividualBalance> streamUserBalances(Long userId, String currency) {
+        String targetCurrency = balanceService.resolveCurrency(currency);
+        FxSnapshot rates = fxRateService.getSnapshot();
+        return findUserBalances(userId)
+                .map(balance -> balanceService.mapToIndividualBalance(balance, userId, rates, targetCurrency));
+    }
+
+    /**
+     * Get the balance between two users; the user's overall totals are only read when the pair has balances
+     */
+    public Mono<BalanceResponse> getBalanceBetweenUsers(Long user1Id, Long user2Id, String currency) {
+        String targetCurrency = balanceService.resolveCurrency(currency);
+        Mono<List<UserBalance>> pair = database.getClient().sql(PAIR_BALANCES_SQL)
+                .bind("user1Id", user1Id)
+                .bind("user2Id", user2Id)
+                .map(ReactiveBalanceService::toBalance)
+                .all()
+                .collectList();
+
+        return pair.flatMap(balances -> balances.isEmpty()
+                ? Mono.just(balanceService.createDefaultBalance(user1Id, targetCurrency))
+                : findUserBalances(user1Id).collectList()
+                        .map(all -> balanceService.buildResponse(user1Id, balances, all, targetCurrency)));
+    }
+
+    private Flux<UserBalance> findUserBalances(Long userId) {
+        log.debug("Reading balances for user {} over R2DBC", userId);
+        return database.getClient().sql(USER_BALANCES_SQL)
+                .bind("userId", userId)
+                .map(ReactiveBalanceService::toBalance)
+                .all();
+    }
+
+    private static UserBalance toBalance(Readable row) {
+        return UserBalance.builder()
+                .user1Id(row.get("user1_id", Long.class))
+                .user2Id(row.get("user2_id", Long.class))
+                .balanceAmount(row.get("balance_amount", BigDecimal.class))
+                .currency(row.get("currency", String.class))
+                .build();
+    }
+}
@@ -0,0 +1,106 @@
+package org.splitzy.expense.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.splitzy.expense.entity.Expense;
+import org.splitzy.expense.entity.RecurringExpense;
+import org.splitzy.expense.repository.ExpenseBatchRepository;
+import org.splitzy.expense.repository.RecurringExpenseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns due recurring expense templates into expenses, one chunk per transaction.
+ * Templates are claimed with SKIP LOCKED so several instances can work the backlog in parallel.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecurringExpenseMaterializer {
+
+    private final RecurringExpenseRepository recurringExpenseRepository;
+    private final RecurringExpenseService recurringExpenseService;
+    private final ExpenseBatchRepository expenseBatchRepository;
+    private final GroupBalanceService groupBalanceService;
+    private final ExpenseEventPublisher expenseEventPublisher;
+
+    @Value("${expense.recurring.max-catch-up:12}")
+    private int maxCatchUp;
+
+    @Value("${expense.recurring.retry-delay:1h}")
+    private Duration retryDelay;
+
+    /**
+     * Materialize one chunk of due templates
+     * @return number of templates claimed
+     */
+    @Transactional
+    public int materializeDue(LocalDateTime now, int chunkSize) {
+        List<RecurringExpense> due = recurringExpenseRepository.findDueForUpdate(now, PageRequest.of(0, chunkSize));
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        LocalDate today = now.toLocalDate();
+        List<Expense> expenses = new ArrayList<>();
+        for (RecurringExpense template : due) {
+            materializeTemplate(template, today, now, expenses);
+        }
+
+        expenseBatchRepository.insertAll(expenses);
+        expenses.forEach(groupBalanceService::recordExpense);
+        publishAfterCommit(expenses);
+
+        log.info("Materialized {} expenses from {} recurring templates", expenses.size(), due.size());
+        return due.size();
+    }
+
+    private void materializeTemplate(RecurringExpense template, LocalDate today, LocalDateTime now, List<Expense> expenses) {
+        int generated = 0;
+        try {
+            // Catch up on missed occurrences, bounded so one stale template cannot flood a chunk
+            while (generated < maxCatchUp && !template.getNextOccurrenceDate().isAfter(today)
+                    && template.isWithinSchedule(template.getNextOccurrenceDate())) {
+                expenses.add(recurringExpenseService.toExpense(template, template.getNextOccurrenceDate()));
+                template.advanceOccurrence();
+                generated++;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to materialize recurring expense {}: {}", template.getId(), e.getMessage());
+            template.setNextRunAt(now.plus(retryDelay));
+            return;
+        } finally {
+            if (generated > 0) {
+                template.setLastMaterializedAt(now);
+            }
+        }
+
+        if (!template.isWithinSchedule(template.getNextOccurrenceDate())) {
+            log.info("Recurring expense {} reached its end date", template.getId());
+            template.setIsActive(false);
+        }
+        template.setNextRunAt(recurringExpenseService.nextRunAt(template.getNextOccurrenceDate()));
+    }
+
+    private void publishAfterCommit(List<Expense> expenses) {
+        if (expenses.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                expenseEventPublisher.publishExpensesCreated(expenses);
+            }
+        });
+    }
+}
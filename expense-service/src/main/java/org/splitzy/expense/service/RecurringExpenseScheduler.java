@@ -0,0 +1,44 @@
+package org.splitzy.expense.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Periodically drains due recurring expense templates in chunks
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "expense.recurring.scheduler.enabled", havingValue = "true", matchIfMissing = true)
+public class RecurringExpenseScheduler {
+
+    private final RecurringExpenseMaterializer recurringExpenseMaterializer;
+
+    @Value("${expense.recurring.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${expense.recurring.max-chunks-per-run:50}")
+    private int maxChunksPerRun;
+
+    @Scheduled(fixedDelayString = "${expense.recurring.poll-interval:PT1M}", initialDelayString = "${expense.recurring.initial-delay:PT30S}")
+    public void materializeDueExpenses() {
+        LocalDateTime now = LocalDateTime.now();
+        int processed = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            int claimed = recurringExpenseMaterializer.materializeDue(now, chunkSize);
+            processed += claimed;
+            if (claimed < chunkSize) {
+                break;
+            }
+        }
+        if (processed > 0) {
+            log.info("Recurring expense run processed {} templates", processed);
+        }
+    }
+}
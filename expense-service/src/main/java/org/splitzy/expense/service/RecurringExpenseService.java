@@ -0,0 +1,201 @@
+package org.splitzy.expense.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.splitzy.common.exception.ResourceNotFoundException;
+import org.splitzy.common.exception.ValidationException;
+import org.splitzy.expense.dto.request.CreateExpenseRequest;
+import org.splitzy.expense.dto.request.CreateRecurringExpenseRequest;
+import org.splitzy.expense.dto.response.RecurringExpenseResponse;
+import org.splitzy.expense.entity.Expense;
+import org.splitzy.expense.entity.RecurringExpense;
+import org.splitzy.expense.repository.RecurringExpenseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Manages recurring expense templates
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class RecurringExpenseService {
+
+    private final RecurringExpenseRepository recurringExpenseRepository;
+    private final SplitCalculationService splitCalculationService;
+
+    @Value("${expense.recurring.jitter-window:6h}")
+    private Duration jitterWindow;
+
+    public RecurringExpenseResponse createRecurringExpense(CreateRecurringExpenseRequest request, Long requestingUserId) {
+        log.info("Creating recurring expense: {} every {} {}", request.getTitle(), request.getIntervalCount(), request.getFrequency());
+
+        if (request.getEndDate() != null && request.getEndDate().isBefore(request.getStartDate())) {
+            throw new ValidationException("End date cannot be before start date");
+        }
+
+        RecurringExpense template = RecurringExpense.builder()
+                .title(request.getTitle())
+                .description(request.getDescription())
+                .totalAmount(request.getTotalAmount())
+                .currency(request.getCurrency())
+                .paidByUserId(request.getPaidByUserId())
+                .createdByUserId(requestingUserId)
+                .category(request.getCategory())
+                .splitType(request.getSplitType())
+                .groupId(request.getGroupId())
+                .notes(request.getNotes())
+                .frequency(request.getFrequency())
+                .intervalCount(request.getIntervalCount() != null ? request.getIntervalCount() : 1)
+                .startDate(request.getStartDate())
+                .endDate(request.getEndDate())
+                .nextOccurrenceDate(request.getStartDate())
+                .nextRunAt(nextRunAt(request.getStartDate()))
+                .splits(request.getSplits().stream()
+                        .map(this::toSplitTemplate)
+                        .collect(Collectors.toList()))
+                .build();
+
+        // Run the split calculation once up front so a broken template is rejected now, not at materialization
+        Expense preview = toExpense(template, template.getStartDate());
+        if (!preview.isSplitValid()) {
+            throw new ValidationException("Invalid recurring expense splits");
+        }
+
+        RecurringExpense saved = recurringExpenseRepository.save(template);
+        log.info("Recurring expense created with ID: {}, first run at {}", saved.getId(), saved.getNextRunAt());
+        return mapToResponse(saved);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecurringExpenseResponse> getUserRecurringExpenses(Long userId) {
+        log.debug("Fetching recurring expenses for user: {}", userId);
+
+        return recurringExpenseRepository.findActiveByUser(userId).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    /** Stop a recurring expense (soft delete); already generated expenses are kept */
+    public void deleteRecurringExpense(Long recurringExpenseId, Long requestingUserId) {
+        log.info("Deleting recurring expense with ID: {}", recurringExpenseId);
+
+        RecurringExpense template = recurringExpenseRepository.findById(recurringExpenseId)
+                .filter(RecurringExpense::getIsActive)
+                .orElseThrow(() -> new ResourceNotFoundException("RecurringExpense", "id", recurringExpenseId));
+
+        if (!template.getCreatedByUserId().equals(requestingUserId) && !template.getPaidByUserId().equals(requestingUserId)) {
+            throw new ValidationException("Only the creator or payer can delete a recurring expense");
+        }
+
+        template.setIsActive(false);
+        recurringExpenseRepository.save(template);
+    }
+
+    /**
+     * Time an occurrence is picked up: a random offset into its day, so templates that share
+     * a date (rent on the 1st) are spread across the jitter window instead of all firing at midnight
+     */
+    public LocalDateTime nextRunAt(LocalDate occurrenceDate) {
+        long windowSeconds = jitterWindow.toSeconds();
+        long offset = windowSeconds > 0 ? ThreadLocalRandom.current().nextLong(windowSeconds) : 0;
+        return occurrenceDate.atStartOfDay().plusSeconds(offset);
+    }
+
+    /**
+     * Build the expense for one occurrence of a template, with splits calculated the same way as a manual expense
+     */
+    public Expense toExpense(RecurringExpense template, LocalDate occurrenceDate) {
+        Expense expense = Expense.builder()
+                .splitType(template.getSplitType())
+                .totalAmount(template.getTotalAmount())
+                .title(template.getTitle())
+                .currency(template.getCurrency())
+                .description(template.getDescription())
+                .category(template.getCategory())
+                .paidByUserId(template.getPaidByUserId())
+                .groupId(template.getGroupId())
+                .status(Expense.ExpenseStatus.ACTIVE)
+                .expenseDate(occurrenceDate)
+                .notes(template.getNotes())
+                .build();
+
+        List<CreateExpenseRequest.SplitRequest> splitRequests = template.getSplits().stream()
+                .map(this::toSplitRequest)
+                .collect(Collectors.toList());
+        splitCalculationService.validateSplitRequests(expense, splitRequests);
+        splitCalculationService.calculateSplits(expense, splitRequests).forEach(expense::addSplit);
+        return expense;
+    }
+
+    private RecurringExpense.SplitTemplate toSplitTemplate(CreateExpenseRequest.SplitRequest request) {
+        return RecurringExpense.SplitTemplate.builder()
+                .userId(request.getUserId())
+                .amount(request.getAmount())
+                .percentage(request.getPercentage())
+                .shares(request.getShares())
+                .ratio(request.getRatio())
+                .itemTotal(request.getItemTotal())
+                .adjustment(request.getAdjustment())
+                .notes(request.getNotes())
+                .build();
+    }
+
+    private CreateExpenseRequest.SplitRequest toSplitRequest(RecurringExpense.SplitTemplate split) {
+        return CreateExpenseRequest.SplitRequest.builder()
+                .userId(split.getUserId())
+                .amount(split.getAmount())
+                .percentage(split.getPercentage())
+                .shares(split.getShares())
+                .ratio(split.getRatio())
+                .itemTotal(split.getItemTotal())
+                .adjustment(split.getAdjustment())
+                .notes(split.getNotes())
+                .build();
+    }
+
+    private RecurringExpenseResponse mapToResponse(RecurringExpense template) {
+        return RecurringExpenseResponse.builder()
+                .id(template.getId())
+                .title(template.getTitle())
+                .description(template.getDescription())
+                .totalAmount(template.getTotalAmount())
+                .currency(template.getCurrency())
+                .paidByUserId(template.getPaidByUserId())
+                .createdByUserId(template.getCreatedByUserId())
+                .category(template.getCategory())
+                .splitType(template.getSplitType())
+                .groupId(template.getGroupId())
+                .notes(template.getNotes())
+                .frequency(template.getFrequency())
+                .intervalCount(template.getIntervalCount())
+                .startDate(template.getStartDate())
+                .endDate(template.getEndDate())
+                .nextOccurrenceDate(template.getNextOccurrenceDate())
+                .occurrenceCount(template.getOccurrenceCount())
+                .lastMaterializedAt(template.getLastMaterializedAt())
+                .splits(template.getSplits().stream()
+                        .map(split -> RecurringExpenseResponse.SplitTemplateResponse.builder()
+                                .userId(split.getUserId())
+                                .amount(split.getAmount())
+                                .percentage(split.getPercentage())
+                                .shares(split.getShares())
+                                .ratio(split.getRatio())
+                                .itemTotal(split.getItemTotal())
+                                .adjustment(split.getAdjustment())
+                                .notes(split.getNotes())
+                                .build())
+                        .collect(Collectors.toList()))
+                .createdAt(template.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package org.splitzy.expense.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.splitzy.common.exception.ResourceNotFoundException;
+import org.splitzy.common.exception.ValidationException;
+import org.splitzy.common.version.ResourceVersionService;
+import org.splitzy.expense.dto.SplitAllocation;
+import org.splitzy.expense.dto.response.SettlementResponse;
+import org.splitzy.expense.repository.ExpenseRepository;
+import org.splitzy.expense.repository.ExpenseSplitRepository;
+import org.splitzy.expense.repository.UserBalanceRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Settles amounts between two users across their unsettled splits.
+ * Allocation is FIFO over the oldest splits and is written with a few set-based
+ * statements, so settling hundreds of splits never loads them as entities.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class SettlementService {
+
+    private final ExpenseSplitRepository expenseSplitRepository;
+    private final ExpenseRepository expenseRepository;
+    private final UserBalanceRepository userBalanceRepository;
+    private final GroupBalanceService groupBalanceService;
+    private final BalanceService balanceService;
+    private final ResourceVersionService resourceVersionService;
+
+    /**
+     * Settle an amount paid by payer to payee; only splits of expenses in the same currency are settled
+     */
+    public SettlementResponse settleAmount(Long payerId, Long payeeId, BigDecimal amount, String currency) {
+        String settlementCurrency = balanceService.resolveCurrency(currency);
+        log.info("Settling amount {} {} paid by user {} to user {}", amount, settlementCurrency, payerId, payeeId);
+
+        if (payerId.equals(payeeId)) {
+            throw new ValidationException("Cannot settle an amount with yourself");
+        }
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new ValidationException("Settlement amount must be positive");
+        }
+
+        // Updating the balance row first also locks the pair, serializing concurrent settlements
+        if (userBalanceRepository.applySettlement(payerId, payeeId, amount, settlementCurrency) == 0) {
+            throw new ResourceNotFoundException("Balance not found between users");
+        }
+
+        List<SplitAllocation> allocations = expenseSplitRepository.findUnsettledSplitAllocationsBetweenUsers(payerId, payeeId, settlementCurrency);
+
+        List<Long> settledSplitIds = new ArrayList<>();
+        Set<Long> affectedExpenseIds = new LinkedHashSet<>();
+        Map<Long, BigDecimal> settledByGroup = new HashMap<>();
+        Long partialSplitId = null;
+        BigDecimal partialAmount = BigDecimal.ZERO;
+        BigDecimal remaining = amount;
+
+        for (SplitAllocation allocation : allocations) {
+            if (remaining.signum() == 0) {
+                break;
+            }
+            BigDecimal outstanding = allocation.remainingAmount();
+            if (outstanding == null || outstanding.signum() <= 0) {
+                continue;
+            }
+
+            affectedExpenseIds.add(allocation.expenseId());
+            BigDecimal applied;
+            if (remaining.compareTo(outstanding) >= 0) {
+                settledSplitIds.add(allocation.splitId());
+                applied = outstanding;
+            } else {
+                partialSplitId = allocation.splitId();
+                partialAmount = remaining;
+                applied = remaining;
+            }
+            remaining = remaining.subtract(applied);
+            if (allocation.groupId() != null) {
+                settledByGroup.merge(allocation.groupId(), applied, BigDecimal::add);
+            }
+        }
+
+        if (remaining.signum() > 0) {
+            throw new ValidationException("Settlement amount exceeds outstanding amount of " + amount.subtract(remaining));
+        }
+
+        if (!settledSplitIds.isEmpty()) {
+            expenseSplitRepository.markAllAsSettled(settledSplitIds);
+        }
+        if (partialSplitId != null) {
+            expenseSplitRepository.partiallySettle(partialSplitId, partialAmount);
+        }
+        int settledExpenseCount = affectedExpenseIds.isEmpty() ? 0 : expenseRepository.markFullySettled(affectedExpenseIds);
+        groupBalanceService.recordSettlement(payerId, payeeId, settlementCurrency, settledByGroup);
+        resourceVersionService.bumpAfterCommit(BalanceService.BALANCES_RESOURCE, List.of(payerId, payeeId));
+        resourceVersionService.bumpAfterCommit(ExpenseService.EXPENSE_RESOURCE, affectedExpenseIds);
+
+        log.info("Settled {} splits fully, partial split: {}, expenses settled: {}",
+                settledSplitIds.size(), partialSplitId, settledExpenseCount);
+
+        return SettlementResponse.builder()
+                .payerUserId(payerId)
+                .payeeUserId(payeeId)
+                .amount(amount)
+                .currency(settlementCurrency)
+                .settledSplitCount(settledSplitIds.size())
+                .partiallySettledSplitId(partialSplitId)
+                .settledExpenseCount(settledExpenseCount)
+                .build();
+    }
+}
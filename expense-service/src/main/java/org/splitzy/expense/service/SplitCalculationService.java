@@ -1,5 +1,8 @@
 package org.splitzy.expense.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.common.security.oauthbearer.internals.secured.ValidateException;
 import org.splitzy.expense.dto.request.CreateExpenseRequest;
@@ -17,13 +20,28 @@ import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class SplitCalculationService {
 
     private static final int SCALE = 2;
     private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_UP;
 
+    private final MeterRegistry meterRegistry;
+
     public List<ExpenseSplit> calculateSplits(Expense expense, List<CreateExpenseRequest.SplitRequest> splitRequests) {
         log.debug("Calculating splits for expense according to type: {}", expense.getSplitType());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return calculateByType(expense, splitRequests);
+        } finally {
+            sample.stop(Timer.builder("splitzy.split.calculation")
+                    .description("Time to calculate the splits of one expense")
+                    .tag("splitType", String.valueOf(expense.getSplitType()))
+                    .register(meterRegistry));
+        }
+    }
+
+    private List<ExpenseSplit> calculateByType(Expense expense, List<CreateExpenseRequest.SplitRequest> splitRequests) {
         return switch (expense.getSplitType()){
             case EQUAL -> calculateEqualSpllits(expense, splitRequests);
             case CUSTOM_RATIO -> calculateCustomRatioSplits(expense, splitRequests);
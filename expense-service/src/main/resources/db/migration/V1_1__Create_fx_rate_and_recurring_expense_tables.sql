@@ -0,0 +1,55 @@
+-- Tables for FX rates and recurring expense templates; their indexes are added online by V2.
+
+CREATE TABLE fx_rates (
+    id           BIGINT        NOT NULL AUTO_INCREMENT,
+    created_at   DATETIME(6)   NOT NULL,
+    updated_at   DATETIME(6)   NOT NULL,
+    is_active    BIT           NOT NULL,
+    currency     VARCHAR(3)    NOT NULL,
+    rate_to_base DECIMAL(19,8) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE recurring_expenses (
+    id                   BIGINT        NOT NULL AUTO_INCREMENT,
+    created_at           DATETIME(6)   NOT NULL,
+    updated_at           DATETIME(6)   NOT NULL,
+    is_active            BIT           NOT NULL,
+    title                VARCHAR(200)  NOT NULL,
+    description          VARCHAR(1000),
+    total_amount         DECIMAL(10,2) NOT NULL,
+    currency             VARCHAR(3)    NOT NULL,
+    paid_by_user_id      BIGINT        NOT NULL,
+    created_by_user_id   BIGINT        NOT NULL,
+    category             ENUM ('FOOD_DINING','GROCERIES','HOUSING','TRANSPORTATION','UTILITIES','SHOPPING',
+                               'ENTERTAINMENT','TRAVEL','HEALTHCARE','EDUCATION','INSURANCE','FINANCE',
+                               'GIFTS_DONATIONS','PETS','FAMILY_KIDS','PERSONAL_MISC','OTHER') NOT NULL,
+    split_type           ENUM ('EQUAL','PERCENTAGE','EXACT','SHARES','WEIGHTED','CUSTOM_RATIO','ITEMIZED',
+                               'UNEQUAL','ADJUSTMENT') NOT NULL,
+    group_id             BIGINT,
+    notes                VARCHAR(500),
+    frequency            ENUM ('DAILY','WEEKLY','MONTHLY','YEARLY') NOT NULL,
+    interval_count       INT           NOT NULL,
+    start_date           DATE          NOT NULL,
+    end_date             DATE,
+    next_occurrence_date DATE          NOT NULL,
+    next_run_at          DATETIME(6)   NOT NULL,
+    occurrence_count     INT           NOT NULL,
+    last_materialized_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE recurring_expense_splits (
+    recurring_expense_id BIGINT NOT NULL,
+    split_order          INT    NOT NULL,
+    user_id              BIGINT NOT NULL,
+    amount               DECIMAL(10,2),
+    percentage           DECIMAL(5,2),
+    shares               INT,
+    ratio                INT,
+    item_total           DECIMAL(12,2),
+    adjustment           DECIMAL(10,2),
+    notes                VARCHAR(500),
+    PRIMARY KEY (recurring_expense_id, split_order),
+    CONSTRAINT fk_recurring_expense_splits_recurring FOREIGN KEY (recurring_expense_id) REFERENCES recurring_expenses (id)
+) ENGINE = InnoDB;
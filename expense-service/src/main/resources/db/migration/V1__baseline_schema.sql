@@ -0,0 +1,55 @@
+-- Expense schema as previously created by ddl-auto=update, before fx rates and recurring expenses.
+-- Existing databases are baselined at this version; V1.1 adds the newer tables, V2 the secondary
+-- indexes online and V3 the split item columns.
+
+CREATE TABLE expenses (
+    id              BIGINT        NOT NULL AUTO_INCREMENT,
+    created_at      DATETIME(6)   NOT NULL,
+    updated_at      DATETIME(6)   NOT NULL,
+    is_active       BIT           NOT NULL,
+    title           VARCHAR(200)  NOT NULL,
+    description     VARCHAR(1000),
+    total_amount    DECIMAL(10,2) NOT NULL,
+    currency        VARCHAR(3)    NOT NULL,
+    paid_by_user_id BIGINT        NOT NULL,
+    expense_date    DATE          NOT NULL,
+    category        ENUM ('FOOD_DINING','GROCERIES','HOUSING','TRANSPORTATION','UTILITIES','SHOPPING',
+                          'ENTERTAINMENT','TRAVEL','HEALTHCARE','EDUCATION','INSURANCE','FINANCE',
+                          'GIFTS_DONATIONS','PETS','FAMILY_KIDS','PERSONAL_MISC','OTHER') NOT NULL,
+    split_type      ENUM ('EQUAL','PERCENTAGE','EXACT','SHARES','WEIGHTED','CUSTOM_RATIO','ITEMIZED',
+                          'UNEQUAL','ADJUSTMENT') NOT NULL,
+    group_id        BIGINT,
+    notes           VARCHAR(500),
+    receipt_url     VARCHAR(500),
+    status          ENUM ('ACTIVE','SETTLED','CANCELLED','DISPUTED') NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE expense_splits (
+    id             BIGINT        NOT NULL AUTO_INCREMENT,
+    created_at     DATETIME(6)   NOT NULL,
+    updated_at     DATETIME(6)   NOT NULL,
+    is_active      BIT           NOT NULL,
+    expense_id     BIGINT        NOT NULL,
+    user_id        BIGINT        NOT NULL,
+    amount         DECIMAL(10,2) NOT NULL,
+    percentage     DECIMAL(5,2),
+    shares         INT,
+    is_settled     BIT           NOT NULL,
+    settled_amount DECIMAL(10,2),
+    notes          VARCHAR(500),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_expense_splits_expense FOREIGN KEY (expense_id) REFERENCES expenses (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE user_balances (
+    id             BIGINT        NOT NULL AUTO_INCREMENT,
+    created_at     DATETIME(6)   NOT NULL,
+    updated_at     DATETIME(6)   NOT NULL,
+    is_active      BIT           NOT NULL,
+    user1_id       BIGINT        NOT NULL,
+    user2_id       BIGINT        NOT NULL,
+    balance_amount DECIMAL(10,2) NOT NULL,
+    currency       VARCHAR(3)    NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,22 @@
+package org.splitzy.expense;
+
+import org.splitzy.common.query.QueryCountingDataSourceConfig;
+import org.splitzy.common.test.MySqlContainerConfig;
+import org.splitzy.expense.migration.V2__Add_secondary_indexes;
+import org.splitzy.expense.migration.V3__Rename_split_item_columns;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Configuration picked up by the repository slice tests. ExpenseServiceApplication scans services and
+ * Kafka beans with its own @ComponentScan, which slice filters do not apply to.
+ * The Java migrations are imported so Flyway builds the same schema as production.
+ */
+@SpringBootApplication
+@Import({
+        MySqlContainerConfig.class,
+        QueryCountingDataSourceConfig.class,
+        V2__Add_secondary_indexes.class,
+        V3__Rename_split_item_columns.class})
+public class RepositoryTestApplication {
+}
@@ -0,0 +1,92 @@
+package org.splitzy.expense.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.splitzy.expense.dto.ExpenseSummary;
+import org.splitzy.expense.entity.Expense;
+import org.splitzy.expense.entity.ExpenseSplit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.splitzy.common.query.QueryCountAssertions.assertAtMost;
+
+/**
+ * Statement budgets of the expense read paths; a lazy association touched per row shows up as N+1 here
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class ExpenseRepositoryQueryBudgetTest {
+
+    private static final long PAYER = 1L;
+    private static final long FRIEND = 2L;
+    private static final int EXPENSES = 12;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    private Long expenseId;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < EXPENSES; i++) {
+            expenseId = entityManager.persist(expense("Dinner " + i)).getId();
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void userExpenseSummariesTakeOnePageQueryAndOneCount() throws Exception {
+        Page<ExpenseSummary> page = assertAtMost(2,
+                () -> expenseRepository.findUserExpenseSummaries(FRIEND, PageRequest.of(0, 5)));
+
+        assertThat(page.getContent()).hasSize(5);
+        assertThat(page.getTotalElements()).isEqualTo(EXPENSES);
+    }
+
+    @Test
+    void unsettledExpenseSummariesTakeOnePageQueryAndOneCount() throws Exception {
+        Page<ExpenseSummary> page = assertAtMost(2,
+                () -> expenseRepository.findUnsettledExpenseSummaries(FRIEND, PageRequest.of(0, 5)));
+
+        assertThat(page.getTotalElements()).isEqualTo(EXPENSES);
+    }
+
+    @Test
+    void expenseDetailTakesOneQuery() throws Exception {
+        assertThat(assertAtMost(1, () -> expenseRepository.findExpenseDetail(expenseId))).isPresent();
+    }
+
+    @Test
+    void expenseWithSplitsTakesOneQueryForEach() throws Exception {
+        int splits = assertAtMost(2, () -> expenseRepository.findById(expenseId).orElseThrow().getSplits().size());
+
+        assertThat(splits).isEqualTo(2);
+    }
+
+    private static Expense expense(String title) {
+        Expense expense = Expense.builder()
+                .title(title)
+                .totalAmount(new BigDecimal("40.00"))
+                .paidByUserId(PAYER)
+                .expenseDate(LocalDate.now())
+                .category(Expense.ExpenseCategory.FOOD_DINING)
+                .build();
+        expense.addSplit(ExpenseSplit.builder().userId(PAYER).amount(new BigDecimal("20.00")).build());
+        expense.addSplit(ExpenseSplit.builder().userId(FRIEND).amount(new BigDecimal("20.00")).build());
+        return expense;
+    }
+}
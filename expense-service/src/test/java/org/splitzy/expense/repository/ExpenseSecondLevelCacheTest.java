@@ -0,0 +1,137 @@
+package org.splitzy.expense.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.splitzy.expense.dto.ExpenseDetail;
+import org.splitzy.expense.dto.SplitView;
+import org.splitzy.expense.entity.Expense;
+import org.splitzy.expense.entity.ExpenseSplit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.splitzy.common.query.QueryCountAssertions.assertExactly;
+
+/**
+ * Second-level and query cache behaviour of Expense, in particular invalidation by the bulk
+ * {@code @Modifying} updates, which bypass the entity instances the cache is normally kept in step with.
+ * Every step commits, as the cache is only written on commit.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ExpenseSecondLevelCacheTest {
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private ExpenseSplitRepository expenseSplitRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private Long expenseId;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        expenseId = transaction.execute(status -> expenseRepository.save(expense()).getId());
+        // Warm the entity, collection and detail query regions
+        transaction.executeWithoutResult(status -> expenseRepository.findById(expenseId).orElseThrow().getSplits().size());
+        transaction.executeWithoutResult(status -> expenseRepository.findExpenseDetail(expenseId));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transaction.executeWithoutResult(status -> expenseRepository.deleteAll());
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void expenseAndSplitsAreReadFromTheCache() throws Exception {
+        assertThat(entityManagerFactory.getCache().contains(Expense.class, expenseId)).isTrue();
+
+        int splits = assertExactly(0, () -> transaction.execute(
+                status -> expenseRepository.findById(expenseId).orElseThrow().getSplits().size()));
+
+        assertThat(splits).isEqualTo(2);
+    }
+
+    @Test
+    void detailQueryIsReadFromTheQueryCache() throws Exception {
+        assertThat(assertExactly(0, () -> expenseRepository.findExpenseDetail(expenseId))).isPresent();
+    }
+
+    @Test
+    void markAsSettledEvictsTheCachedExpense() {
+        transaction.executeWithoutResult(status -> expenseRepository.markAsSettled(expenseId));
+
+        assertThat(entityManagerFactory.getCache().contains(Expense.class, expenseId)).isFalse();
+        assertThat(transaction.<Expense.ExpenseStatus>execute(status -> expenseRepository.findById(expenseId).orElseThrow().getStatus()))
+                .isEqualTo(Expense.ExpenseStatus.SETTLED);
+    }
+
+    @Test
+    void markAsSettledInvalidatesTheCachedDetail() {
+        transaction.executeWithoutResult(status -> expenseRepository.markAsSettled(expenseId));
+
+        assertThat(expenseRepository.findExpenseDetail(expenseId))
+                .map(ExpenseDetail::status)
+                .contains(Expense.ExpenseStatus.SETTLED);
+    }
+
+    @Test
+    void softDeleteEvictsTheCachedExpense() {
+        transaction.executeWithoutResult(status -> expenseRepository.softDelete(expenseId));
+
+        assertThat(entityManagerFactory.getCache().contains(Expense.class, expenseId)).isFalse();
+        assertThat(transaction.<Boolean>execute(status -> expenseRepository.findById(expenseId).orElseThrow().getIsActive()))
+                .isFalse();
+    }
+
+    @Test
+    void splitMarkAsSettledEvictsTheCachedSplitAndItsViews() {
+        List<SplitView> views = transaction.execute(status -> expenseSplitRepository.findSplitViewsByExpenseIds(List.of(expenseId)));
+        Long splitId = views.stream().filter(view -> view.userId() == 2L).findFirst().orElseThrow().id();
+        assertThat(entityManagerFactory.getCache().contains(ExpenseSplit.class, splitId)).isTrue();
+
+        transaction.executeWithoutResult(status -> expenseSplitRepository.markAsSettled(splitId));
+
+        assertThat(entityManagerFactory.getCache().contains(ExpenseSplit.class, splitId)).isFalse();
+        assertThat(transaction.<List<SplitView>>execute(status -> expenseSplitRepository.findSplitViewsByExpenseIds(List.of(expenseId))))
+                .filteredOn(view -> view.id().equals(splitId))
+                .extracting(SplitView::isSettled)
+                .containsExactly(true);
+    }
+
+    private static Expense expense() {
+        Expense expense = Expense.builder()
+                .title("Groceries")
+                .totalAmount(new BigDecimal("30.00"))
+                .paidByUserId(1L)
+                .expenseDate(LocalDate.now())
+                .category(Expense.ExpenseCategory.GROCERIES)
+                .build();
+        expense.addSplit(ExpenseSplit.builder().userId(1L).amount(new BigDecimal("15.00")).build());
+        expense.addSplit(ExpenseSplit.builder().userId(2L).amount(new BigDecimal("15.00")).build());
+        return expense;
+    }
+}
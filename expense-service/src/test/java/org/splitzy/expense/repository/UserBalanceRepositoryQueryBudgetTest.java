@@ -0,0 +1,68 @@
+package org.splitzy.expense.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.splitzy.expense.entity.UserBalance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.splitzy.common.query.QueryCountAssertions.assertExactly;
+
+/**
+ * Statement budgets of the pairwise balance reads and the atomic settlement update
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class UserBalanceRepositoryQueryBudgetTest {
+
+    private static final long USER = 1L;
+    private static final int COUNTERPARTIES = 8;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserBalanceRepository userBalanceRepository;
+
+    @BeforeEach
+    void setUp() {
+        for (long other = 2; other < 2 + COUNTERPARTIES; other++) {
+            entityManager.persist(UserBalance.builder()
+                    .user1Id(USER)
+                    .user2Id(other)
+                    .balanceAmount(new BigDecimal("15.00"))
+                    .currency("INR")
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void userBalancesTakeOneQuery() throws Exception {
+        List<UserBalance> balances = assertExactly(1, () -> userBalanceRepository.findUserBalances(USER));
+
+        assertThat(balances).hasSize(COUNTERPARTIES);
+    }
+
+    @Test
+    void balanceBetweenUsersTakesOneQuery() throws Exception {
+        assertThat(assertExactly(1, () -> userBalanceRepository.findBalanceBetweenUsers(3L, USER, "INR"))).isPresent();
+    }
+
+    @Test
+    void settlementIsOneUpdate() throws Exception {
+        int updated = assertExactly(1,
+                () -> userBalanceRepository.applySettlement(USER, 2L, new BigDecimal("5.00"), "INR"));
+
+        assertThat(updated).isEqualTo(1);
+    }
+}
@@ -0,0 +1,54 @@
+package org.splitzy.loadtest;
+
+import org.splitzy.loadtest.data.BulkLoader;
+import org.splitzy.loadtest.data.DatasetGenerator;
+import org.splitzy.loadtest.data.DatasetSpec;
+import org.splitzy.loadtest.driver.LoadDriver;
+import org.splitzy.loadtest.driver.ReactiveComparison;
+
+import java.util.Arrays;
+
+/**
+ * Entry point for the load test tooling.
+ * <pre>
+ *   load   --expenses=200000 --users=10000 --seed=42      generate and bulk-load a dataset
+ *   drive  --duration=60s --concurrency=64 --seed=42      replay a mixed workload against running services
+ *   compare --concurrency-levels=16,64,256 --results=reactive-vs-servlet.md
+ *                                                        servlet vs reactive reads, one at a time, with a results table
+ *   bench  [JMH options]                                 run the microbenchmarks in org.splitzy.loadtest.bench
+ * </pre>
+ * load, drive and compare must use the same dataset options so the driver targets loaded users and groups.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            usage();
+            return;
+        }
+        String[] rest = Arrays.copyOfRange(args, 1, args.length);
+        switch (args[0]) {
+            case "load" -> {
+                LoadTestOptions options = LoadTestOptions.parse(rest);
+                new BulkLoader(options).load(new DatasetGenerator(DatasetSpec.from(options)));
+            }
+            case "drive" -> {
+                LoadTestOptions options = LoadTestOptions.parse(rest);
+                new LoadDriver(options, new DatasetGenerator(DatasetSpec.from(options))).run(System.out);
+            }
+            case "compare" -> {
+                LoadTestOptions options = LoadTestOptions.parse(rest);
+                new ReactiveComparison(options, new DatasetGenerator(DatasetSpec.from(options))).run(System.out);
+            }
+            case "bench" -> org.openjdk.jmh.Main.main(rest);
+            default -> usage();
+        }
+    }
+
+    private static void usage() {
+        System.out.println("Usage: load-test <load|drive|compare|bench> [--option=value ...]");
+    }
+}
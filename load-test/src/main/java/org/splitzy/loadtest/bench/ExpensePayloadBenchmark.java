@@ -0,0 +1,161 @@
+package org.splitzy.loadtest.bench;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.splitzy.common.dto.ApiResponse;
+import org.splitzy.common.dto.PageResponse;
+import org.splitzy.expense.dto.response.ExpenseResponse;
+import org.splitzy.expense.entity.Expense;
+import org.splitzy.loadtest.LoadTestOptions;
+import org.splitzy.loadtest.data.DatasetGenerator;
+import org.splitzy.loadtest.data.DatasetSpec;
+import org.splitzy.loadtest.data.GeneratedExpense;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization cost and payload size of an expense list page (the /api/expenses/getAll body)
+ * as JSON with and without null fields, CBOR and gzip-compressed JSON.
+ * Sizes are printed once per trial; run with -prof gc to compare allocation per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpensePayloadBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ApiResponse<PageResponse<ExpenseResponse>> page;
+    private ObjectMapper json;
+    private ObjectMapper jsonWithNulls;
+    private ObjectMapper cbor;
+
+    @Setup
+    public void setUp() throws IOException {
+        json = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+        jsonWithNulls = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializationInclusion(JsonInclude.Include.ALWAYS)
+                .build();
+        cbor = CBORMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+        page = ApiResponse.success(buildPage(pageSize));
+
+        System.out.printf("%n[page of %d] json(with nulls)=%d B, json=%d B, cbor=%d B, gzip(json)=%d B%n",
+                pageSize, jsonWithNulls.writeValueAsBytes(page).length, json.writeValueAsBytes(page).length,
+                cbor.writeValueAsBytes(page).length, gzip(json.writeValueAsBytes(page)).length);
+    }
+
+    @Benchmark
+    public byte[] jsonWithNulls() throws IOException {
+        return jsonWithNulls.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] json() throws IOException {
+        return json.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] cbor() throws IOException {
+        return cbor.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] jsonGzip() throws IOException {
+        return gzip(json.writeValueAsBytes(page));
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    private static PageResponse<ExpenseResponse> buildPage(int size) {
+        DatasetGenerator generator = new DatasetGenerator(DatasetSpec.from(LoadTestOptions.parse(new String[0])));
+        SplittableRandom random = new SplittableRandom(7);
+        LocalDateTime timestamp = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+        List<ExpenseResponse> content = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            GeneratedExpense expense = generator.nextExpense(random, i);
+            List<ExpenseResponse.SplitResponse> splits = new ArrayList<>();
+            long splitId = i * 100L;
+            for (GeneratedExpense.Split split : expense.splits()) {
+                BigDecimal amount = BigDecimal.valueOf(split.amountMinor(), 2);
+                splits.add(ExpenseResponse.SplitResponse.builder()
+                        .id(++splitId)
+                        .userId(split.userId())
+                        .amount(amount)
+                        .percentage(BigDecimal.valueOf(split.amountMinor() * 100.0 / expense.totalMinor()).setScale(2, RoundingMode.HALF_UP))
+                        .isSettled(false)
+                        .settledAmount(BigDecimal.ZERO.setScale(2))
+                        .remainingAmount(amount)
+                        .build());
+            }
+            content.add(ExpenseResponse.builder()
+                    .id((long) i + 1)
+                    .title(expense.title())
+                    .totalAmount(BigDecimal.valueOf(expense.totalMinor(), 2))
+                    .currency(expense.currency())
+                    .paidByUserId(expense.paidByUserId())
+                    .expenseDate(expense.expenseDate())
+                    .category(expense.category())
+                    .splitType(expense.splitType())
+                    .groupId(expense.groupId())
+                    .status(Expense.ExpenseStatus.ACTIVE)
+                    .splits(splits)
+                    .createdAt(timestamp)
+                    .updatedAt(timestamp)
+                    .build());
+        }
+        return PageResponse.<ExpenseResponse>builder()
+                .content(content)
+                .pageNumber(0)
+                .pageSize(size)
+                .totalPages(10)
+                .totalElements(size * 10L)
+                .first(true)
+                .hasNext(true)
+                .build();
+    }
+}
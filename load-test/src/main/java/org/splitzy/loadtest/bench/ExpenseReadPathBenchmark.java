@@ -0,0 +1,109 @@
+package org.splitzy.loadtest.bench;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.splitzy.expense.dto.ExpenseSummary;
+import org.splitzy.expense.dto.SplitView;
+import org.splitzy.expense.entity.Expense;
+import org.splitzy.expense.entity.ExpenseSplit;
+import org.splitzy.loadtest.LoadTestOptions;
+import org.splitzy.loadtest.data.DatasetGenerator;
+import org.splitzy.loadtest.data.DatasetSpec;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of the expense feed read as managed entities (plus their lazily loaded splits)
+ * versus constructor projections (plus one IN query for split views), against a loaded dataset.
+ * Run with -prof gc to compare heap allocated per page. Connection settings come from system
+ * properties (-Dbench.jdbc-url, -Dbench.db-user, -Dbench.db-password) and the user is the most
+ * active one of the default dataset spec.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ExpenseReadPathBenchmark {
+
+    private static final String USER_FILTER = "WHERE e.isActive = true AND (e.paidByUserId = :userId " +
+            "OR EXISTS (SELECT 1 FROM ExpenseSplit s WHERE s.expense = e AND s.userId = :userId)) ORDER BY e.expenseDate DESC";
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private SessionFactory sessionFactory;
+    private long userId;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Expense.class)
+                .addAnnotatedClass(ExpenseSplit.class)
+                .setProperty("hibernate.connection.url", System.getProperty("bench.jdbc-url",
+                        "jdbc:mysql://localhost:3306/splitzy_expense?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC"))
+                .setProperty("hibernate.connection.username", System.getProperty("bench.db-user", "root"))
+                .setProperty("hibernate.connection.password", System.getProperty("bench.db-password", "root"))
+                .setProperty("hibernate.hbm2ddl.auto", "none")
+                .setProperty("hibernate.cache.use_second_level_cache", "false")
+                .buildSessionFactory();
+        userId = new DatasetGenerator(DatasetSpec.from(LoadTestOptions.parse(new String[0]))).mostActiveUser();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public int entities() {
+        try (Session session = sessionFactory.openSession()) {
+            session.setDefaultReadOnly(true);
+            List<Expense> expenses = session.createQuery("SELECT e FROM Expense e " + USER_FILTER, Expense.class)
+                    .setParameter("userId", userId)
+                    .setMaxResults(pageSize)
+                    .getResultList();
+            int splits = 0;
+            for (Expense expense : expenses) {
+                splits += expense.getSplits().size();
+            }
+            return splits;
+        }
+    }
+
+    @Benchmark
+    public int projections() {
+        try (Session session = sessionFactory.openSession()) {
+            List<ExpenseSummary> summaries = session.createQuery("SELECT new org.splitzy.expense.dto.ExpenseSummary(e.id, e.title, " +
+                            "e.totalAmount, e.currency, e.paidByUserId, e.expenseDate, e.category, e.splitType, e.groupId, e.status, " +
+                            "e.createdAt, e.updateAt) FROM Expense e " + USER_FILTER, ExpenseSummary.class)
+                    .setParameter("userId", userId)
+                    .setMaxResults(pageSize)
+                    .getResultList();
+            if (summaries.isEmpty()) {
+                return 0;
+            }
+            List<SplitView> splits = session.createQuery("SELECT new org.splitzy.expense.dto.SplitView(s.expense.id, s.id, s.userId, " +
+                            "s.amount, s.percentage, s.shares, s.isSettled, s.settledAmount, s.notes) FROM ExpenseSplit s " +
+                            "WHERE s.expense.id IN :expenseIds ORDER BY s.id", SplitView.class)
+                    .setParameter("expenseIds", summaries.stream().map(ExpenseSummary::id).toList())
+                    .getResultList();
+            return splits.size();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.splitzy.loadtest.bench;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.splitzy.auth.dto.TokenClaims;
+import org.splitzy.auth.entity.AuthUser;
+import org.splitzy.auth.keys.SigningKeyManager;
+import org.splitzy.auth.revocation.TokenRevocationFilter;
+import org.splitzy.auth.service.JwtTokenService;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of validating an access token: a full signature verify and claims parse (once, and twice as
+ * the old validateToken did) against JwtTokenService.parseToken with the claims cache warm.
+ * tokens is the working set cycled through, i.e. the number of distinct active sessions;
+ * algorithm compares the shared-secret HS512 tokens with ES256 ones verifiable from the JWKS.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "splitzy-benchmark-secret-key-minimum-512-bits-required-for-the-hs512-algorithm-0123456789";
+
+    @Param({"1", "1000"})
+    private int tokens;
+
+    @Param({SigningKeyManager.HS512, SigningKeyManager.ES256})
+    private String algorithm;
+
+    private JwtTokenService jwtTokenService;
+    private JwtParser parser;
+    private String[] issued;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        // parseToken never touches Redis; without a connection, token generation falls back to no revocation epoch
+        RedisTemplate<String, String> redisTemplate = new RedisTemplate<>();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TokenRevocationFilter revocationFilter = new TokenRevocationFilter(redisTemplate, meterRegistry,
+                "auth:revocations", 100_000, 0.01, Duration.ofMinutes(15), TimeUnit.DAYS.toMillis(7));
+        // No key store: ES256 signs with a generated key
+        SigningKeyManager signingKeys = new SigningKeyManager(algorithm, "", "", Duration.ZERO, true);
+        jwtTokenService = new JwtTokenService(redisTemplate, revocationFilter, signingKeys, meterRegistry,
+                SECRET, TimeUnit.HOURS.toMillis(1), TimeUnit.DAYS.toMillis(7), 10_000);
+        parser = signingKeys.isAsymmetric()
+                ? Jwts.parser().verifyWith(signingKeys.activeKey().publicKey()).build()
+                : Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8))).build();
+
+        issued = new String[tokens];
+        for (int i = 0; i < tokens; i++) {
+            AuthUser user = AuthUser.builder()
+                    .username("user" + i)
+                    .email("user" + i + "@loadtest.splitzy")
+                    .firstName("Load")
+                    .lastName("Test")
+                    .passwordHash("unused")
+                    .build();
+            user.setId((long) i + 1);
+            issued[i] = jwtTokenService.generateAccessToken(user);
+        }
+    }
+
+    @Benchmark
+    public Claims parseUncached() {
+        return parser.parseSignedClaims(next()).getPayload();
+    }
+
+    @Benchmark
+    public Claims parseTwiceUncached() {
+        String token = next();
+        parser.parseSignedClaims(token);
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public TokenClaims parseCached() {
+        return jwtTokenService.parseToken(next());
+    }
+
+    private String next() {
+        String token = issued[cursor];
+        cursor = cursor + 1 == issued.length ? 0 : cursor + 1;
+        return token;
+    }
+}
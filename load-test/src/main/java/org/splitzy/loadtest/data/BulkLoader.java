@@ -0,0 +1,231 @@
+package org.splitzy.loadtest.data;
+
+import org.splitzy.expense.entity.Expense;
+import org.splitzy.loadtest.LoadTestOptions;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bulk-loads a generated dataset straight into the service databases with JDBC batches.
+ * Expense ids are assigned here (continuing after the current maximum) so splits can be
+ * batched in the same pass without reading generated keys back.
+ * The connection URLs should keep rewriteBatchedStatements=true for multi-row inserts.
+ */
+public class BulkLoader {
+
+    private static final String DEFAULT_PASSWORD = "Password@123";
+
+    private static final String INSERT_USER = "INSERT INTO auth_users (id, username, email, password_hash, first_name, last_name, " +
+            "is_email_verified, is_phone_verified, failed_login_attempts, role, created_at, updated_at, is_active) " +
+            "VALUES (?, ?, ?, ?, ?, ?, true, false, 0, 'USER', ?, ?, true)";
+
+    private static final String INSERT_EXPENSE = "INSERT INTO expenses (id, title, total_amount, currency, paid_by_user_id, " +
+            "expense_date, category, split_type, group_id, status, created_at, updated_at, is_active) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 'ACTIVE', ?, ?, true)";
+
+    private static final String INSERT_SPLIT = "INSERT INTO expense_splits (expense_id, user_id, amount, percentage, shares, " +
+            "is_settled, settled_amount, item_total, adjustment, created_at, updated_at, is_active) " +
+            "VALUES (?, ?, ?, ?, ?, false, 0, ?, ?, ?, ?, true)";
+
+    private static final String UPSERT_BALANCE = "INSERT INTO user_balances (user1_id, user2_id, balance_amount, currency, " +
+            "created_at, updated_at, is_active) VALUES (?, ?, ?, ?, ?, ?, true) " +
+            "ON DUPLICATE KEY UPDATE balance_amount = balance_amount + VALUES(balance_amount)";
+
+    private final String expenseJdbcUrl;
+    private final String authJdbcUrl;
+    private final String username;
+    private final String password;
+    private final int batchSize;
+    private final boolean skipUsers;
+
+    public BulkLoader(LoadTestOptions options) {
+        this.expenseJdbcUrl = options.getString("expense-jdbc-url",
+                "jdbc:mysql://localhost:3306/splitzy_expense?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC&rewriteBatchedStatements=true");
+        this.authJdbcUrl = options.getString("auth-jdbc-url",
+                "jdbc:mysql://localhost:3306/splitzy_auth?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC&rewriteBatchedStatements=true");
+        this.username = options.getString("db-user", "root");
+        this.password = options.getString("db-password", "root");
+        this.batchSize = options.getInt("batch-size", 1000);
+        this.skipUsers = Boolean.parseBoolean(options.getString("skip-users", "false"));
+    }
+
+    public void load(DatasetGenerator generator) throws SQLException {
+        if (!skipUsers) {
+            loadUsers(generator);
+        }
+        loadExpenses(generator);
+    }
+
+    private void loadUsers(DatasetGenerator generator) throws SQLException {
+        long started = System.nanoTime();
+        int users = generator.getSpec().users();
+        // One hash for all users; BCrypt per row would dominate the load time
+        String passwordHash = new BCryptPasswordEncoder().encode(DEFAULT_PASSWORD);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        try (Connection connection = DriverManager.getConnection(authJdbcUrl, username, password);
+             PreparedStatement insert = connection.prepareStatement(INSERT_USER)) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < users; i++) {
+                long id = generator.userId(i);
+                insert.setLong(1, id);
+                insert.setString(2, "user" + id);
+                insert.setString(3, "user" + id + "@load.splitzy.test");
+                insert.setString(4, passwordHash);
+                insert.setString(5, "Load");
+                insert.setString(6, "User " + id);
+                insert.setTimestamp(7, now);
+                insert.setTimestamp(8, now);
+                insert.addBatch();
+                if ((i + 1) % batchSize == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        report("users", users, started);
+    }
+
+    private void loadExpenses(DatasetGenerator generator) throws SQLException {
+        long started = System.nanoTime();
+        Map<BalanceKey, Long> balances = new HashMap<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long[] counts = new long[2]; // expenses, splits
+
+        try (Connection connection = DriverManager.getConnection(expenseJdbcUrl, username, password);
+             PreparedStatement insertExpense = connection.prepareStatement(INSERT_EXPENSE);
+             PreparedStatement insertSplit = connection.prepareStatement(INSERT_SPLIT)) {
+            connection.setAutoCommit(false);
+            long[] nextId = {maxExpenseId(connection) + 1};
+
+            generator.forEachExpense(expense -> {
+                try {
+                    long expenseId = nextId[0]++;
+                    addExpense(insertExpense, expenseId, expense, now);
+                    for (GeneratedExpense.Split split : expense.splits()) {
+                        addSplit(insertSplit, expenseId, expense, split, now);
+                        counts[1]++;
+                        if (split.userId() != expense.paidByUserId()) {
+                            recordDebt(balances, split.userId(), expense.paidByUserId(), expense.currency(), split.amountMinor());
+                        }
+                    }
+                    if (++counts[0] % batchSize == 0) {
+                        insertExpense.executeBatch();
+                        insertSplit.executeBatch();
+                        connection.commit();
+                    }
+                } catch (SQLException ex) {
+                    throw new IllegalStateException("Failed to load expense batch", ex);
+                }
+            });
+            insertExpense.executeBatch();
+            insertSplit.executeBatch();
+            connection.commit();
+            report("expenses", counts[0], started);
+            report("splits", counts[1], started);
+
+            long balancesStarted = System.nanoTime();
+            upsertBalances(connection, balances, now);
+            report("balances", balances.size(), balancesStarted);
+        }
+    }
+
+    private void addExpense(PreparedStatement ps, long expenseId, GeneratedExpense expense, Timestamp now) throws SQLException {
+        ps.setLong(1, expenseId);
+        ps.setString(2, expense.title());
+        ps.setBigDecimal(3, toAmount(expense.totalMinor()));
+        ps.setString(4, expense.currency());
+        ps.setLong(5, expense.paidByUserId());
+        ps.setObject(6, expense.expenseDate());
+        ps.setString(7, expense.category().name());
+        ps.setString(8, expense.splitType().name());
+        ps.setObject(9, expense.groupId(), Types.BIGINT);
+        ps.setTimestamp(10, now);
+        ps.setTimestamp(11, now);
+        ps.addBatch();
+    }
+
+    private void addSplit(PreparedStatement ps, long expenseId, GeneratedExpense expense, GeneratedExpense.Split split,
+                          Timestamp now) throws SQLException {
+        ps.setLong(1, expenseId);
+        ps.setLong(2, split.userId());
+        ps.setBigDecimal(3, toAmount(split.amountMinor()));
+        ps.setBigDecimal(4, BigDecimal.valueOf(split.amountMinor() * 100.0 / expense.totalMinor()).setScale(2, RoundingMode.HALF_UP));
+        ps.setNull(5, Types.INTEGER);
+        // Generated itemized splits are one item each, as the load driver sends them
+        ps.setBigDecimal(6, expense.splitType() == Expense.SplitType.ITEMIZED ? toAmount(split.amountMinor()) : null);
+        ps.setNull(7, Types.DECIMAL);
+        ps.setTimestamp(8, now);
+        ps.setTimestamp(9, now);
+        ps.addBatch();
+    }
+
+    private void upsertBalances(Connection connection, Map<BalanceKey, Long> balances, Timestamp now) throws SQLException {
+        try (PreparedStatement upsert = connection.prepareStatement(UPSERT_BALANCE)) {
+            int pending = 0;
+            for (Map.Entry<BalanceKey, Long> entry : balances.entrySet()) {
+                if (entry.getValue() == 0) {
+                    continue;
+                }
+                BalanceKey key = entry.getKey();
+                upsert.setLong(1, key.user1Id());
+                upsert.setLong(2, key.user2Id());
+                upsert.setBigDecimal(3, toAmount(entry.getValue()));
+                upsert.setString(4, key.currency());
+                upsert.setTimestamp(5, now);
+                upsert.setTimestamp(6, now);
+                upsert.addBatch();
+                if (++pending % batchSize == 0) {
+                    upsert.executeBatch();
+                    connection.commit();
+                }
+            }
+            upsert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    // Pairs are stored with the lower id first; a positive amount means user1 owes user2
+    private static void recordDebt(Map<BalanceKey, Long> balances, long debtor, long creditor, String currency, long amountMinor) {
+        if (debtor < creditor) {
+            balances.merge(new BalanceKey(debtor, creditor, currency), amountMinor, Long::sum);
+        } else {
+            balances.merge(new BalanceKey(creditor, debtor, currency), -amountMinor, Long::sum);
+        }
+    }
+
+    private static long maxExpenseId(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM expenses")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static BigDecimal toAmount(long minor) {
+        return BigDecimal.valueOf(minor, 2);
+    }
+
+    private static void report(String what, long rows, long startedNanos) {
+        double seconds = (System.nanoTime() - startedNanos) / 1_000_000_000.0;
+        System.out.printf("Loaded %,d %s in %.1fs (%,.0f rows/s)%n", rows, what, seconds, rows / Math.max(seconds, 0.001));
+    }
+
+    private record BalanceKey(long user1Id, long user2Id, String currency) {
+    }
+}
@@ -0,0 +1,233 @@
+package org.splitzy.loadtest.data;
+
+import org.splitzy.expense.entity.Expense;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Deterministic generator for users, groups and expenses.
+ * Users and groups are materialized up front (they are small); expenses are streamed
+ * so arbitrarily large datasets can be loaded with constant memory.
+ */
+public class DatasetGenerator {
+
+    private static final long MEDIAN_AMOUNT_MINOR = 80_000; // 800.00
+    private static final double AMOUNT_SIGMA = 1.0;
+    private static final long MIN_AMOUNT_MINOR = 100;
+    private static final long MAX_AMOUNT_MINOR = 50_000_000;
+    private static final int MAX_FRIENDS_PER_EXPENSE = 3;
+
+    private static final Map<Expense.ExpenseCategory, Integer> CATEGORY_MIX = Map.of(
+            Expense.ExpenseCategory.FOOD_DINING, 35,
+            Expense.ExpenseCategory.GROCERIES, 20,
+            Expense.ExpenseCategory.TRANSPORTATION, 12,
+            Expense.ExpenseCategory.HOUSING, 8,
+            Expense.ExpenseCategory.UTILITIES, 8,
+            Expense.ExpenseCategory.ENTERTAINMENT, 7,
+            Expense.ExpenseCategory.TRAVEL, 6,
+            Expense.ExpenseCategory.OTHER, 4);
+
+    private final DatasetSpec spec;
+    private final long[] userIdByRank;
+    private final long[][] groupMembers;
+    private final ZipfDistribution userActivity;
+    private final ZipfDistribution groupActivity;
+    private final WeightedChoice<Expense.SplitType> splitTypes;
+    private final WeightedChoice<String> currencies;
+    private final WeightedChoice<Expense.ExpenseCategory> categories;
+    private final LocalDate today;
+    private final long expenseSeed;
+
+    public DatasetGenerator(DatasetSpec spec) {
+        this(spec, LocalDate.of(2025, 1, 1));
+    }
+
+    public DatasetGenerator(DatasetSpec spec, LocalDate today) {
+        this.spec = spec;
+        this.today = today;
+        SplittableRandom root = new SplittableRandom(spec.seed());
+
+        this.userActivity = new ZipfDistribution(spec.users(), spec.userActivitySkew());
+        this.groupActivity = new ZipfDistribution(Math.max(1, spec.groups()), spec.groupActivitySkew());
+        this.userIdByRank = shuffledUserIds(root.split());
+        this.groupMembers = buildGroups(root.split());
+
+        Map<Expense.SplitType, Integer> splitMix = new LinkedHashMap<>();
+        spec.splitTypeMix().forEach((type, weight) -> splitMix.put(Expense.SplitType.valueOf(type), weight));
+        this.splitTypes = new WeightedChoice<>(splitMix);
+        this.currencies = new WeightedChoice<>(spec.currencyMix());
+        this.categories = new WeightedChoice<>(new EnumMap<>(CATEGORY_MIX)); // enum order keeps draws reproducible
+        this.expenseSeed = root.nextLong();
+    }
+
+    public DatasetSpec getSpec() {
+        return spec;
+    }
+
+    public long userId(int index) {
+        return spec.firstUserId() + index;
+    }
+
+    /**
+     * Pick a user with the skewed activity distribution
+     */
+    public long nextActiveUser(SplittableRandom random) {
+        return userIdByRank[userActivity.sample(random)];
+    }
+
+    public long mostActiveUser() {
+        return userIdByRank[0];
+    }
+
+    public int groupCount() {
+        return groupMembers.length;
+    }
+
+    public long groupId(int index) {
+        return spec.firstGroupId() + index;
+    }
+
+    /**
+     * Pick a group with the skewed group activity distribution
+     */
+    public int nextActiveGroup(SplittableRandom random) {
+        return groupActivity.sample(random);
+    }
+
+    public long[] groupMembers(int index) {
+        return groupMembers[index];
+    }
+
+    /**
+     * Stream all expenses of the dataset in a fixed order
+     */
+    public void forEachExpense(Consumer<GeneratedExpense> consumer) {
+        SplittableRandom random = new SplittableRandom(expenseSeed);
+        for (long i = 0; i < spec.expenses(); i++) {
+            consumer.accept(nextExpense(random, i));
+        }
+    }
+
+    /**
+     * Generate one expense from the dataset's distributions (also used by the load driver for writes)
+     */
+    public GeneratedExpense nextExpense(SplittableRandom random, long sequence) {
+        long payer;
+        Long groupId = null;
+        List<Long> participants = new ArrayList<>();
+
+        if (groupMembers.length > 0 && random.nextDouble() < spec.groupExpenseShare()) {
+            int group = nextActiveGroup(random);
+            long[] members = groupMembers[group];
+            groupId = groupId(group);
+            payer = members[random.nextInt(members.length)];
+            for (long member : members) {
+                participants.add(member);
+            }
+        } else {
+            payer = nextActiveUser(random);
+            Set<Long> friends = new LinkedHashSet<>();
+            friends.add(payer);
+            int friendCount = 1 + random.nextInt(MAX_FRIENDS_PER_EXPENSE);
+            for (int attempt = 0; friends.size() <= friendCount && attempt < friendCount * 4; attempt++) {
+                friends.add(nextActiveUser(random));
+            }
+            if (friends.size() == 1) {
+                friends.add(payer == userId(0) ? userId(1) : userId(0));
+            }
+            participants.addAll(friends);
+        }
+
+        Expense.SplitType splitType = splitTypes.next(random);
+        Expense.ExpenseCategory category = categories.next(random);
+        long total = nextAmount(random);
+
+        return new GeneratedExpense(
+                category.getDisplayName() + " #" + sequence,
+                total,
+                currencies.next(random),
+                payer,
+                today.minusDays(random.nextInt(Math.max(1, spec.daysBack()))),
+                category,
+                splitType,
+                groupId,
+                splitAmounts(random, splitType, total, participants));
+    }
+
+    private List<GeneratedExpense.Split> splitAmounts(SplittableRandom random, Expense.SplitType splitType,
+                                                      long total, List<Long> participants) {
+        int n = participants.size();
+        long[] weights = new long[n];
+        Integer[] ratios = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            switch (splitType) {
+                case EQUAL -> weights[i] = 1;
+                case CUSTOM_RATIO -> {
+                    ratios[i] = 1 + random.nextInt(5);
+                    weights[i] = ratios[i];
+                }
+                default -> weights[i] = 1 + random.nextInt(100);
+            }
+        }
+        long weightSum = 0;
+        for (long weight : weights) {
+            weightSum += weight;
+        }
+
+        // Proportional shares; the rounding remainder goes to the last participant, as the split service does
+        List<GeneratedExpense.Split> splits = new ArrayList<>(n);
+        long allocated = 0;
+        for (int i = 0; i < n; i++) {
+            long amount = i == n - 1 ? total - allocated : total * weights[i] / weightSum;
+            allocated += amount;
+            splits.add(new GeneratedExpense.Split(participants.get(i), amount, ratios[i]));
+        }
+        return splits;
+    }
+
+    private long nextAmount(SplittableRandom random) {
+        double amount = MEDIAN_AMOUNT_MINOR * Math.exp(AMOUNT_SIGMA * random.nextGaussian());
+        return Math.max(MIN_AMOUNT_MINOR, Math.min(MAX_AMOUNT_MINOR, Math.round(amount)));
+    }
+
+    private long[] shuffledUserIds(SplittableRandom random) {
+        long[] ids = new long[spec.users()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = userId(i);
+        }
+        // Fisher-Yates, so the most active users are spread over the id range
+        for (int i = ids.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long tmp = ids[i];
+            ids[i] = ids[j];
+            ids[j] = tmp;
+        }
+        return ids;
+    }
+
+    private long[][] buildGroups(SplittableRandom random) {
+        int sizeRange = Math.max(1, spec.maxGroupSize() - spec.minGroupSize() + 1);
+        ZipfDistribution groupSizes = new ZipfDistribution(sizeRange, spec.groupSizeSkew());
+        long[][] groups = new long[spec.groups()][];
+
+        for (int g = 0; g < groups.length; g++) {
+            int size = Math.min(spec.users(), spec.minGroupSize() + groupSizes.sample(random));
+            Set<Long> members = new LinkedHashSet<>();
+            // Active users belong to more groups; fall back to uniform picks if the skew keeps repeating
+            for (int attempt = 0; members.size() < size; attempt++) {
+                members.add(attempt < size * 4 ? nextActiveUser(random) : userId(random.nextInt(spec.users())));
+            }
+            groups[g] = members.stream().mapToLong(Long::longValue).toArray();
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,47 @@
+package org.splitzy.loadtest.data;
+
+import org.splitzy.loadtest.LoadTestOptions;
+
+import java.util.Map;
+
+/**
+ * Shape of a synthetic dataset. The same spec and seed always produce the same data,
+ * so a dataset can be rebuilt anywhere from its command line alone.
+ */
+public record DatasetSpec(
+        long seed,
+        int users,
+        long firstUserId,
+        int groups,
+        long firstGroupId,
+        long expenses,
+        double userActivitySkew,   // Zipf exponent over users; higher means a few users create most expenses
+        double groupActivitySkew,  // Zipf exponent over groups
+        int minGroupSize,
+        int maxGroupSize,
+        double groupSizeSkew,      // Zipf exponent over sizes; small groups are the most common
+        double groupExpenseShare,  // Fraction of expenses created inside a group
+        int daysBack,
+        Map<String, Integer> splitTypeMix,
+        Map<String, Integer> currencyMix
+) {
+
+    public static DatasetSpec from(LoadTestOptions options) {
+        return new DatasetSpec(
+                options.getLong("seed", 42L),
+                options.getInt("users", 10_000),
+                options.getLong("first-user-id", 1_000_000L),
+                options.getInt("groups", 2_000),
+                options.getLong("first-group-id", 1_000_000L),
+                options.getLong("expenses", 200_000L),
+                options.getDouble("user-skew", 1.1),
+                options.getDouble("group-skew", 0.9),
+                options.getInt("min-group-size", 2),
+                options.getInt("max-group-size", 20),
+                options.getDouble("group-size-skew", 1.4),
+                options.getDouble("group-share", 0.7),
+                options.getInt("days-back", 365),
+                options.getWeights("split-mix", "EQUAL:60,EXACT:20,CUSTOM_RATIO:15,ITEMIZED:5"),
+                options.getWeights("currency-mix", "INR:90,USD:6,EUR:4"));
+    }
+}
@@ -0,0 +1,25 @@
+package org.splitzy.loadtest.data;
+
+import org.splitzy.expense.entity.Expense;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A generated expense; amounts are in minor units and the splits always add up to the total
+ */
+public record GeneratedExpense(
+        String title,
+        long totalMinor,
+        String currency,
+        long paidByUserId,
+        LocalDate expenseDate,
+        Expense.ExpenseCategory category,
+        Expense.SplitType splitType,
+        Long groupId,
+        List<Split> splits
+) {
+
+    public record Split(long userId, long amountMinor, Integer ratio) {
+    }
+}
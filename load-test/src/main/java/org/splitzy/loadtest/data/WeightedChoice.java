@@ -0,0 +1,44 @@
+package org.splitzy.loadtest.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Picks one of a fixed set of values with the given relative weights
+ */
+public final class WeightedChoice<T> {
+
+    private final List<T> values = new ArrayList<>();
+    private final int[] cumulative;
+    private final int total;
+
+    public WeightedChoice(Map<T, Integer> weights) {
+        this.cumulative = new int[weights.size()];
+        int sum = 0;
+        int i = 0;
+        for (Map.Entry<T, Integer> entry : weights.entrySet()) {
+            if (entry.getValue() < 0) {
+                throw new IllegalArgumentException("Negative weight for " + entry.getKey());
+            }
+            sum += entry.getValue();
+            values.add(entry.getKey());
+            cumulative[i++] = sum;
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("At least one weight must be positive");
+        }
+        this.total = sum;
+    }
+
+    public T next(SplittableRandom random) {
+        int point = random.nextInt(total);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (point < cumulative[i]) {
+                return values.get(i);
+            }
+        }
+        return values.get(values.size() - 1);
+    }
+}
@@ -0,0 +1,49 @@
+package org.splitzy.loadtest.driver;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collects latencies (microseconds) and status codes of one operation.
+ * Samples are kept raw so percentiles are exact; a one-minute run at a few thousand
+ * requests per second needs only a few megabytes.
+ */
+public final class LatencyRecorder {
+
+    private long[] samples = new long[1 << 14];
+    private int count;
+    private long errors;
+    private final Map<Integer, Long> statuses = new TreeMap<>();
+
+    synchronized void record(long latencyMicros, int status) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, samples.length * 2);
+        }
+        samples[count++] = latencyMicros;
+        statuses.merge(status, 1L, Long::sum);
+        if (status == 0 || status >= 500) {
+            errors++;
+        }
+    }
+
+    synchronized Summary summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return new Summary(count, errors, count / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                percentile(sorted, 0.999), count > 0 ? sorted[count - 1] : 0, new TreeMap<>(statuses));
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    public record Summary(long requests, long errors, double throughput, long p50, long p90, long p99, long p999, long max,
+                   Map<Integer, Long> statuses) {
+    }
+}
@@ -0,0 +1,215 @@
+package org.splitzy.loadtest.driver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.splitzy.loadtest.LoadTestOptions;
+import org.splitzy.loadtest.data.DatasetGenerator;
+import org.splitzy.loadtest.data.GeneratedExpense;
+import org.splitzy.loadtest.data.WeightedChoice;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load driver: a fixed number of virtual-thread workers replay a weighted mix of
+ * expense writes, feed reads, balance reads and notification reads against running services.
+ * Users and groups come from the same deterministic dataset as the bulk loader, so reads hit
+ * loaded data with the same activity skew. Results are reported per operation after the warm-up.
+ * Servlet and reactive reads of the same data can be mixed in one run to compare them under equal load.
+ * Requests identify their user with X-User-Id rather than a token, so the services under test must run with
+ * JWT_REQUIRED=false and splitzy.jwt.trust-user-header=true (never outside an isolated load-test stack).
+ */
+public class LoadDriver {
+
+    private static final String USER_HEADER = "X-User-Id";
+
+    private final DatasetGenerator generator;
+    private final String expenseUrl;
+    private final String notificationUrl;
+    private final Duration duration;
+    private final Duration warmup;
+    private final Duration requestTimeout;
+    private final int concurrency;
+    private final int pageSize;
+    private final String accept;
+    private final WeightedChoice<Operation> mix;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+    private final AtomicLong sequence = new AtomicLong();
+
+    public LoadDriver(LoadTestOptions options, DatasetGenerator generator) {
+        this.generator = generator;
+        this.expenseUrl = options.getString("expense-url", "http://localhost:8082");
+        this.notificationUrl = options.getString("notification-url", null);
+        this.duration = options.getDuration("duration", Duration.ofSeconds(60));
+        this.warmup = options.getDuration("warmup", Duration.ofSeconds(10));
+        this.requestTimeout = options.getDuration("timeout", Duration.ofSeconds(10));
+        this.concurrency = options.getInt("concurrency", 64);
+        this.pageSize = options.getInt("page-size", 20);
+        this.accept = options.getString("accept", "application/json");
+
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        options.getWeights("mix", "CREATE_EXPENSE:10,EXPENSE_FEED:45,BALANCES:25,GROUP_BALANCES:10,NOTIFICATIONS:10")
+                .forEach((operation, weight) -> weights.put(Operation.valueOf(operation), weight));
+        if (notificationUrl == null) {
+            // No notification service to call
+            weights.remove(Operation.NOTIFICATIONS);
+            weights.remove(Operation.NOTIFICATIONS_REACTIVE);
+        }
+        if (generator.groupCount() == 0) {
+            weights.remove(Operation.GROUP_BALANCES);
+        }
+        this.mix = new WeightedChoice<>(weights);
+        weights.keySet().forEach(operation -> recorders.put(operation, new LatencyRecorder()));
+    }
+
+    /**
+     * Drive the configured mix, print the report and return the per-operation results
+     */
+    public Map<Operation, LatencyRecorder.Summary> run(PrintStream out) throws InterruptedException {
+        long seed = generator.getSpec().seed();
+        long warmupEnds = System.nanoTime() + warmup.toNanos();
+        long runEnds = warmupEnds + duration.toNanos();
+
+        // The client gets its own executor: it must keep accepting tasks after the workers are shut down
+        try (ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+             ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(clientExecutor)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            out.printf("Driving %s with %d workers: %ss warm-up, %ss measured%n",
+                    expenseUrl, concurrency, warmup.toSeconds(), duration.toSeconds());
+            for (int worker = 0; worker < concurrency; worker++) {
+                SplittableRandom random = new SplittableRandom(seed * 31 + worker);
+                workers.submit(() -> runWorker(client, random, warmupEnds, runEnds));
+            }
+            workers.shutdown();
+            workers.awaitTermination(duration.plus(warmup).plus(requestTimeout).toSeconds() + 5, TimeUnit.SECONDS);
+        }
+        return report(out);
+    }
+
+    private void runWorker(HttpClient client, SplittableRandom random, long warmupEnds, long runEnds) {
+        while (System.nanoTime() < runEnds) {
+            Operation operation = mix.next(random);
+            HttpRequest request = buildRequest(operation, random);
+            long started = System.nanoTime();
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException ex) {
+                status = 0;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (started >= warmupEnds) {
+                recorders.get(operation).record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started), status);
+            }
+        }
+    }
+
+    private HttpRequest buildRequest(Operation operation, SplittableRandom random) {
+        long userId = generator.nextActiveUser(random);
+        return switch (operation) {
+            case CREATE_EXPENSE -> {
+                GeneratedExpense expense = generator.nextExpense(random, sequence.incrementAndGet());
+                yield request(expenseUrl + "/api/expenses/create", expense.paidByUserId())
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(toCreateRequest(expense)))
+                        .build();
+            }
+            case EXPENSE_FEED -> request(expenseUrl + "/api/expenses/getAll?page=" + (random.nextInt(10) < 8 ? 0 : random.nextInt(5))
+                    + "&size=" + pageSize, userId).GET().build();
+            case BALANCES -> request(expenseUrl + "/api/balances", userId).GET().build();
+            case BALANCES_REACTIVE -> request(expenseUrl + "/api/reactive/balances", userId).GET().build();
+            case BALANCE_BETWEEN -> request(expenseUrl + "/api/balances/between/" + generator.nextActiveUser(random), userId).GET().build();
+            case BALANCE_BETWEEN_REACTIVE -> request(expenseUrl + "/api/reactive/balances/between/" + generator.nextActiveUser(random), userId).GET().build();
+            case GROUP_BALANCES -> {
+                int group = generator.nextActiveGroup(random);
+                long[] members = generator.groupMembers(group);
+                yield request(expenseUrl + "/api/balances/groups/" + generator.groupId(group),
+                        members[random.nextInt(members.length)]).GET().build();
+            }
+            case NOTIFICATIONS -> request(notificationUrl + "/api/notifications?page=0&size=" + pageSize, userId).GET().build();
+            case NOTIFICATIONS_REACTIVE -> request(notificationUrl + "/api/reactive/notifications?page=0&size=" + pageSize, userId).GET().build();
+        };
+    }
+
+    private HttpRequest.Builder request(String url, long userId) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(requestTimeout)
+                .header(USER_HEADER, String.valueOf(userId))
+                .header("Accept", accept);
+    }
+
+    private byte[] toCreateRequest(GeneratedExpense expense) {
+        List<Map<String, Object>> splits = new ArrayList<>(expense.splits().size());
+        for (GeneratedExpense.Split split : expense.splits()) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("userId", split.userId());
+            switch (expense.splitType()) {
+                case EXACT -> body.put("amount", BigDecimal.valueOf(split.amountMinor(), 2));
+                case ITEMIZED -> body.put("itemTotal", BigDecimal.valueOf(split.amountMinor(), 2));
+                case CUSTOM_RATIO -> body.put("ratio", split.ratio());
+                default -> {
+                }
+            }
+            splits.add(body);
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("title", expense.title());
+        body.put("totalAmount", BigDecimal.valueOf(expense.totalMinor(), 2));
+        body.put("currency", expense.currency());
+        body.put("paidByUserId", expense.paidByUserId());
+        body.put("expenseDate", expense.expenseDate().toString());
+        body.put("category", expense.category().name());
+        body.put("splitType", expense.splitType().name());
+        if (expense.groupId() != null) {
+            body.put("groupId", expense.groupId());
+        }
+        body.put("splits", splits);
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to serialize expense request", ex);
+        }
+    }
+
+    private Map<Operation, LatencyRecorder.Summary> report(PrintStream out) {
+        double seconds = duration.toNanos() / 1_000_000_000.0;
+        Map<Operation, LatencyRecorder.Summary> summaries = new EnumMap<>(Operation.class);
+        out.printf("%n%-26s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        long total = 0;
+        for (Map.Entry<Operation, LatencyRecorder> entry : recorders.entrySet()) {
+            LatencyRecorder.Summary summary = entry.getValue().summarize(seconds);
+            summaries.put(entry.getKey(), summary);
+            total += summary.requests();
+            out.printf("%-26s %10d %8d %10.1f %9.1f %9.1f %9.1f %9.1f %9.1f   %s%n",
+                    entry.getKey(), summary.requests(), summary.errors(), summary.throughput(),
+                    summary.p50() / 1000.0, summary.p90() / 1000.0, summary.p99() / 1000.0,
+                    summary.p999() / 1000.0, summary.max() / 1000.0, summary.statuses());
+        }
+        out.printf("%-26s %10d %8s %10.1f%n", "total", total, "", total / seconds);
+        return summaries;
+    }
+}
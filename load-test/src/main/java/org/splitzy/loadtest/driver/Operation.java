@@ -0,0 +1,18 @@
+package org.splitzy.loadtest.driver;
+
+/**
+ * Requests replayed by the load driver
+ */
+public enum Operation {
+    CREATE_EXPENSE,   // POST /api/expenses/create
+    EXPENSE_FEED,     // GET /api/expenses/getAll
+    BALANCES,         // GET /api/balances
+    GROUP_BALANCES,   // GET /api/balances/groups/{groupId}
+    NOTIFICATIONS,    // GET {notification-url}/api/notifications
+    // Reactive read path, for comparison with the servlet reads above, e.g.
+    // --mix=BALANCES:50,BALANCES_REACTIVE:50
+    BALANCES_REACTIVE,            // GET /api/reactive/balances
+    BALANCE_BETWEEN,              // GET /api/balances/between/{otherUserId}
+    BALANCE_BETWEEN_REACTIVE,     // GET /api/reactive/balances/between/{otherUserId}
+    NOTIFICATIONS_REACTIVE        // GET {notification-url}/api/reactive/notifications
+}
@@ -0,0 +1,88 @@
+package org.splitzy.loadtest.driver;
+
+import org.splitzy.loadtest.LoadTestOptions;
+import org.splitzy.loadtest.data.DatasetGenerator;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares each servlet read with its reactive variant. Every variant runs on its own for the full
+ * warm-up and measurement at each concurrency level, so neither competes with the other for threads
+ * or connections, and the results are written as a markdown table next to the console report.
+ * Run it against services sized as in production: the difference shows once concurrency exceeds
+ * the servlet thread pool and the JDBC pool.
+ */
+public class ReactiveComparison {
+
+    private static final Map<Operation, Operation> VARIANTS = new LinkedHashMap<>();
+
+    static {
+        VARIANTS.put(Operation.BALANCES, Operation.BALANCES_REACTIVE);
+        VARIANTS.put(Operation.BALANCE_BETWEEN, Operation.BALANCE_BETWEEN_REACTIVE);
+        VARIANTS.put(Operation.NOTIFICATIONS, Operation.NOTIFICATIONS_REACTIVE);
+    }
+
+    private final LoadTestOptions options;
+    private final DatasetGenerator generator;
+    private final List<Integer> concurrencyLevels = new ArrayList<>();
+    private final Path results;
+
+    public ReactiveComparison(LoadTestOptions options, DatasetGenerator generator) {
+        this.options = options;
+        this.generator = generator;
+        for (String level : options.getString("concurrency-levels", "16,64,256").split(",")) {
+            concurrencyLevels.add(Integer.parseInt(level.trim()));
+        }
+        this.results = Path.of(options.getString("results", "reactive-vs-servlet.md"));
+    }
+
+    public void run(PrintStream out) throws InterruptedException, IOException {
+        boolean notifications = options.getString("notification-url", null) != null;
+        List<String> rows = new ArrayList<>();
+        for (Map.Entry<Operation, Operation> variants : VARIANTS.entrySet()) {
+            if (variants.getKey() == Operation.NOTIFICATIONS && !notifications) {
+                continue;
+            }
+            for (int concurrency : concurrencyLevels) {
+                LatencyRecorder.Summary servlet = drive(out, variants.getKey(), concurrency);
+                LatencyRecorder.Summary reactive = drive(out, variants.getValue(), concurrency);
+                rows.add(row(variants.getKey(), concurrency, "servlet", servlet));
+                rows.add(row(variants.getKey(), concurrency, "reactive", reactive));
+            }
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add("# Servlet vs reactive reads");
+        lines.add("");
+        lines.add("Run " + Instant.now() + " against " + options.getString("expense-url", "http://localhost:8082")
+                + ", " + options.getString("warmup", "10s") + " warm-up and " + options.getString("duration", "60s")
+                + " measured per row.");
+        lines.add("");
+        lines.add("| read | workers | path | req/s | p50 ms | p99 ms | p99.9 ms | errors |");
+        lines.add("|---|---:|---|---:|---:|---:|---:|---:|");
+        lines.addAll(rows);
+        Files.write(results, lines);
+        out.printf("%nResults written to %s%n", results.toAbsolutePath());
+    }
+
+    private LatencyRecorder.Summary drive(PrintStream out, Operation operation, int concurrency) throws InterruptedException {
+        LoadTestOptions run = options
+                .with("mix", operation.name() + ":1")
+                .with("concurrency", String.valueOf(concurrency));
+        return new LoadDriver(run, generator).run(out).get(operation);
+    }
+
+    private static String row(Operation read, int concurrency, String path, LatencyRecorder.Summary summary) {
+        return String.format("| %s | %d | %s | %.1f | %.1f | %.1f | %.1f | %d |",
+                read, concurrency, path, summary.throughput(), summary.p50() / 1000.0,
+                summary.p99() / 1000.0, summary.p999() / 1000.0, summary.errors());
+    }
+}
@@ -0,0 +1,80 @@
+package org.splitzy.notification.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.splitzy.common.dto.ApiResponse;
+import org.splitzy.common.dto.PageResponse;
+import org.splitzy.common.version.ResourceVersionService;
+import org.splitzy.notification.dto.response.NotificationResponse;
+import org.splitzy.notification.service.NotificationService;
+import org.splitzy.notification.service.ReactiveNotificationReadService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+
+/** Non-blocking notification feed and unread count, completed asynchronously by Spring MVC */
+@Slf4j
+@RestController
+@RequestMapping("/api/reactive/notifications")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "splitzy.reactive-read", name = "enabled", havingValue = "true")
+public class ReactiveNotificationController {
+
+    private final ReactiveNotificationReadService reactiveNotificationReadService;
+    private final NotificationService notificationService;
+
+    /** Get notification feed for user */
+    @GetMapping
+    @Operation(summary = "Get notifications (reactive)", description = "Notification feed read over R2DBC; supports If-None-Match")
+    public Mono<ResponseEntity<ApiResponse<PageResponse<NotificationResponse>>>> getNotifications(
+            @RequestHeader("X-User-Id") Long userId,
+            @RequestParam(defaultValue = "false") boolean unreadOnly,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest) {
+        log.info("Reactive get notifications request for user: {}", userId);
+
+        String ifNoneMatch = webRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
+        // The version lookup is a blocking Redis call, so it runs off the request thread as well
+        return Mono.fromCallable(() -> Optional.ofNullable(notificationService.getNotificationsEtag(userId)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(etag -> {
+                    if (etag.isPresent() && ResourceVersionService.matches(ifNoneMatch, etag.get())) {
+                        return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build());
+                    }
+                    return reactiveNotificationReadService.getNotifications(userId, unreadOnly, page, size)
+                            .map(response -> etag.isPresent()
+                                    ? ResponseEntity.ok().eTag(etag.get()).body(ApiResponse.success(response))
+                                    : ResponseEntity.ok(ApiResponse.success(response)));
+                });
+    }
+
+    /** Stream notification feed for user as newline-delimited JSON */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream notifications", description = "Emit each notification as it is read; the client's read rate drives the query")
+    public Flux<NotificationResponse> streamNotifications(
+            @RequestHeader("X-User-Id") Long userId,
+            @RequestParam(defaultValue = "false") boolean unreadOnly,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
+        return reactiveNotificationReadService.streamNotifications(userId, unreadOnly, page, size);
+    }
+
+    /** Count unread notifications for user */
+    @GetMapping("/unread-count")
+    @Operation(summary = "Count unread notifications (reactive)")
+    public Mono<ResponseEntity<ApiResponse<Long>>> countUnread(@RequestHeader("X-User-Id") Long userId) {
+        return reactiveNotificationReadService.countUnreadNotifications(userId)
+                .map(count -> ResponseEntity.ok(ApiResponse.success(count)));
+    }
+}
@@ -0,0 +1,30 @@
+package org.splitzy.notification.migration;
+
+import org.splitzy.common.migration.IndexDefinition;
+import org.splitzy.common.migration.OnlineIndexMigration;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static org.splitzy.common.migration.IndexDefinition.index;
+import static org.splitzy.common.migration.IndexDefinition.uniqueIndex;
+
+/**
+ * Indexes declared on Notification and NotificationPreference, built online
+ */
+@Component
+public class V2__Add_secondary_indexes extends OnlineIndexMigration {
+
+    @Override
+    protected List<IndexDefinition> indexes() {
+        return List.of(
+                index("notifications", "idx_recipient_user", "recipient_user_id"),
+                index("notifications", "idx_notification_type", "notification_type"),
+                index("notifications", "idx_status", "status"),
+                index("notifications", "idx_created_at", "created_at"),
+                index("notifications", "idx_read_at", "read_at"),
+                index("notifications", "idx_recipient_read", "recipient_user_id", "read_at"),
+
+                uniqueIndex("notification_preferences", "idx_user", "user_id"));
+    }
+}
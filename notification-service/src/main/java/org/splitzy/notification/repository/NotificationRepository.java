@@ -43,7 +43,7 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     /**
      * Find notifications that failed email delivery
      */
-    @Query("SELECT n FROM Notification n WHERE n.status IN ('PENDING', 'RETRY') AND n.emailSent = false AND n.retryCount < 3 AND n.isActive = trueORDER BY n.createdAt ASC")
+    @Query("SELECT n FROM Notification n WHERE n.status IN ('PENDING', 'RETRY') AND n.emailSent = false AND n.retryCount < 3 AND n.isActive = true ORDER BY n.createdAt ASC")
     List<Notification> findFailedEmailNotifications();
 
     /**
@@ -75,7 +75,7 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     /**
      * Find notifications for specific entity
      */
-    @Query("SELECT n FROM Notification n WHERE n.recipientUserId = :userId AND n.entityType = :entityType AND n.entityId = :entityId AND n.isActive = trueORDER BY n.createdAt DESC")
+    @Query("SELECT n FROM Notification n WHERE n.recipientUserId = :userId AND n.entityType = :entityType AND n.entityId = :entityId AND n.isActive = true ORDER BY n.createdAt DESC")
     Page<Notification> findNotificationsForEntity(
             @Param("userId") Long userId,
             @Param("entityType") String entityType,
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.splitzy.common.dto.PageResponse;
 import org.splitzy.common.exception.ResourceNotFoundException;
+import org.splitzy.common.version.ResourceVersionService;
 import org.splitzy.notification.dto.response.NotificationResponse;
 import org.splitzy.notification.entity.Notification;
 import org.splitzy.notification.repository.NotificationRepository;
@@ -13,6 +14,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.stream.Collectors;
@@ -22,9 +24,17 @@ import java.util.stream.Collectors;
 @Transactional
 @RequiredArgsConstructor
 public class NotificationService {
+    public static final String NOTIFICATIONS_RESOURCE = "notifications";
 
     private final NotificationRepository notificationRepository;
     private final MapDoToResponse mapDoToResponse;
+    private final ResourceVersionService resourceVersionService;
+
+    /** ETag of a user's notifications, built from the per-user version counter only */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String getNotificationsEtag(Long userId) {
+        return resourceVersionService.etag(NOTIFICATIONS_RESOURCE, userId);
+    }
 
     /** Get Unread Notifications for user. */
     @Transactional(readOnly = true)
@@ -81,6 +91,7 @@ public class NotificationService {
 
         notification.markAsRead();
         notificationRepository.save(notification);
+        resourceVersionService.bumpAfterCommit(NOTIFICATIONS_RESOURCE, userId);
         log.info("Notification marked as read");
     }
 
@@ -88,6 +99,7 @@ public class NotificationService {
     public void markAllAsRead(Long userId){
         log.info("marking all notifications as read for user: {}", userId);
         notificationRepository.markAllAsRead(userId);
+        resourceVersionService.bumpAfterCommit(NOTIFICATIONS_RESOURCE, userId);
         log.info("All notifications marked as read for use: {}", userId);
     }
 
@@ -131,6 +143,7 @@ public class NotificationService {
 
         notification.setIsActive(false);
         notificationRepository.save(notification);
+        resourceVersionService.bumpAfterCommit(NOTIFICATIONS_RESOURCE, userId);
         log.info("Notification deleted");
     }
 
@@ -152,6 +165,8 @@ public class NotificationService {
         log.info("Creating notification for user: {} of type: {}",
                 notification.getRecipientUserId(), notification.getNotificationType());
 
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        resourceVersionService.bumpAfterCommit(NOTIFICATIONS_RESOURCE, notification.getRecipientUserId());
+        return saved;
     }
 }
@@ -0,0 +1,109 @@
+package org.splitzy.notification.service;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.splitzy.common.dto.PageResponse;
+import org.splitzy.common.r2dbc.ReactiveReadDatabase;
+import org.splitzy.notification.dto.response.NotificationResponse;
+import org.splitzy.notification.entity.Notification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Notification feed and unread count over R2DBC, with the same responses as {@link NotificationService}
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "splitzy.reactive-read", name = "enabled", havingValue = "true")
+public class ReactiveNotificationReadService {
+
+    private static final String COLUMNS = "id, recipient_user_id, sender_user_id, notification_type, title, message, description, " +
+            "entity_type, entity_id, status, is_read, read_at, email_sent, websocket_sent, created_at";
+
+    private static final String FEED_SQL = "SELECT " + COLUMNS + " FROM notifications " +
+            "WHERE recipient_user_id = :userId AND is_active = true ORDER BY created_at DESC LIMIT :limit OFFSET :offset";
+
+    private static final String UNREAD_FEED_SQL = "SELECT " + COLUMNS + " FROM notifications " +
+            "WHERE recipient_user_id = :userId AND is_read = false AND is_active = true ORDER BY created_at DESC LIMIT :limit OFFSET :offset";
+
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM notifications WHERE recipient_user_id = :userId AND is_active = true";
+
+    private static final String COUNT_UNREAD_SQL = "SELECT COUNT(*) FROM notifications " +
+            "WHERE recipient_user_id = :userId AND is_read = false AND is_active = true";
+
+    private final ReactiveReadDatabase database;
+
+    /** Get a page of notifications for user, optionally only unread ones; page and total are read concurrently */
+    public Mono<PageResponse<NotificationResponse>> getNotifications(Long userId, boolean unreadOnly, int page, int size) {
+        log.debug("Reading notifications for user {} over R2DBC", userId);
+
+        Mono<List<NotificationResponse>> content = streamNotifications(userId, unreadOnly, page, size).collectList();
+        Mono<Long> total = count(unreadOnly ? COUNT_UNREAD_SQL : COUNT_SQL, userId);
+
+        return Mono.zip(content, total).map(result -> {
+            long totalElements = result.getT2();
+            int totalPages = size == 0 ? 1 : (int) Math.ceil((double) totalElements / size);
+            return PageResponse.<NotificationResponse>builder()
+                    .content(result.getT1())
+                    .pageNumber(page)
+                    .pageSize(size)
+                    .totalElements(totalElements)
+                    .totalPages(totalPages)
+                    .first(page == 0)
+                    .last(page + 1 >= totalPages)
+                    .hasNext(page + 1 < totalPages)
+                    .hasPrevious(page > 0)
+                    .build();
+        });
+    }
+
+    /** Stream a page of notifications for user as rows arrive */
+    public Flux<NotificationResponse> streamNotifications(Long userId, boolean unreadOnly, int page, int size) {
+        return database.getClient().sql(unreadOnly ? UNREAD_FEED_SQL : FEED_SQL)
+                .bind("userId", userId)
+                .bind("limit", size)
+                .bind("offset", (long) page * size)
+                .map(ReactiveNotificationReadService::toResponse)
+                .all();
+    }
+
+    /** Count unread notifications */
+    public Mono<Long> countUnreadNotifications(Long userId) {
+        return count(COUNT_UNREAD_SQL, userId);
+    }
+
+    private Mono<Long> count(String sql, Long userId) {
+        return database.getClient().sql(sql)
+                .bind("userId", userId)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .defaultIfEmpty(0L);
+    }
+
+    private static NotificationResponse toResponse(Readable row) {
+        return NotificationResponse.builder()
+                .id(row.get("id", Long.class))
+                .recipientUserId(row.get("recipient_user_id", Long.class))
+                .senderUserId(row.get("sender_user_id", Long.class))
+                .notificationType(Notification.NotificationType.valueOf(row.get("notification_type", String.class)))
+                .title(row.get("title", String.class))
+                .message(row.get("message", String.class))
+                .description(row.get("description", String.class))
+                .entityType(row.get("entity_type", String.class))
+                .entityId(row.get("entity_id", Long.class))
+                .status(Notification.NotificationStatus.valueOf(row.get("status", String.class)))
+                .isRead(row.get("is_read", Boolean.class))
+                .readAt(row.get("read_at", LocalDateTime.class))
+                .emailSent(row.get("email_sent", Boolean.class))
+                .websocketSent(row.get("websocket_sent", Boolean.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .build();
+    }
+}
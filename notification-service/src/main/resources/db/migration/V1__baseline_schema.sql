@@ -0,0 +1,52 @@
+-- Notification schema as previously created by ddl-auto=update.
+-- Existing databases are baselined at this version; secondary indexes are added online by V2.
+
+CREATE TABLE notifications (
+    id                BIGINT        NOT NULL AUTO_INCREMENT,
+    created_at        DATETIME(6)   NOT NULL,
+    updated_at        DATETIME(6)   NOT NULL,
+    is_active         BIT           NOT NULL,
+    recipient_user_id BIGINT        NOT NULL,
+    sender_user_id    BIGINT,
+    notification_type ENUM ('EXPENSE_CREATED','EXPENSE_UPDATED','SPLIT_CREATED','SPLIT_SETTLED',
+                            'SETTLEMENT_INITIATED','SETTLEMENT_COMPLETED','SETTLEMENT_FAILED','REMINDER',
+                            'INVITATION','GROUP_UPDATED','PAYMENT_REQUEST','GENERAL_ALERT','WELCOME',
+                            'ACTIVITY_SUMMARY') NOT NULL,
+    title             VARCHAR(200)  NOT NULL,
+    message           TEXT          NOT NULL,
+    description       VARCHAR(1000),
+    entity_type       VARCHAR(50),
+    entity_id         BIGINT,
+    related_data      JSON,
+    status            ENUM ('PENDING','DELIVERED','FAILED','RETRY','ARCHIVED') NOT NULL,
+    is_read           BIT           NOT NULL,
+    read_at           DATETIME(6),
+    email_sent        BIT           NOT NULL,
+    email_sent_at     DATETIME(6),
+    websocket_sent    BIT           NOT NULL,
+    websocket_sent_at DATETIME(6),
+    retry_count       INT           NOT NULL,
+    failure_reason    VARCHAR(500),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE notification_preferences (
+    id                              BIGINT      NOT NULL AUTO_INCREMENT,
+    created_at                      DATETIME(6) NOT NULL,
+    updated_at                      DATETIME(6) NOT NULL,
+    is_active                       BIT         NOT NULL,
+    user_id                         BIGINT      NOT NULL,
+    email_on_expense_created        BIT         NOT NULL,
+    email_on_expense_updated        BIT         NOT NULL,
+    email_on_settlement_completed   BIT         NOT NULL,
+    email_on_payment_request        BIT         NOT NULL,
+    email_on_reminder               BIT         NOT NULL,
+    websocket_notifications_enabled BIT         NOT NULL,
+    push_notifications_enabled      BIT         NOT NULL,
+    sms_notifications_enabled       BIT         NOT NULL,
+    quiet_hours_start               VARCHAR(5),
+    quiet_hours_end                 VARCHAR(5),
+    digest_frequency                VARCHAR(20),
+    notification_language           VARCHAR(5),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,19 @@
+package org.splitzy.notification;
+
+import org.splitzy.common.query.QueryCountingDataSourceConfig;
+import org.splitzy.common.test.MySqlContainerConfig;
+import org.splitzy.notification.migration.V2__Add_secondary_indexes;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Configuration picked up by the repository slice tests; the Java migration is imported so Flyway
+ * builds the same schema as production
+ */
+@SpringBootApplication
+@Import({
+        MySqlContainerConfig.class,
+        QueryCountingDataSourceConfig.class,
+        V2__Add_secondary_indexes.class})
+public class RepositoryTestApplication {
+}
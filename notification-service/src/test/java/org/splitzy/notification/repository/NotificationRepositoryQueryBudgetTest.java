@@ -0,0 +1,83 @@
+package org.splitzy.notification.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.splitzy.notification.entity.Notification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.splitzy.common.query.QueryCountAssertions.assertAtMost;
+import static org.splitzy.common.query.QueryCountAssertions.assertExactly;
+
+/**
+ * Statement budgets of the notification inbox reads and the bulk read marker
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class NotificationRepositoryQueryBudgetTest {
+
+    private static final long RECIPIENT = 1L;
+    private static final int NOTIFICATIONS = 15;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < NOTIFICATIONS; i++) {
+            entityManager.persist(Notification.builder()
+                    .recipientUserId(RECIPIENT)
+                    .senderUserId(2L)
+                    .notificationType(Notification.NotificationType.EXPENSE_CREATED)
+                    .title("Expense " + i)
+                    .message("You were added to expense " + i)
+                    .entityType("EXPENSE")
+                    .entityId((long) i)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void inboxPageTakesOnePageQueryAndOneCount() throws Exception {
+        Page<Notification> page = assertAtMost(2,
+                () -> notificationRepository.findByRecipientUserIdAndIsActiveTrue(RECIPIENT, PageRequest.of(0, 10)));
+
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getTotalElements()).isEqualTo(NOTIFICATIONS);
+    }
+
+    @Test
+    void recentNotificationsTakeOneQuery() throws Exception {
+        List<Notification> recent = assertExactly(1, () -> notificationRepository.findRecentNotifications(RECIPIENT, 5));
+
+        assertThat(recent).hasSize(5);
+    }
+
+    @Test
+    void unreadCountTakesOneQuery() throws Exception {
+        assertThat(assertExactly(1, () -> notificationRepository.countUnreadNotifications(RECIPIENT)))
+                .isEqualTo(NOTIFICATIONS);
+    }
+
+    @Test
+    void markAllAsReadIsOneUpdate() throws Exception {
+        assertExactly(1, () -> {
+            notificationRepository.markAllAsRead(RECIPIENT);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,120 @@
+#!/usr/bin/env bash
+#
+# Startup benchmark: time-to-first-request and resident memory per service.
+#
+#   mvn -Pfast-startup -DskipTests package        # jvm + cds modes
+#   mvn -Pnative -DskipTests package              # native mode (GraalVM)
+#   scripts/startup-benchmark.sh [-r runs] [-m "jvm cds native"] [service ...]
+#
+# Each run starts the service, polls the health endpoint until it answers with any
+# HTTP status, then samples RSS and stops the process. MySQL, Redis and Kafka should
+# be running so the numbers reflect a real start. Reported values are medians.
+
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+RUNS=5
+MODES="jvm cds native"
+TIMEOUT_SECONDS=120
+
+declare -A PORT=([auth-service]=8081 [expense-service]=8082)
+declare -A JAR=([auth-service]=auth-service-1.0.0-exec.jar [expense-service]=expense-service-1.0.0-exec.jar)
+
+while getopts "r:m:t:" opt; do
+  case "$opt" in
+    r) RUNS="$OPTARG" ;;
+    m) MODES="$OPTARG" ;;
+    t) TIMEOUT_SECONDS="$OPTARG" ;;
+    *) echo "usage: $0 [-r runs] [-m modes] [-t timeout] [service ...]" >&2; exit 2 ;;
+  esac
+done
+shift $((OPTIND - 1))
+if (( $# > 0 )); then
+  SERVICES=("$@")
+else
+  SERVICES=(auth-service expense-service)
+fi
+
+now_ms() { date +%s%3N; }
+
+rss_kb() {
+  if [[ -r "/proc/$1/status" ]]; then
+    awk '/^VmRSS:/ {print $2}' "/proc/$1/status"
+  else
+    ps -o rss= -p "$1" | tr -d ' '
+  fi
+}
+
+median() { sort -n | awk '{v[NR]=$1} END {if (NR == 0) print "-"; else print v[int((NR + 1) / 2)]}'; }
+
+# Prints the command line for a service in a mode, or nothing if it was not built
+command_for() {
+  local service="$1" mode="$2" target="$ROOT/$1/target"
+  case "$mode" in
+    jvm)
+      [[ -f "$target/${JAR[$service]}" ]] && echo "java -jar $target/${JAR[$service]}" ;;
+    cds)
+      [[ -f "$target/cds/application.jsa" ]] && echo "java -XX:SharedArchiveFile=$target/cds/application.jsa -Dspring.aot.enabled=true -Dspring.profiles.active=faststart -jar $target/cds/${JAR[$service]}" ;;
+    native)
+      [[ -x "$target/$service" ]] && echo "$target/$service" ;;
+  esac
+  return 0
+}
+
+run_once() {
+  local service="$1" cmd="$2" url="http://localhost:${PORT[$1]}/actuator/health"
+  local log="$ROOT/$service/target/startup-benchmark.log"
+  local start pid code elapsed rss
+
+  start=$(now_ms)
+  $cmd > "$log" 2>&1 &
+  pid=$!
+
+  while true; do
+    code=$(curl -s -o /dev/null -w '%{http_code}' "$url" || true)
+    [[ "$code" != "000" ]] && break
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "$service exited during startup, see $log" >&2
+      return 1
+    fi
+    if (( $(now_ms) - start > TIMEOUT_SECONDS * 1000 )); then
+      echo "$service did not answer within ${TIMEOUT_SECONDS}s, see $log" >&2
+      kill "$pid" 2>/dev/null || true
+      return 1
+    fi
+    sleep 0.02
+  done
+  elapsed=$(( $(now_ms) - start ))
+  rss=$(rss_kb "$pid")
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo "$elapsed $rss"
+}
+
+printf '%-18s %-7s %6s %22s %14s\n' "service" "mode" "runs" "first request (ms)" "RSS (MB)"
+for service in "${SERVICES[@]}"; do
+  if [[ -z "${PORT[$service]:-}" ]]; then
+    echo "unknown service: $service" >&2
+    continue
+  fi
+  for mode in $MODES; do
+    cmd=$(command_for "$service" "$mode")
+    if [[ -z "$cmd" ]]; then
+      printf '%-18s %-7s %6s %22s %14s\n' "$service" "$mode" "-" "not built" "-"
+      continue
+    fi
+    times=()
+    rss=()
+    for ((i = 0; i < RUNS; i++)); do
+      if result=$(run_once "$service" "$cmd"); then
+        times+=("${result% *}")
+        rss+=("${result#* }")
+      fi
+    done
+    t=$(printf '%s\n' "${times[@]}" | median)
+    r=$(printf '%s\n' "${rss[@]}" | median)
+    [[ "$r" != "-" ]] && r=$(( r / 1024 ))
+    printf '%-18s %-7s %6s %22s %14s\n' "$service" "$mode" "${#times[@]}" "$t" "$r"
+  done
+done